@@ -19,18 +19,18 @@ package org.gradle.internal.operations;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import org.gradle.api.Action;
+import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.concurrent.ThreadFactoryImpl;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
-public class DefaultBuildOperationProcessor implements BuildOperationProcessor {
+public class DefaultBuildOperationProcessor implements BuildOperationProcessor, Stoppable {
 
     private final ListeningExecutorService fixedSizePool;
 
     public DefaultBuildOperationProcessor(int maxThreads) {
         final int actualThreads = actualThreadCount(maxThreads);
-        // TODO: Who's responsible for shutting down this executor?
         final ExecutorService underlyingExecutor = Executors.newFixedThreadPool(actualThreads, new ThreadFactoryImpl("build operations"));
         this.fixedSizePool = MoreExecutors.listeningDecorator(underlyingExecutor);
     }
@@ -50,4 +50,8 @@ public class DefaultBuildOperationProcessor implements BuildOperationProcessor {
     public <T> OperationQueue<T> newQueue(Action<? super T> worker) {
         return new DefaultOperationQueue<T>(fixedSizePool, worker);
     }
+
+    public void stop() {
+        fixedSizePool.shutdown();
+    }
 }
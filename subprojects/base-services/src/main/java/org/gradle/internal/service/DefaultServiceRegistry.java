@@ -15,17 +15,20 @@
  */
 package org.gradle.internal.service;
 
+import com.google.common.collect.MapMaker;
 import org.gradle.api.Action;
 import org.gradle.api.Nullable;
 import org.gradle.api.specs.Spec;
 import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.reflect.JavaMethod;
 import org.gradle.internal.reflect.JavaReflectionUtil;
 
 import java.io.Closeable;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A hierarchical {@link ServiceRegistry} implementation.
@@ -61,6 +64,8 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     private final OwnServices ownServices;
     private final CompositeProvider parentServices;
     private final String displayName;
+    // Keeps the shared methods of the providers of this registry in the cache for as long as this registry is in use
+    private final List<RelevantMethods> providerMethods = new ArrayList<RelevantMethods>();
     private boolean closed;
 
     public DefaultServiceRegistry() {
@@ -111,84 +116,180 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     private void findProviderMethods(Object target) {
-        Set<String> methods = new HashSet<String>();
-        for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
-            findDecoratorMethods(target, type, methods, ownServices);
-            findFactoryMethods(target, type, methods, ownServices);
+        RelevantMethods methods = RelevantMethods.getMethods(target.getClass());
+        providerMethods.add(methods);
+        for (ServiceMethod method : methods.decorators) {
+            if (parentServices == null) {
+                throw new ServiceLookupException(String.format("Cannot use decorator method %s.%s() when no parent registry is provided.", method.getDeclaringClass().getSimpleName(), method.getName()));
+            }
+        }
+        for (ServiceMethod method : methods.serviceMethods) {
+            if (method.decorator) {
+                ownServices.add(new DecoratorMethodService(target, method));
+            } else {
+                ownServices.add(new FactoryMethodService(target, method));
+            }
+        }
+        if (methods.configurer != null) {
+            applyConfigureMethod(target, methods.configurer);
         }
-        findConfigureMethod(target);
     }
 
-    private void findConfigureMethod(Object target) {
-        for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
-            for (Method method : type.getDeclaredMethods()) {
-                if (!method.getName().equals("configure")) {
-                    continue;
-                }
-                if (!method.getReturnType().equals(Void.TYPE)) {
-                    throw new ServiceLookupException(String.format("Method %s.%s() must return void.", type.getSimpleName(), method.getName()));
-                }
-                Object[] params = new Object[method.getGenericParameterTypes().length];
-                DefaultLookupContext context = new DefaultLookupContext();
-                for (int i = 0; i < method.getGenericParameterTypes().length; i++) {
-                    Type paramType = method.getGenericParameterTypes()[i];
-                    if (paramType.equals(ServiceRegistration.class)) {
-                        params[i] = newRegistration();
-                    } else {
-                        ServiceProvider paramProvider = context.find(paramType, allServices);
-                        if (paramProvider == null) {
-                            throw new ServiceLookupException(String.format("Cannot configure services using %s.%s() as required service of type %s is not available.",
-                                    method.getDeclaringClass().getSimpleName(),
-                                    method.getName(),
-                                    format(paramType)));
-                        }
-                        params[i] = paramProvider.get();
-                    }
-                }
-                try {
-                    invoke(method, target, params);
-                } catch (Exception e) {
-                    throw new ServiceLookupException(String.format("Could not configure services using %s.%s().",
+    private void applyConfigureMethod(Object target, ServiceMethod method) {
+        Type[] parameterTypes = method.getParameterTypes();
+        Object[] params = new Object[parameterTypes.length];
+        DefaultLookupContext context = new DefaultLookupContext();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Type paramType = parameterTypes[i];
+            if (paramType.equals(ServiceRegistration.class)) {
+                params[i] = newRegistration();
+            } else {
+                ServiceProvider paramProvider = context.find(paramType, allServices);
+                if (paramProvider == null) {
+                    throw new ServiceLookupException(String.format("Cannot configure services using %s.%s() as required service of type %s is not available.",
                             method.getDeclaringClass().getSimpleName(),
-                            method.getName()), e);
+                            method.getName(),
+                            format(paramType)));
                 }
-                return;
+                params[i] = paramProvider.get();
             }
         }
+        try {
+            method.invoke(target, params);
+        } catch (Exception e) {
+            throw new ServiceLookupException(String.format("Could not configure services using %s.%s().",
+                    method.getDeclaringClass().getSimpleName(),
+                    method.getName()), e);
+        }
     }
 
-    private void findFactoryMethods(Object target, Class<?> type, Set<String> factoryMethods, OwnServices ownServices) {
-        for (Method method : type.getDeclaredMethods()) {
-            if (method.getName().startsWith("create")
-                    && !Modifier.isStatic(method.getModifiers())) {
-                if (method.getReturnType().equals(Void.TYPE)) {
-                    throw new ServiceLookupException(String.format("Method %s.%s() must not return void.", type.getSimpleName(), method.getName()));
-                }
-                if (factoryMethods.add(method.getName())) {
-                    ownServices.add(new FactoryMethodService(target, method));
+    /**
+     * The factory, decorator and configure methods of a provider class. These are located once per class, and shared by all registries that use
+     * a provider of that class.
+     *
+     * <p>Both the classes and the methods are weakly referenced, as the methods reference their class. The methods of a class stay in the cache
+     * while a registry that uses a provider of that class is in use, and the cache does not keep provider classes or their class loaders alive.</p>
+     */
+    private static class RelevantMethods {
+        private static final ConcurrentMap<Class<?>, RelevantMethods> METHODS = new MapMaker().weakKeys().weakValues().makeMap();
+
+        // In the order in which the services are added to the registry
+        final List<ServiceMethod> serviceMethods = new ArrayList<ServiceMethod>();
+        final List<ServiceMethod> decorators = new ArrayList<ServiceMethod>();
+        ServiceMethod configurer;
+
+        static RelevantMethods getMethods(Class<?> type) {
+            RelevantMethods methods = METHODS.get(type);
+            if (methods == null) {
+                methods = new RelevantMethods(type);
+                RelevantMethods existing = METHODS.putIfAbsent(type, methods);
+                if (existing != null) {
+                    methods = existing;
                 }
             }
+            return methods;
         }
-    }
 
-    private void findDecoratorMethods(Object target, Class<?> type, Set<String> decoratorMethods, OwnServices ownServices) {
-        for (Method method : type.getDeclaredMethods()) {
-            if (method.getName().startsWith("create")
-                    && method.getParameterTypes().length == 1
-                    && method.getParameterTypes()[0].equals(method.getReturnType())) {
-                if (parentServices == null) {
-                    throw new ServiceLookupException(String.format("Cannot use decorator method %s.%s() when no parent registry is provided.", type.getSimpleName(), method.getName()));
+        private RelevantMethods(Class<?> target) {
+            Set<String> methodNames = new HashSet<String>();
+            for (Class<?> type = target; type != Object.class; type = type.getSuperclass()) {
+                Method[] declaredMethods = type.getDeclaredMethods();
+                findDecoratorMethods(type, declaredMethods, methodNames);
+                findFactoryMethods(type, declaredMethods, methodNames);
+            }
+            findConfigureMethod(target);
+        }
+
+        private void findConfigureMethod(Class<?> target) {
+            for (Class<?> type = target; type != Object.class; type = type.getSuperclass()) {
+                for (Method method : type.getDeclaredMethods()) {
+                    if (!method.getName().equals("configure")) {
+                        continue;
+                    }
+                    if (!method.getReturnType().equals(Void.TYPE)) {
+                        throw new ServiceLookupException(String.format("Method %s.%s() must return void.", type.getSimpleName(), method.getName()));
+                    }
+                    configurer = new ServiceMethod(method, false);
+                    return;
                 }
-                if (method.getReturnType().equals(Void.TYPE)) {
-                    throw new ServiceLookupException(String.format("Method %s.%s() must not return void.", type.getSimpleName(), method.getName()));
+            }
+        }
+
+        private void findFactoryMethods(Class<?> type, Method[] declaredMethods, Set<String> factoryMethods) {
+            for (Method method : declaredMethods) {
+                if (method.getName().startsWith("create")
+                        && !Modifier.isStatic(method.getModifiers())) {
+                    if (method.getReturnType().equals(Void.TYPE)) {
+                        throw new ServiceLookupException(String.format("Method %s.%s() must not return void.", type.getSimpleName(), method.getName()));
+                    }
+                    if (factoryMethods.add(method.getName())) {
+                        serviceMethods.add(new ServiceMethod(method, false));
+                    }
                 }
-                if (decoratorMethods.add(method.getName())) {
-                    ownServices.add(new DecoratorMethodService(target, method));
+            }
+        }
+
+        private void findDecoratorMethods(Class<?> type, Method[] declaredMethods, Set<String> decoratorMethods) {
+            for (Method method : declaredMethods) {
+                if (method.getName().startsWith("create")
+                        && method.getParameterTypes().length == 1
+                        && method.getParameterTypes()[0].equals(method.getReturnType())) {
+                    if (method.getReturnType().equals(Void.TYPE)) {
+                        throw new ServiceLookupException(String.format("Method %s.%s() must not return void.", type.getSimpleName(), method.getName()));
+                    }
+                    if (decoratorMethods.add(method.getName())) {
+                        ServiceMethod decorator = new ServiceMethod(method, true);
+                        serviceMethods.add(decorator);
+                        decorators.add(decorator);
+                    }
                 }
             }
         }
     }
 
+    /**
+     * A factory, decorator or configure method of a provider class, made accessible once, with its generic signature resolved once.
+     */
+    private static class ServiceMethod {
+        final boolean decorator;
+        private final Method method;
+        private final JavaMethod<Object, Object> invoker;
+        private final Type returnType;
+        private final Type[] parameterTypes;
+
+        ServiceMethod(Method method, boolean decorator) {
+            this.method = method;
+            this.decorator = decorator;
+            this.invoker = JavaReflectionUtil.method(Object.class, Object.class, method);
+            this.returnType = method.getGenericReturnType();
+            this.parameterTypes = method.getGenericParameterTypes();
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        String getName() {
+            return method.getName();
+        }
+
+        Class<?> getDeclaringClass() {
+            return method.getDeclaringClass();
+        }
+
+        Type getReturnType() {
+            return returnType;
+        }
+
+        Type[] getParameterTypes() {
+            return parameterTypes;
+        }
+
+        Object invoke(Object target, Object... args) {
+            return invoker.invoke(target, args);
+        }
+    }
+
     /**
      * Adds services to this container using the given action.
      */
@@ -324,10 +425,6 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         return getFactory(type).create();
     }
 
-    private static Object invoke(Method method, Object target, Object... args) {
-        return JavaReflectionUtil.method(target, Object.class, method).invoke(target, args);
-    }
-
     interface ServiceProvider {
         String getDisplayName();
 
@@ -350,10 +447,25 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         <T> void getAll(LookupContext context, Class<T> serviceType, List<T> result);
     }
 
+    /**
+     * The services of this registry. The provider for each requested type, or its absence, is remembered, so that repeated lookups of a type do
+     * not scan all providers again. The remembered providers are discarded when a provider is added.
+     */
     private class OwnServices implements Provider {
         private final List<Provider> providers = new ArrayList<Provider>();
+        private final Map<Class<?>, ServiceProvider> factoriesByType = new HashMap<Class<?>, ServiceProvider>();
+        private final Map<Type, ServiceProvider> servicesByType = new HashMap<Type, ServiceProvider>();
 
         public ServiceProvider getFactory(LookupContext context, Class<?> type) {
+            if (factoriesByType.containsKey(type)) {
+                return factoriesByType.get(type);
+            }
+            ServiceProvider factory = findFactory(context, type);
+            factoriesByType.put(type, factory);
+            return factory;
+        }
+
+        private ServiceProvider findFactory(LookupContext context, Class<?> type) {
             List<ServiceProvider> candidates = new ArrayList<ServiceProvider>();
             for (Provider provider : providers) {
                 ServiceProvider factory = provider.getFactory(context, type);
@@ -383,6 +495,16 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         }
 
         public ServiceProvider getService(LookupContext context, TypeSpec serviceType) {
+            Type type = serviceType.getType();
+            if (servicesByType.containsKey(type)) {
+                return servicesByType.get(type);
+            }
+            ServiceProvider service = findService(context, serviceType);
+            servicesByType.put(type, service);
+            return service;
+        }
+
+        private ServiceProvider findService(LookupContext context, TypeSpec serviceType) {
             List<ServiceProvider> candidates = new ArrayList<ServiceProvider>();
             for (Provider provider : providers) {
                 ServiceProvider service = provider.getService(context, serviceType);
@@ -423,6 +545,8 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
         public void add(Provider provider) {
             this.providers.add(provider);
+            factoriesByType.clear();
+            servicesByType.clear();
         }
     }
 
@@ -613,32 +737,32 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     private class FactoryMethodService extends FactoryService {
-        private final Method method;
+        private final ServiceMethod method;
         private Object target;
 
-        public FactoryMethodService(Object target, Method method) {
-            super(method.getGenericReturnType());
+        public FactoryMethodService(Object target, ServiceMethod method) {
+            super(method.getReturnType());
             this.target = target;
             this.method = method;
         }
 
         public String getDisplayName() {
-            return String.format("Service %s at %s.%s()", format(method.getGenericReturnType()), method.getDeclaringClass().getSimpleName(), method.getName());
+            return String.format("Service %s at %s.%s()", format(method.getReturnType()), method.getDeclaringClass().getSimpleName(), method.getName());
         }
 
         protected Type[] getParameterTypes() {
-            return method.getGenericParameterTypes();
+            return method.getParameterTypes();
         }
 
         @Override
         protected Member getFactory() {
-            return method;
+            return method.getMethod();
         }
 
         protected Object invokeMethod(Object[] params) {
             Object result;
             try {
-                result = invoke(method, target, params);
+                result = method.invoke(target, params);
             } catch (Exception e) {
                 throw new ServiceCreationException(String.format("Could not create service of type %s using %s.%s().",
                         format(serviceType),
@@ -731,28 +855,28 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     private class DecoratorMethodService extends SingletonService {
-        private final Method method;
+        private final ServiceMethod method;
         private Object target;
         private ServiceProvider paramProvider;
 
-        public DecoratorMethodService(Object target, Method method) {
-            super(method.getGenericReturnType());
+        public DecoratorMethodService(Object target, ServiceMethod method) {
+            super(method.getReturnType());
             this.target = target;
             this.method = method;
         }
 
         public String getDisplayName() {
-            return String.format("Service %s at %s.%s()", format(method.getGenericReturnType()), method.getDeclaringClass().getSimpleName(), method.getName());
+            return String.format("Service %s at %s.%s()", format(method.getReturnType()), method.getDeclaringClass().getSimpleName(), method.getName());
         }
 
         @Override
         protected void bind(LookupContext context) {
-            Type paramType = method.getGenericParameterTypes()[0];
+            Type paramType = method.getParameterTypes()[0];
             DefaultLookupContext parentLookupContext = new DefaultLookupContext();
             paramProvider = parentLookupContext.find(paramType, parentServices);
             if (paramProvider == null) {
                 throw new ServiceCreationException(String.format("Cannot create service of type %s using %s.%s() as required service of type %s is not available in parent registries.",
-                        format(method.getGenericReturnType()),
+                        format(method.getReturnType()),
                         method.getDeclaringClass().getSimpleName(),
                         method.getName(),
                         format(paramType)));
@@ -764,10 +888,10 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             Object param = paramProvider.get();
             Object result;
             try {
-                result = invoke(method, target, param);
+                result = method.invoke(target, param);
             } catch (Exception e) {
                 throw new ServiceCreationException(String.format("Could not create service of type %s using %s.%s().",
-                        format(method.getGenericReturnType()),
+                        format(method.getReturnType()),
                         method.getDeclaringClass().getSimpleName(),
                         method.getName()),
                         e);
@@ -775,7 +899,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             try {
                 if (result == null) {
                     throw new ServiceCreationException(String.format("Could not create service of type %s using %s.%s() as this method returned null.",
-                            format(method.getGenericReturnType()),
+                            format(method.getReturnType()),
                             method.getDeclaringClass().getSimpleName(),
                             method.getName()));
                 }
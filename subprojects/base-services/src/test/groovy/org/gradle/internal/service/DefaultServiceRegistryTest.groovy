@@ -21,7 +21,9 @@ import org.gradle.internal.Factory
 import org.gradle.internal.concurrent.Stoppable
 import org.gradle.util.TextUtil
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
+import java.lang.ref.WeakReference
 import java.lang.reflect.Type
 import java.util.concurrent.Callable
 
@@ -37,6 +39,41 @@ class DefaultServiceRegistryTest extends Specification {
         e.message == "No service of type StringBuilder available in TestRegistry."
     }
 
+    def locatesServiceAndFactoryFromProviderAddedAfterFailedLookup() {
+        def registry = new DefaultServiceRegistry()
+
+        when:
+        registry.get(Integer)
+
+        then:
+        thrown(UnknownServiceException)
+
+        when:
+        registry.getFactory(BigDecimal)
+
+        then:
+        thrown(UnknownServiceException)
+
+        when:
+        registry.addProvider(new TestProvider())
+
+        then:
+        registry.get(Integer) == 12
+        registry.getFactory(BigDecimal) instanceof TestFactory
+    }
+
+    def registriesUsingProvidersOfSameTypeCreateTheirOwnServices() {
+        def registry1 = new DefaultServiceRegistry()
+        def registry2 = new DefaultServiceRegistry()
+        registry1.addProvider(new TestProvider())
+        registry2.addProvider(new TestProvider())
+
+        expect:
+        registry1.get(String) == "12"
+        registry2.get(String) == "12"
+        !registry1.get(Factory).is(registry2.get(Factory))
+    }
+
     def delegatesToParentForUnknownService() {
         def value = BigDecimal.TEN
         def parent = Mock(ServiceRegistry)
@@ -979,6 +1016,29 @@ class DefaultServiceRegistryTest extends Specification {
         e.message == "Cannot locate factory for objects of type BigDecimal, as TestRegistry has been closed."
     }
 
+    def "does not keep provider classes alive once registries no longer use them"() {
+        def loader = new GroovyClassLoader(getClass().classLoader)
+        def providerClass = loader.parseClass("class Provider { String createString() { 'value' } }")
+        def providerClassReference = new WeakReference<Class<?>>(providerClass)
+
+        given:
+        def providerRegistry = new DefaultServiceRegistry()
+        providerRegistry.addProvider(providerClass.newInstance())
+        assert providerRegistry.get(String) == 'value'
+
+        when:
+        providerRegistry = null
+        providerClass = null
+        loader.clearCache()
+        loader = null
+
+        then:
+        new PollingConditions(timeout: 10).eventually {
+            System.gc()
+            assert providerClassReference.get() == null
+        }
+    }
+
     private Factory<Number> numberFactory
     private Factory<String> stringFactory
     private Factory<? super BigDecimal> superBigDecimalFactory
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.plugins.quality.internal
 
+import org.gradle.api.Action
 import org.gradle.api.Plugin
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.plugins.JavaBasePlugin
@@ -107,8 +108,9 @@ abstract class AbstractCodeQualityPlugin<T> implements Plugin<ProjectInternal> {
     private void configureSourceSetRule() {
         project.plugins.withType(basePlugin) {
             project.sourceSets.all { SourceSet sourceSet ->
-                T task = project.tasks.create(sourceSet.getTaskName(taskBaseName, null), taskType)
-                configureForSourceSet(sourceSet, task)
+                project.tasks.createLater(sourceSet.getTaskName(taskBaseName, null), taskType, { T task ->
+                    configureForSourceSet(sourceSet, task)
+                } as Action)
             }
         }
     }
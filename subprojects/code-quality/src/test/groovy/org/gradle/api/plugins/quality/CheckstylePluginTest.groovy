@@ -20,6 +20,7 @@ import org.gradle.api.plugins.JavaBasePlugin
 import org.gradle.api.plugins.JavaPlugin
 import org.gradle.api.plugins.ReportingBasePlugin
 import org.gradle.api.tasks.SourceSet
+import org.gradle.api.tasks.compile.JavaCompile
 import org.gradle.util.TestUtil
 import spock.lang.Specification
 
@@ -73,6 +74,23 @@ class CheckstylePluginTest extends Specification {
         configuresCheckstyleTask("checkstyleOther", project.sourceSets.other)
     }
 
+    def "creates checkstyle task for source set only when it is required"() {
+        def added = []
+        project.tasks.whenTaskAdded { added << it.name }
+        project.pluginManager.apply(JavaBasePlugin)
+        project.sourceSets {
+            main
+        }
+
+        expect:
+        project.tasks.names.contains("checkstyleMain")
+        !added.contains("checkstyleMain")
+        project.tasks.withType(JavaCompile)*.name == ["compileJava"]
+        !added.contains("checkstyleMain")
+        project.tasks.withType(Checkstyle)*.name == ["checkstyleMain"]
+        added.contains("checkstyleMain")
+    }
+
     private void configuresCheckstyleTask(String taskName, SourceSet sourceSet) {
         def task = project.tasks.findByName(taskName)
         assert task instanceof Checkstyle
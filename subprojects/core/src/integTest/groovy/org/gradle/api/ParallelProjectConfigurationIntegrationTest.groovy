@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.executer.ProjectLifecycleFixture
+import org.junit.Rule
+
+import static org.hamcrest.Matchers.startsWith
+
+class ParallelProjectConfigurationIntegrationTest extends AbstractIntegrationSpec {
+
+    @Rule ProjectLifecycleFixture fixture = new ProjectLifecycleFixture(executer, temporaryFolder)
+
+    def setup() {
+        file("gradle.properties") << "org.gradle.parallel.configuration=true"
+    }
+
+    def "configures a multi-project build in parallel"() {
+        def projects = (1..10).collect { "p$it" }
+        settingsFile << "include ${projects.collect { "'$it', '$it:impl'" }.join(', ')}"
+        buildFile << """
+            def evaluated = []
+            gradle.afterProject { evaluated << it.path }
+            subprojects {
+                apply plugin: 'java'
+                ext.configuredBy = rootProject.path
+            }
+            gradle.projectsEvaluated {
+                assert evaluated.size() == 21
+                assert evaluated as Set == allprojects*.path as Set
+            }
+        """
+        projects.each { name ->
+            file("$name/build.gradle") << """
+                ext.greeting = 'hello from ' + path
+                task hello << { println greeting }
+                project(':$name:impl') {
+                    dependencies { compile project(':$name') }
+                }
+            """
+            file("$name/impl/build.gradle") << """
+                evaluationDependsOn(':${name == 'p1' ? 'p2' : 'p1'}')
+                tasks.create('helloImpl') { dependsOn ':$name:hello' }
+            """
+        }
+
+        when:
+        run("helloImpl")
+
+        then:
+        fixture.configuredProjects.size() == 21
+        fixture.configuredProjects as Set == ([":"] + projects.collect { [":$it", ":$it:impl"]*.toString() }.flatten()) as Set
+        projects.each { name ->
+            assert output.contains("hello from :$name")
+        }
+    }
+
+    def "fails when a project attempts to #description another project"() {
+        settingsFile << "include 'a', 'b'"
+        file("a/build.gradle") << access
+
+        when:
+        fails("help")
+
+        then:
+        failure.assertHasDescription("A problem occurred configuring project ':a'.")
+        failure.assertThatCause(startsWith("The evaluation of project ':a' attempted to $message project ':b' while projects are configured in parallel."))
+
+        where:
+        description                    | access                                      | message
+        "configure"                    | "project(':b') { version = '1.0' }"         | "configure"
+        "apply a plugin to"            | "project(':b').apply plugin: 'base'"        | "apply a plugin or script to"
+        "create a task in"             | "project(':b').tasks.create('foo')"         | "add or remove tasks of"
+        "set an extra property of"     | "project(':b').ext.foo = 'bar'"             | "set extra property 'foo' of"
+    }
+
+    def "project can configure its subprojects"() {
+        settingsFile << "include 'a', 'a:child'"
+        file("a/build.gradle") << """
+            subprojects {
+                apply plugin: 'base'
+                ext.foo = 'bar'
+                tasks.create('foo')
+            }
+        """
+
+        expect:
+        succeeds(":a:child:foo")
+    }
+}
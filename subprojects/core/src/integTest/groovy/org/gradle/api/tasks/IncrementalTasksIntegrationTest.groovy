@@ -203,6 +203,41 @@ ext.added = ['file3.txt', 'file4.txt']
         executesWithIncrementalContext("ext.added = ['file3.txt']")
     }
 
+    def "incremental task is given extracted files for out-of-date entries of an archive input"() {
+        given:
+        file('archive/file1.txt') << "file1"
+        file('archive/file2.txt') << "file2"
+        file('archive').zipTo(file('archive.zip'))
+        buildFile.text = """
+    class ArchiveTask extends DefaultTask {
+        @InputFiles
+        def FileCollection archive
+
+        @TaskAction
+        void execute(IncrementalTaskInputs inputs) {
+            inputs.outOfDate { change ->
+                assert change.file.file
+                println "out-of-date: \${change.file.name} \${change.file.text}"
+            }
+        }
+    }
+
+    task incremental(type: ArchiveTask) {
+        archive = zipTree('archive.zip')
+    }
+"""
+        run "incremental"
+
+        when:
+        file('archive/file2.txt').text = "changed"
+        file('archive').zipTo(file('archive.zip'))
+        run "incremental"
+
+        then:
+        output.contains("out-of-date: file2.txt changed")
+        !output.contains("out-of-date: file1.txt")
+    }
+
     def "incremental task is informed that all input files are 'out-of-date' when input property has changed"() {
         given:
         previousExecution()
@@ -17,11 +17,10 @@
 package org.gradle.api.internal;
 
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.SetMultimap;
 import groovy.lang.Closure;
 import groovy.lang.GroovyObject;
-import org.apache.commons.collections.map.AbstractReferenceMap;
-import org.apache.commons.collections.map.ReferenceMap;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
 import org.gradle.api.NonExtensible;
@@ -34,6 +33,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -50,8 +51,10 @@ import java.util.concurrent.locks.ReentrantLock;
  * </ul>
  */
 public abstract class AbstractClassGenerator implements ClassGenerator {
-    private static final Map<Class<?>, Map<Class<?>, Class<?>>> GENERATED_CLASSES = new HashMap<Class<?>, Map<Class<?>, Class<?>>>();
-    private static final Lock CACHE_LOCK = new ReentrantLock();
+    // Generated classes are shared by all instances of a generator type, as each instance would otherwise define a class with the same name in the
+    // class loader of the source class. Lookups do not lock. Only the generation of a class is serialized.
+    private static final ConcurrentMap<Class<?>, Map<Class<?>, Class<?>>> GENERATED_CLASSES = new ConcurrentHashMap<Class<?>, Map<Class<?>, Class<?>>>();
+    private static final Lock GENERATION_LOCK = new ReentrantLock();
     private static final Collection<String> SKIP_PROPERTIES = Arrays.asList("class", "metaClass", "conventionMapping", "convention", "asDynamicObject", "extensions");
 
     public <T> T newInstance(Class<T> type, Object... parameters) {
@@ -60,23 +63,35 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
     }
 
     public <T> Class<? extends T> generate(Class<T> type) {
+        Map<Class<?>, Class<?>> cache = getGeneratedClasses();
+        Class<?> generatedClass = cache.get(type);
+        if (generatedClass != null) {
+            return generatedClass.asSubclass(type);
+        }
+        GENERATION_LOCK.lock();
         try {
-            CACHE_LOCK.lock();
-            return generateUnderLock(type);
+            return generateUnderLock(type, cache);
         } finally {
-            CACHE_LOCK.unlock();
+            GENERATION_LOCK.unlock();
         }
     }
 
-    private <T> Class<? extends T> generateUnderLock(Class<T> type) {
+    private Map<Class<?>, Class<?>> getGeneratedClasses() {
         Map<Class<?>, Class<?>> cache = GENERATED_CLASSES.get(getClass());
         if (cache == null) {
             // WeakHashMap won't work here. It keeps a strong reference to the mapping value, which is the generated class in this case
             // However, the generated class has a strong reference to the source class (by extending it), so the keys will always be
             // strongly reachable while this Class is strongly reachable. Use weak references for both key and value of the mapping instead.
-            cache = new ReferenceMap(AbstractReferenceMap.WEAK, AbstractReferenceMap.WEAK);
-            GENERATED_CLASSES.put(getClass(), cache);
+            cache = new MapMaker().weakKeys().weakValues().makeMap();
+            Map<Class<?>, Class<?>> existing = GENERATED_CLASSES.putIfAbsent(getClass(), cache);
+            if (existing != null) {
+                cache = existing;
+            }
         }
+        return cache;
+    }
+
+    private <T> Class<? extends T> generateUnderLock(Class<T> type, Map<Class<?>, Class<?>> cache) {
         Class<?> generatedClass = cache.get(type);
         if (generatedClass != null) {
             return generatedClass.asSubclass(type);
@@ -45,6 +45,7 @@ public class ExtensibleDynamicObject extends CompositeDynamicObject implements H
     private DynamicObject beforeConvention;
     private DynamicObject afterConvention;
     private DynamicObject extraPropertiesDynamicObject;
+    private volatile ExtensibleDynamicObject inheritable;
 
     /**
      * This variant will internally create a convention that is not fully featured, so should be avoided.
@@ -74,6 +75,16 @@ public class ExtensibleDynamicObject extends CompositeDynamicObject implements H
         updateDelegates();
     }
 
+    private ExtensibleDynamicObject(AbstractDynamicObject dynamicDelegate, Convention convention, DynamicObject extraPropertiesDynamicObject, DynamicObject beforeConvention, DynamicObject parent) {
+        this.dynamicDelegate = dynamicDelegate;
+        this.convention = convention;
+        this.extraPropertiesDynamicObject = extraPropertiesDynamicObject;
+        this.beforeConvention = beforeConvention;
+        this.parent = parent;
+
+        updateDelegates();
+    }
+
     private void updateDelegates() {
         List<DynamicObject> delegates = new ArrayList<DynamicObject>();
         delegates.add(dynamicDelegate);
@@ -95,6 +106,8 @@ public class ExtensibleDynamicObject extends CompositeDynamicObject implements H
         delegates.remove(parent);
         delegates.add(extraPropertiesDynamicObject);
         setObjectsForUpdate(delegates.toArray(new DynamicObject[delegates.size()]));
+
+        inheritable = null;
     }
 
     protected String getDisplayName() {
@@ -144,7 +157,16 @@ public class ExtensibleDynamicObject extends CompositeDynamicObject implements H
         return new InheritedDynamicObject();
     }
 
+    /**
+     * Returns a view of the inheritable delegates of this object. The view is reused until the delegates change. Changes to the delegates
+     * themselves, such as added extra properties or conventions, are visible through the view.
+     */
     private ExtensibleDynamicObject snapshotInheritable() {
+        ExtensibleDynamicObject snapshot = inheritable;
+        if (snapshot != null) {
+            return snapshot;
+        }
+
         AbstractDynamicObject emptyBean = new AbstractDynamicObject() {
             @Override
             protected String getDisplayName() {
@@ -152,16 +174,9 @@ public class ExtensibleDynamicObject extends CompositeDynamicObject implements H
             }
         };
 
-        ExtensibleDynamicObject extensibleDynamicObject = new ExtensibleDynamicObject(emptyBean);
-
-        extensibleDynamicObject.parent = parent;
-        extensibleDynamicObject.convention = convention;
-        extensibleDynamicObject.extraPropertiesDynamicObject = extraPropertiesDynamicObject;
-        if (beforeConvention != null) {
-            extensibleDynamicObject.beforeConvention = beforeConvention;
-        }
-        extensibleDynamicObject.updateDelegates();
-        return extensibleDynamicObject;
+        snapshot = new ExtensibleDynamicObject(emptyBean, convention, extraPropertiesDynamicObject, beforeConvention, parent);
+        inheritable = snapshot;
+        return snapshot;
     }
 
     private class InheritedDynamicObject implements DynamicObject {
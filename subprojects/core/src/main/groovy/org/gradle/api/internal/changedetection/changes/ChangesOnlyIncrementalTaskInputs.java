@@ -17,20 +17,30 @@
 package org.gradle.api.internal.changedetection.changes;
 
 import org.gradle.api.Action;
+import org.gradle.api.Task;
+import org.gradle.api.file.EmptyFileVisitor;
+import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.internal.changedetection.rules.TaskStateChange;
 import org.gradle.api.internal.changedetection.rules.TaskStateChanges;
+import org.gradle.api.internal.changedetection.state.DefaultFileCollectionSnapshotter;
 import org.gradle.api.internal.changedetection.state.FilesSnapshotSet;
+import org.gradle.api.internal.file.archive.ArchiveEntryDetails;
 import org.gradle.api.tasks.incremental.InputFileDetails;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class ChangesOnlyIncrementalTaskInputs extends StatefulIncrementalTaskInputs {
+    private final Task task;
     private final TaskStateChanges inputFilesState;
     private List<InputFileDetails> removedFiles = new ArrayList<InputFileDetails>();
 
-    public ChangesOnlyIncrementalTaskInputs(TaskStateChanges inputFilesState, FilesSnapshotSet inputFilesSnapshot) {
+    public ChangesOnlyIncrementalTaskInputs(Task task, TaskStateChanges inputFilesState, FilesSnapshotSet inputFilesSnapshot) {
         super(inputFilesSnapshot);
+        this.task = task;
         this.inputFilesState = inputFilesState;
     }
 
@@ -40,14 +50,43 @@ public class ChangesOnlyIncrementalTaskInputs extends StatefulIncrementalTaskInp
 
     @Override
     protected void doOutOfDate(final Action<? super InputFileDetails> outOfDateAction) {
+        List<InputFileDetails> outOfDateFiles = new ArrayList<InputFileDetails>();
+        Set<File> archiveEntries = new HashSet<File>();
         for (TaskStateChange change : inputFilesState) {
             InputFileDetails fileChange = (InputFileDetails) change;
             if (fileChange.isRemoved()) {
                 removedFiles.add(fileChange);
             } else {
-                outOfDateAction.execute(fileChange);
+                outOfDateFiles.add(fileChange);
+                if (getInputFilesSnapshot().findSnapshot(fileChange.getFile()) instanceof DefaultFileCollectionSnapshotter.ArchiveEntrySnapshot) {
+                    archiveEntries.add(fileChange.getFile());
+                }
             }
         }
+        extractArchiveEntries(archiveEntries);
+        for (InputFileDetails fileChange : outOfDateFiles) {
+            outOfDateAction.execute(fileChange);
+        }
+    }
+
+    /**
+     * Archive entries are snapshot without being extracted, so extract the out-of-date entries before handing them out.
+     */
+    private void extractArchiveEntries(final Set<File> archiveEntries) {
+        if (archiveEntries.isEmpty()) {
+            return;
+        }
+        task.getInputs().getFiles().getAsFileTree().visit(new EmptyFileVisitor() {
+            @Override
+            public void visitFile(FileVisitDetails fileDetails) {
+                if (fileDetails instanceof ArchiveEntryDetails && archiveEntries.remove(((ArchiveEntryDetails) fileDetails).getExpandedFile().getAbsoluteFile())) {
+                    fileDetails.getFile();
+                    if (archiveEntries.isEmpty()) {
+                        fileDetails.stopVisiting();
+                    }
+                }
+            }
+        });
     }
 
     @Override
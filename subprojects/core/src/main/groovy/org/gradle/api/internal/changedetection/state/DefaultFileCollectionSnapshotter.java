@@ -16,8 +16,17 @@
 
 package org.gradle.api.internal.changedetection.state;
 
+import org.gradle.api.file.EmptyFileVisitor;
 import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.file.FileVisitDetails;
+import org.gradle.api.internal.file.archive.ArchiveEntryDetails;
 import org.gradle.api.internal.file.collections.SimpleFileCollection;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.messaging.serialize.BaseSerializerFactory;
+import org.gradle.messaging.serialize.MapSerializer;
 import org.gradle.messaging.serialize.SerializerRegistry;
 import org.gradle.util.ChangeListener;
 import org.gradle.util.NoOpChangeListener;
@@ -29,10 +38,12 @@ import java.util.*;
 public class DefaultFileCollectionSnapshotter implements FileCollectionSnapshotter {
     private final FileSnapshotter snapshotter;
     private TaskArtifactStateCacheAccess cacheAccess;
+    private final PersistentIndexedCache<String, Map<String, byte[]>> archiveEntryHashes;
 
     public DefaultFileCollectionSnapshotter(FileSnapshotter snapshotter, TaskArtifactStateCacheAccess cacheAccess) {
         this.snapshotter = snapshotter;
         this.cacheAccess = cacheAccess;
+        this.archiveEntryHashes = cacheAccess.createCache("archiveEntryHashes", String.class, new MapSerializer<String, byte[]>(BaseSerializerFactory.STRING_SERIALIZER, BaseSerializerFactory.BYTE_ARRAY_SERIALIZER));
     }
 
     public void registerSerializers(SerializerRegistry<FileCollectionSnapshot> registry) {
@@ -44,20 +55,32 @@ public class DefaultFileCollectionSnapshotter implements FileCollectionSnapshott
     }
 
     public FileCollectionSnapshot snapshot(FileCollection input) {
-        final Set<File> files = input.getAsFileTree().getFiles();
-        if (files.isEmpty()) {
-            return new FileCollectionSnapshotImpl(Collections.<String, IncrementalFileSnapshot>emptyMap());
-        }
+        final FileTree tree = input.getAsFileTree();
         final Map<String, IncrementalFileSnapshot> snapshots = new HashMap<String, IncrementalFileSnapshot>();
         cacheAccess.useCache("Create file snapshot", new Runnable() {
             public void run() {
-                for (File file : files) {
-                    if (file.isFile()) {
-                        snapshots.put(file.getAbsolutePath(), new FileHashSnapshot(snapshotter.snapshot(file).getHash()));
-                    } else if (file.isDirectory()) {
-                        snapshots.put(file.getAbsolutePath(), new DirSnapshot());
-                    } else {
-                        snapshots.put(file.getAbsolutePath(), new MissingFileSnapshot());
+                final Map<File, ArchiveEntryHashes> archives = new HashMap<File, ArchiveEntryHashes>();
+                tree.visit(new EmptyFileVisitor() {
+                    @Override
+                    public void visitFile(FileVisitDetails fileDetails) {
+                        if (fileDetails instanceof ArchiveEntryDetails) {
+                            ArchiveEntryDetails entryDetails = (ArchiveEntryDetails) fileDetails;
+                            snapshots.put(entryDetails.getExpandedFile().getAbsolutePath(), new ArchiveEntrySnapshot(hash(entryDetails, archives)));
+                            return;
+                        }
+                        File file = fileDetails.getFile();
+                        if (file.isFile()) {
+                            snapshots.put(file.getAbsolutePath(), new FileHashSnapshot(snapshotter.snapshot(file).getHash()));
+                        } else if (file.isDirectory()) {
+                            snapshots.put(file.getAbsolutePath(), new DirSnapshot());
+                        } else {
+                            snapshots.put(file.getAbsolutePath(), new MissingFileSnapshot());
+                        }
+                    }
+                });
+                for (ArchiveEntryHashes hashes : archives.values()) {
+                    if (hashes.changed) {
+                        archiveEntryHashes.put(hashes.archiveHash, hashes.entryHashes);
                     }
                 }
             }
@@ -65,6 +88,42 @@ public class DefaultFileCollectionSnapshotter implements FileCollectionSnapshott
         return new FileCollectionSnapshotImpl(snapshots);
     }
 
+    /**
+     * Hashes the content of an archive entry, without extracting it. The hashes of the entries of an archive are cached by the hash of the
+     * archive, so the entries of an unchanged archive are not read again.
+     */
+    private byte[] hash(ArchiveEntryDetails entryDetails, Map<File, ArchiveEntryHashes> archives) {
+        File archiveFile = entryDetails.getArchiveFile();
+        if (archiveFile == null) {
+            return HashUtil.createHash(entryDetails.open(), "MD5").asByteArray();
+        }
+        ArchiveEntryHashes hashes = archives.get(archiveFile);
+        if (hashes == null) {
+            String archiveHash = new HashValue(snapshotter.snapshot(archiveFile).getHash()).asHexString();
+            Map<String, byte[]> entryHashes = archiveEntryHashes.get(archiveHash);
+            hashes = new ArchiveEntryHashes(archiveHash, entryHashes == null ? new HashMap<String, byte[]>() : new HashMap<String, byte[]>(entryHashes));
+            archives.put(archiveFile, hashes);
+        }
+        byte[] hash = hashes.entryHashes.get(entryDetails.getEntryName());
+        if (hash == null) {
+            hash = HashUtil.createHash(entryDetails.open(), "MD5").asByteArray();
+            hashes.entryHashes.put(entryDetails.getEntryName(), hash);
+            hashes.changed = true;
+        }
+        return hash;
+    }
+
+    private static class ArchiveEntryHashes {
+        final String archiveHash;
+        final Map<String, byte[]> entryHashes;
+        boolean changed;
+
+        ArchiveEntryHashes(String archiveHash, Map<String, byte[]> entryHashes) {
+            this.archiveHash = archiveHash;
+            this.entryHashes = entryHashes;
+        }
+    }
+
     static interface IncrementalFileSnapshot {
         boolean isUpToDate(IncrementalFileSnapshot snapshot);
     }
@@ -95,6 +154,15 @@ public class DefaultFileCollectionSnapshotter implements FileCollectionSnapshott
         }
     }
 
+    /**
+     * The snapshot of an archive entry, which is not extracted to the file that the snapshot is keyed by. Is serialized as a {@link FileHashSnapshot}.
+     */
+    public static class ArchiveEntrySnapshot extends FileHashSnapshot {
+        public ArchiveEntrySnapshot(byte[] hash) {
+            super(hash);
+        }
+    }
+
     static class DirSnapshot implements IncrementalFileSnapshot {
         public boolean isUpToDate(IncrementalFileSnapshot snapshot) {
             return snapshot instanceof DirSnapshot;
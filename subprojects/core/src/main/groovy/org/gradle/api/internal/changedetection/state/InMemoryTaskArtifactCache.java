@@ -18,6 +18,7 @@ package org.gradle.api.internal.changedetection.state;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.cache.internal.CacheDecorator;
@@ -33,6 +34,7 @@ public class InMemoryTaskArtifactCache implements CacheDecorator {
     private final static Object NULL = new Object();
 
     private static final Map<String, Integer> CACHE_CAPS = new HashMap<String, Integer>();
+    private static final Map<String, Weigher<Object, Object>> CACHE_WEIGHERS = new HashMap<String, Weigher<Object, Object>>();
 
     static {
         //it's the simplest implementation, not very nice
@@ -43,9 +45,17 @@ public class InMemoryTaskArtifactCache implements CacheDecorator {
         CACHE_CAPS.put("taskArtifacts", 2000);
         CACHE_CAPS.put("outputFileStates", 3000);
         CACHE_CAPS.put("fileHashes", 140000);
+        CACHE_CAPS.put("archiveEntryHashes", 140000);
         CACHE_CAPS.put("compilationState", 1000);
 
         //In general, the in-memory cache must be capped at some level, otherwise it is reduces performance in truly gigantic builds
+
+        //each value holds the hashes of all entries of an archive, so cap the total number of entries rather than the number of archives
+        CACHE_WEIGHERS.put("archiveEntryHashes", new Weigher<Object, Object>() {
+            public int weigh(Object key, Object value) {
+                return value instanceof Map ? Math.max(1, ((Map<?, ?>) value).size()) : 1;
+            }
+        });
     }
 
     private final Object lock = new Object();
@@ -117,7 +127,13 @@ public class InMemoryTaskArtifactCache implements CacheDecorator {
             } else {
                 Integer maxSize = CACHE_CAPS.get(cacheName);
                 assert maxSize != null : "Unknown cache.";
-                theData = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+                Weigher<Object, Object> weigher = CACHE_WEIGHERS.get(cacheName);
+                if (weigher != null) {
+                    // a single segment, so that the cap applies to the total weight and not to the weight of each segment
+                    theData = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(maxSize).weigher(weigher).build();
+                } else {
+                    theData = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+                }
                 this.cache.put(cacheId, theData);
             }
         }
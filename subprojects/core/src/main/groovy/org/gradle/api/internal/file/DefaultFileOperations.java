@@ -26,6 +26,7 @@ import org.gradle.api.internal.file.collections.DefaultConfigurableFileCollectio
 import org.gradle.api.internal.file.collections.DefaultConfigurableFileTree;
 import org.gradle.api.internal.file.collections.FileTreeAdapter;
 import org.gradle.api.internal.file.copy.DefaultCopySpec;
+import org.gradle.api.internal.file.copy.BackgroundDirectoryDeleter;
 import org.gradle.api.internal.file.copy.DeleteActionImpl;
 import org.gradle.api.internal.file.copy.FileCopier;
 import org.gradle.api.internal.resources.DefaultResourceHandler;
@@ -55,11 +56,15 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations,
     private final FileSystem fileSystem;
 
     public DefaultFileOperations(FileResolver fileResolver, TaskResolver taskResolver, TemporaryFileProvider temporaryFileProvider, Instantiator instantiator, FileLookup fileLookup) {
+        this(fileResolver, taskResolver, temporaryFileProvider, instantiator, fileLookup, null, null);
+    }
+
+    public DefaultFileOperations(FileResolver fileResolver, TaskResolver taskResolver, TemporaryFileProvider temporaryFileProvider, Instantiator instantiator, FileLookup fileLookup, BackgroundDirectoryDeleter backgroundDeleter, File trashDir) {
         this.fileResolver = fileResolver;
         this.taskResolver = taskResolver;
         this.temporaryFileProvider = temporaryFileProvider;
         this.instantiator = instantiator;
-        this.deleteAction = new DeleteActionImpl(fileResolver);
+        this.deleteAction = new DeleteActionImpl(fileResolver, backgroundDeleter, trashDir);
         this.resourceHandler = new DefaultResourceHandler(this, temporaryFileProvider);
         fileCopier = new FileCopier(this.instantiator, this.fileResolver, fileLookup);
         fileSystem = fileLookup.getFileSystem();
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.gradle.api.Nullable;
+import org.gradle.api.file.FileVisitDetails;
+
+import java.io.File;
+
+/**
+ * The details of an entry of an archive, which can be inspected and read without extracting the entry to the file system.
+ */
+public interface ArchiveEntryDetails extends FileVisitDetails {
+    /**
+     * Returns the archive that contains this entry, or null when the archive is not a local file.
+     */
+    @Nullable
+    File getArchiveFile();
+
+    /**
+     * Returns the name of this entry in the archive.
+     */
+    String getEntryName();
+
+    /**
+     * Returns the file that this entry is extracted to by {@link #getFile()}. Does not extract the entry.
+     */
+    File getExpandedFile();
+}
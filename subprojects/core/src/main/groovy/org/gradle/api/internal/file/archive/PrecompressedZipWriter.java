@@ -0,0 +1,396 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.apache.tools.zip.Zip64RequiredException;
+import org.apache.tools.zip.ZipOutputStream;
+import org.apache.tools.zip.ZipUtil;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a ZIP file whose entries are compressed before they are written, so that the entries can be compressed concurrently and written in a
+ * deterministic order. Large entries can also be compressed while they are written.
+ *
+ * <p>Writes the same layout as {@link org.apache.tools.zip.ZipOutputStream} writes to a file: entry names are encoded in UTF-8, entries carry
+ * their Unix mode and the sizes are written in the local headers, and the ZIP64 extensions are used only for the entries and the central
+ * directory that need them.</p>
+ */
+public class PrecompressedZipWriter implements Closeable {
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final int PLATFORM_UNIX = 3;
+    private static final int MIN_VERSION = 10;
+    private static final int DEFLATE_MIN_VERSION = 20;
+    private static final int ZIP64_MIN_VERSION = 45;
+    private static final long MAX_INT = 0xFFFFFFFFL;
+    private static final int MAX_SHORT = 0xFFFF;
+
+    private final File zipFile;
+    private final boolean allowZip64;
+    private final FileOutputStream fileOutputStream;
+    private final DataOutputStream outputStream;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private long position;
+
+    public PrecompressedZipWriter(File zipFile, boolean allowZip64) throws IOException {
+        this.zipFile = zipFile;
+        this.allowZip64 = allowZip64;
+        this.fileOutputStream = new FileOutputStream(zipFile);
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(fileOutputStream, 64 * 1024));
+    }
+
+    /**
+     * Compresses the content of an entry into memory, ready to be written by {@link #write(CompressedEntry)}. Can be called concurrently.
+     *
+     * @param method {@link ZipOutputStream#DEFLATED} or {@link ZipOutputStream#STORED}.
+     */
+    public static CompressedEntry compress(String name, long lastModified, int unixMode, int method, InputStream content) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        long size = compressTo(content, method, crc, compressed);
+        return new CompressedEntry(name, lastModified, unixMode, method, crc.getValue(), size, compressed);
+    }
+
+    /**
+     * Writes an entry that has been compressed by {@link #compress}.
+     */
+    public void write(CompressedEntry compressedEntry) throws IOException {
+        Entry entry = new Entry(compressedEntry.name, compressedEntry.lastModified, compressedEntry.unixMode, compressedEntry.method);
+        entry.crc = compressedEntry.crc;
+        entry.size = compressedEntry.size;
+        entry.compressedSize = compressedEntry.data.size();
+        writeLocalHeader(entry, entry.size >= MAX_INT || entry.compressedSize >= MAX_INT);
+        compressedEntry.data.writeTo(outputStream);
+        position += entry.compressedSize;
+    }
+
+    /**
+     * Compresses the content of an entry while writing it. Used for entries that are too large to be compressed into memory.
+     */
+    public void write(String name, long lastModified, int unixMode, int method, InputStream content) throws IOException {
+        Entry entry = new Entry(name, lastModified, unixMode, method);
+        // The sizes are not known yet, so reserve space for them in a ZIP64 extra field when large sizes are allowed
+        writeLocalHeader(entry, allowZip64);
+        long dataStart = position;
+        CRC32 crc = new CRC32();
+        CountingOutputStream counter = new CountingOutputStream(outputStream);
+        entry.size = compressTo(content, method, crc, counter);
+        entry.crc = crc.getValue();
+        entry.compressedSize = counter.count;
+        position = dataStart + entry.compressedSize;
+
+        // Fill in the crc and sizes
+        outputStream.flush();
+        ByteBuffer buffer = ByteBuffer.allocate(12);
+        putInt(buffer, entry.crc);
+        if (allowZip64) {
+            putInt(buffer, MAX_INT);
+            putInt(buffer, MAX_INT);
+        } else {
+            checkFits(entry.name, entry.size);
+            checkFits(entry.name, entry.compressedSize);
+            putInt(buffer, entry.compressedSize);
+            putInt(buffer, entry.size);
+        }
+        writeAt(buffer, entry.localHeaderOffset + 14);
+        if (allowZip64) {
+            buffer = ByteBuffer.allocate(16);
+            putLong(buffer, entry.size);
+            putLong(buffer, entry.compressedSize);
+            writeAt(buffer, dataStart - 16);
+        }
+    }
+
+    public void close() throws IOException {
+        try {
+            writeCentralDirectory();
+            outputStream.flush();
+        } finally {
+            fileOutputStream.close();
+        }
+    }
+
+    private static long compressTo(InputStream content, int method, CRC32 crc, OutputStream target) throws IOException {
+        Deflater deflater = null;
+        OutputStream outputStream = target;
+        if (method == ZipOutputStream.DEFLATED) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            outputStream = new DeflaterOutputStream(target, deflater, 64 * 1024);
+        }
+        try {
+            byte[] buffer = new byte[64 * 1024];
+            long size = 0;
+            int nread;
+            while ((nread = content.read(buffer)) >= 0) {
+                crc.update(buffer, 0, nread);
+                outputStream.write(buffer, 0, nread);
+                size += nread;
+            }
+            if (deflater != null) {
+                ((DeflaterOutputStream) outputStream).finish();
+            }
+            return size;
+        } finally {
+            content.close();
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    private void writeLocalHeader(Entry entry, boolean zip64) throws IOException {
+        if (zip64) {
+            checkZip64Allowed(entry.name);
+        }
+        entry.localHeaderOffset = position;
+        entries.add(entry);
+        byte[] name = entry.name.getBytes("UTF-8");
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(zip64 ? ZIP64_MIN_VERSION : entry.versionNeeded());
+        writeShort(UTF8_FLAG);
+        writeShort(entry.method);
+        outputStream.write(ZipUtil.toDosTime(entry.lastModified));
+        writeInt(entry.crc);
+        writeInt(zip64 ? MAX_INT : entry.compressedSize);
+        writeInt(zip64 ? MAX_INT : entry.size);
+        writeShort(name.length);
+        writeShort(zip64 ? 20 : 0);
+        outputStream.write(name);
+        position += 30 + name.length;
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(16);
+            writeLong(entry.size);
+            writeLong(entry.compressedSize);
+            position += 20;
+        }
+    }
+
+    private void writeCentralDirectory() throws IOException {
+        long centralDirectoryOffset = position;
+        for (Entry entry : entries) {
+            byte[] name = entry.name.getBytes("UTF-8");
+            boolean zip64 = entry.size >= MAX_INT || entry.compressedSize >= MAX_INT || entry.localHeaderOffset >= MAX_INT;
+            if (zip64) {
+                checkZip64Allowed(entry.name);
+            }
+            int versionNeeded = zip64 ? ZIP64_MIN_VERSION : entry.versionNeeded();
+            writeInt(CENTRAL_HEADER_SIGNATURE);
+            writeShort((PLATFORM_UNIX << 8) | versionNeeded);
+            writeShort(versionNeeded);
+            writeShort(UTF8_FLAG);
+            writeShort(entry.method);
+            outputStream.write(ZipUtil.toDosTime(entry.lastModified));
+            writeInt(entry.crc);
+            writeInt(zip64 ? MAX_INT : entry.compressedSize);
+            writeInt(zip64 ? MAX_INT : entry.size);
+            writeShort(name.length);
+            writeShort(zip64 ? 28 : 0);
+            writeShort(0);
+            writeShort(0);
+            writeShort(0);
+            writeInt(entry.externalAttributes());
+            writeInt(zip64 ? MAX_INT : entry.localHeaderOffset);
+            outputStream.write(name);
+            position += 46 + name.length;
+            if (zip64) {
+                writeShort(ZIP64_EXTRA_ID);
+                writeShort(24);
+                writeLong(entry.size);
+                writeLong(entry.compressedSize);
+                writeLong(entry.localHeaderOffset);
+                position += 28;
+            }
+        }
+        long centralDirectorySize = position - centralDirectoryOffset;
+
+        boolean zip64 = entries.size() >= MAX_SHORT || centralDirectoryOffset >= MAX_INT || centralDirectorySize >= MAX_INT;
+        if (zip64) {
+            checkZip64Allowed(null);
+            long zip64EndOffset = position;
+            writeInt(ZIP64_END_SIGNATURE);
+            writeLong(44);
+            writeShort((PLATFORM_UNIX << 8) | ZIP64_MIN_VERSION);
+            writeShort(ZIP64_MIN_VERSION);
+            writeInt(0);
+            writeInt(0);
+            writeLong(entries.size());
+            writeLong(entries.size());
+            writeLong(centralDirectorySize);
+            writeLong(centralDirectoryOffset);
+            writeInt(ZIP64_LOCATOR_SIGNATURE);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+            position += 56 + 20;
+        }
+        writeInt(END_SIGNATURE);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(entries.size(), MAX_SHORT));
+        writeShort(Math.min(entries.size(), MAX_SHORT));
+        writeInt(Math.min(centralDirectorySize, MAX_INT));
+        writeInt(Math.min(centralDirectoryOffset, MAX_INT));
+        writeShort(0);
+        position += 22;
+    }
+
+    private void checkFits(String name, long value) throws Zip64RequiredException {
+        if (value >= MAX_INT) {
+            checkZip64Allowed(name);
+        }
+    }
+
+    private void checkZip64Allowed(String name) throws Zip64RequiredException {
+        if (!allowZip64) {
+            String subject = name == null ? "the archive" : String.format("%s's size", name);
+            throw new Zip64RequiredException(String.format("%s exceeds the limits of the zip format in '%s'.", subject, zipFile));
+        }
+    }
+
+    private void writeAt(ByteBuffer buffer, long offset) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            offset += fileOutputStream.getChannel().write(buffer, offset);
+        }
+    }
+
+    private void writeShort(int value) throws IOException {
+        outputStream.write(value & 0xFF);
+        outputStream.write((value >>> 8) & 0xFF);
+    }
+
+    private void writeInt(long value) throws IOException {
+        writeShort((int) (value & 0xFFFF));
+        writeShort((int) ((value >>> 16) & 0xFFFF));
+    }
+
+    private void writeLong(long value) throws IOException {
+        writeInt(value & MAX_INT);
+        writeInt(value >>> 32);
+    }
+
+    private static void putInt(ByteBuffer buffer, long value) {
+        for (int i = 0; i < 4; i++) {
+            buffer.put((byte) (value >>> (8 * i)));
+        }
+    }
+
+    private static void putLong(ByteBuffer buffer, long value) {
+        putInt(buffer, value & MAX_INT);
+        putInt(buffer, value >>> 32);
+    }
+
+    /**
+     * The content of an entry, compressed into memory.
+     */
+    public static class CompressedEntry {
+        private final String name;
+        private final long lastModified;
+        private final int unixMode;
+        private final int method;
+        private final long crc;
+        private final long size;
+        private final ByteArrayOutputStream data;
+
+        private CompressedEntry(String name, long lastModified, int unixMode, int method, long crc, long size, ByteArrayOutputStream data) {
+            this.name = name;
+            this.lastModified = lastModified;
+            this.unixMode = unixMode;
+            this.method = method;
+            this.crc = crc;
+            this.size = size;
+            this.data = data;
+        }
+    }
+
+    private static class Entry {
+        final String name;
+        final long lastModified;
+        final int unixMode;
+        final int method;
+        long crc;
+        long size;
+        long compressedSize;
+        long localHeaderOffset;
+
+        Entry(String name, long lastModified, int unixMode, int method) {
+            this.name = name;
+            this.lastModified = lastModified;
+            this.unixMode = unixMode;
+            this.method = method;
+        }
+
+        long externalAttributes() {
+            // The same attributes as org.apache.tools.zip.ZipEntry.setUnixMode(): the Unix mode, and the MS-DOS read-only and directory flags
+            long attributes = ((long) unixMode << 16) & MAX_INT;
+            if ((unixMode & 0200) == 0) {
+                attributes |= 1;
+            }
+            if (name.endsWith("/")) {
+                attributes |= 0x10;
+            }
+            return attributes;
+        }
+
+        int versionNeeded() {
+            return method == ZipOutputStream.DEFLATED ? DEFLATE_MIN_VERSION : MIN_VERSION;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+            // Flushed by the writer
+        }
+
+        @Override
+        public void close() {
+            // Closed by the writer
+        }
+    }
+}
@@ -19,7 +19,6 @@ import org.apache.tools.tar.TarEntry;
 import org.apache.tools.tar.TarInputStream;
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
-import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
@@ -35,6 +34,7 @@ import org.gradle.util.GFileUtils;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TarFileTree implements MinimalFileTree, FileSystemMirroringFileTree {
@@ -93,7 +93,7 @@ public class TarFileTree implements MinimalFileTree, FileSystemMirroringFileTree
         }
     }
 
-    private class DetailsImpl extends AbstractFileTreeElement implements FileVisitDetails {
+    private class DetailsImpl extends AbstractFileTreeElement implements ArchiveEntryDetails {
         private final TarEntry entry;
         private final NoCloseTarInputStream tar;
         private final AtomicBoolean stopFlag;
@@ -117,12 +117,25 @@ public class TarFileTree implements MinimalFileTree, FileSystemMirroringFileTree
 
         public File getFile() {
             if (file == null) {
-                file = new File(tmpDir, entry.getName());
+                file = getExpandedFile();
                 copyTo(file);
             }
             return file;
         }
 
+        public File getArchiveFile() {
+            URI uri = resource.getURI();
+            return "file".equals(uri.getScheme()) ? new File(uri) : null;
+        }
+
+        public String getEntryName() {
+            return entry.getName();
+        }
+
+        public File getExpandedFile() {
+            return new File(tmpDir, entry.getName());
+        }
+
         public long getLastModified() {
             return entry.getModTime().getTime();
         }
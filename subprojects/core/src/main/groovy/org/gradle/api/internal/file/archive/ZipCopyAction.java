@@ -21,33 +21,63 @@ import org.apache.tools.zip.ZipEntry;
 import org.apache.tools.zip.ZipOutputStream;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.Nullable;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.file.FileCopyDetails;
 import org.gradle.api.internal.DocumentationRegistry;
 import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
 import org.gradle.api.internal.file.copy.CopyAction;
 import org.gradle.api.internal.file.copy.CopyActionProcessingStream;
+import org.gradle.api.internal.file.copy.DefaultZipCompressor;
 import org.gradle.api.internal.file.copy.FileCopyDetailsInternal;
 import org.gradle.api.internal.file.copy.ZipCompressor;
 import org.gradle.api.internal.tasks.SimpleWorkResult;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.api.tasks.bundling.Zip;
 import org.gradle.internal.IoActions;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 
-import java.io.File;
+import java.io.*;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 public class ZipCopyAction implements CopyAction {
     private final File zipFile;
     private final ZipCompressor compressor;
     private final DocumentationRegistry documentationRegistry;
+    private final ExecutorFactory executorFactory;
+    private final int maxParallelCompressions;
 
     public ZipCopyAction(File zipFile, ZipCompressor compressor, DocumentationRegistry documentationRegistry) {
+        this(zipFile, compressor, documentationRegistry, null, 1);
+    }
+
+    /**
+     * Creates an action which compresses the entries of the archive concurrently, using at most the given number of threads.
+     */
+    public ZipCopyAction(File zipFile, ZipCompressor compressor, DocumentationRegistry documentationRegistry, @Nullable ExecutorFactory executorFactory, int maxParallelCompressions) {
         this.zipFile = zipFile;
         this.compressor = compressor;
         this.documentationRegistry = documentationRegistry;
+        this.executorFactory = executorFactory;
+        this.maxParallelCompressions = maxParallelCompressions;
     }
 
     public WorkResult execute(final CopyActionProcessingStream stream) {
+        if (executorFactory != null && maxParallelCompressions > 1 && compressor instanceof DefaultZipCompressor) {
+            try {
+                compressConcurrently(stream, (DefaultZipCompressor) compressor);
+            } catch (UncheckedIOException e) {
+                throw wrapFailure(e);
+            }
+            return new SimpleWorkResult(true);
+        }
+
         final ZipOutputStream zipOutStr;
 
         try {
@@ -64,15 +94,52 @@ public class ZipCopyAction implements CopyAction {
             });
         } catch (UncheckedIOException e) {
             if (e.getCause() instanceof Zip64RequiredException) {
-                throw new org.gradle.api.tasks.bundling.internal.Zip64RequiredException(
-                        String.format("%s\n\nTo build this archive, please enable the zip64 extension.\nSee: %s", e.getCause().getMessage(), documentationRegistry.getDslRefForProperty(Zip.class, "zip64"))
-                );
+                throw zip64Required(e);
             }
         }
 
         return new SimpleWorkResult(true);
     }
 
+    private RuntimeException zip64Required(UncheckedIOException e) {
+        return new org.gradle.api.tasks.bundling.internal.Zip64RequiredException(
+                String.format("%s\n\nTo build this archive, please enable the zip64 extension.\nSee: %s", e.getCause().getMessage(), documentationRegistry.getDslRefForProperty(Zip.class, "zip64"))
+        );
+    }
+
+    private RuntimeException wrapFailure(UncheckedIOException e) {
+        if (e.getCause() instanceof Zip64RequiredException) {
+            return zip64Required(e);
+        }
+        return new GradleException(String.format("Could not create ZIP '%s'.", zipFile), e.getCause());
+    }
+
+    private void compressConcurrently(CopyActionProcessingStream stream, DefaultZipCompressor compressor) {
+        PrecompressedZipWriter writer;
+        try {
+            writer = new PrecompressedZipWriter(zipFile, compressor.isZip64Allowed());
+        } catch (Exception e) {
+            throw new GradleException(String.format("Could not create ZIP '%s'.", zipFile), e);
+        }
+
+        try {
+            StoppableExecutor executor = executorFactory.create("Compress ZIP entries");
+            try {
+                ConcurrentStreamAction action = new ConcurrentStreamAction(writer, executor, compressor.getEntryCompressionMethod());
+                stream.process(action);
+                action.writeCompressedEntries(0, 0);
+            } finally {
+                executor.stop();
+            }
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
     private class StreamAction implements CopyActionProcessingStreamAction {
         private final ZipOutputStream zipOutStr;
 
@@ -114,4 +181,136 @@ public class ZipCopyAction implements CopyAction {
             }
         }
     }
+
+    /**
+     * Compresses the entries of the archive concurrently, and writes them in the order they are visited. Regular files that are copied
+     * without changes are read by the compressing thread. The content of other entries is read by the visiting thread, and an entry that
+     * is too large to be held in memory is compressed by the visiting thread while it is written.
+     *
+     * <p>The entries that are compressed and not written yet are held in memory, so both their number and their total size are bounded. At
+     * most {@code 2 * maxParallelCompressions} entries are pending, and they hold at most {@link #MAX_PENDING_SIZE} plus {@link #MAX_FILE_SIZE}
+     * bytes of content, which is held once more in compressed form once an entry has been compressed.</p>
+     */
+    private class ConcurrentStreamAction implements CopyActionProcessingStreamAction {
+        private static final int MAX_FILE_SIZE = 4 * 1024 * 1024;
+        private static final int MAX_BUFFERED_SIZE = 1024 * 1024;
+        private static final long MAX_PENDING_SIZE = 16 * 1024 * 1024;
+        private final PrecompressedZipWriter writer;
+        private final Executor executor;
+        private final int method;
+        private final LinkedList<PendingEntry> pending = new LinkedList<PendingEntry>();
+        private long pendingSize;
+
+        public ConcurrentStreamAction(PrecompressedZipWriter writer, Executor executor, int method) {
+            this.writer = writer;
+            this.executor = executor;
+            this.method = method;
+        }
+
+        public void processFile(FileCopyDetailsInternal details) {
+            InputStream largeContent;
+            try {
+                largeContent = details.isDirectory() ? visitDir(details) : visitFile(details);
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", details, zipFile), e);
+            }
+            if (largeContent == null) {
+                writeCompressedEntries(2 * maxParallelCompressions, MAX_PENDING_SIZE);
+                return;
+            }
+
+            writeCompressedEntries(0, 0);
+            try {
+                writer.write(details.getRelativePath().getPathString(), details.getLastModified(), UnixStat.FILE_FLAG | details.getMode(), method, largeContent);
+            } catch (Zip64RequiredException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", details, zipFile), e);
+            }
+        }
+
+        private InputStream visitDir(FileCopyDetailsInternal details) {
+            // Trailing slash in name indicates that entry is a directory
+            String name = details.getRelativePath().getPathString() + '/';
+            add(details, name, UnixStat.DIR_FLAG, ZipOutputStream.STORED, new ByteArrayInputStream(new byte[0]), 0, false);
+            return null;
+        }
+
+        /**
+         * Queues the entry to be compressed, or returns the content of the entry when it is too large to be compressed into memory.
+         */
+        private InputStream visitFile(FileCopyDetailsInternal details) throws IOException {
+            String name = details.getRelativePath().getPathString();
+            if (details.isUnfilteredFile() && details.getSize() <= MAX_FILE_SIZE) {
+                add(details, name, UnixStat.FILE_FLAG, method, null, details.getSize(), true);
+                return null;
+            }
+
+            InputStream content = details.open();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] bytes = new byte[8192];
+            int nread;
+            while (buffer.size() < MAX_BUFFERED_SIZE && (nread = content.read(bytes)) >= 0) {
+                buffer.write(bytes, 0, nread);
+            }
+            if (buffer.size() < MAX_BUFFERED_SIZE) {
+                content.close();
+                add(details, name, UnixStat.FILE_FLAG, method, new ByteArrayInputStream(buffer.toByteArray()), buffer.size(), true);
+                return null;
+            }
+            return new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), content);
+        }
+
+        private void add(final FileCopyDetailsInternal details, final String name, int typeFlag, final int method, @Nullable final InputStream content, long size, boolean concurrently) {
+            final long lastModified = details.getLastModified();
+            final int unixMode = typeFlag | details.getMode();
+            FutureTask<PrecompressedZipWriter.CompressedEntry> task = new FutureTask<PrecompressedZipWriter.CompressedEntry>(new Callable<PrecompressedZipWriter.CompressedEntry>() {
+                public PrecompressedZipWriter.CompressedEntry call() throws Exception {
+                    InputStream entryContent = content == null ? details.open() : content;
+                    return PrecompressedZipWriter.compress(name, lastModified, unixMode, method, entryContent);
+                }
+            });
+            pending.add(new PendingEntry(details.toString(), size, task));
+            pendingSize += size;
+            if (concurrently) {
+                executor.execute(task);
+            } else {
+                task.run();
+            }
+        }
+
+        /**
+         * Writes the compressed entries in the order they were visited, until at most the given number of entries with at most the given
+         * total size are pending.
+         */
+        void writeCompressedEntries(int maxPending, long maxPendingSize) {
+            while (pending.size() > maxPending || (!pending.isEmpty() && pendingSize > maxPendingSize)) {
+                PendingEntry entry = pending.removeFirst();
+                pendingSize -= entry.size;
+                try {
+                    writer.write(entry.task.get());
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                } catch (ExecutionException e) {
+                    throw new GradleException(String.format("Could not add %s to ZIP '%s'.", entry.displayName, zipFile), e.getCause());
+                } catch (Zip64RequiredException e) {
+                    throw new UncheckedIOException(e);
+                } catch (IOException e) {
+                    throw new GradleException(String.format("Could not add %s to ZIP '%s'.", entry.displayName, zipFile), e);
+                }
+            }
+        }
+    }
+
+    private static class PendingEntry {
+        final String displayName;
+        final long size;
+        final FutureTask<PrecompressedZipWriter.CompressedEntry> task;
+
+        PendingEntry(String displayName, long size, FutureTask<PrecompressedZipWriter.CompressedEntry> task) {
+            this.displayName = displayName;
+            this.size = size;
+            this.task = task;
+        }
+    }
 }
@@ -20,7 +20,6 @@ import org.apache.tools.zip.ZipFile;
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.UncheckedIOException;
-import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
@@ -98,7 +97,7 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
         }
     }
 
-    private class DetailsImpl extends AbstractFileTreeElement implements FileVisitDetails {
+    private class DetailsImpl extends AbstractFileTreeElement implements ArchiveEntryDetails {
         private final ZipEntry entry;
         private final ZipFile zip;
         private final AtomicBoolean stopFlag;
@@ -121,12 +120,24 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
 
         public File getFile() {
             if (file == null) {
-                file = new File(tmpDir, entry.getName());
+                file = getExpandedFile();
                 copyTo(file);
             }
             return file;
         }
 
+        public File getArchiveFile() {
+            return zipFile;
+        }
+
+        public String getEntryName() {
+            return entry.getName();
+        }
+
+        public File getExpandedFile() {
+            return new File(tmpDir, entry.getName());
+        }
+
         public long getLastModified() {
             return entry.getTime();
         }
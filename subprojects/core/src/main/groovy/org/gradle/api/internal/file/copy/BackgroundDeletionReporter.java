@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.file.copy;
+
+import org.gradle.BuildAdapter;
+import org.gradle.BuildResult;
+import org.gradle.api.GradleException;
+import org.gradle.api.internal.GradleInternal;
+import org.gradle.initialization.TasksCompletionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits for the directories deleted in the background during a build, and fails the build when any of them could not be deleted. When the
+ * build has already failed, the deletion failures are logged instead.
+ */
+public class BackgroundDeletionReporter extends BuildAdapter implements TasksCompletionListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundDeletionReporter.class);
+    private final BackgroundDirectoryDeleter deleter;
+
+    public BackgroundDeletionReporter(BackgroundDirectoryDeleter deleter) {
+        this.deleter = deleter;
+    }
+
+    public void onTasksFinished(GradleInternal gradle) {
+        deleter.awaitCompletion();
+    }
+
+    @Override
+    public void buildFinished(BuildResult result) {
+        if (result.getFailure() == null) {
+            return;
+        }
+        try {
+            deleter.awaitCompletion();
+        } catch (GradleException e) {
+            LOGGER.warn(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy;
+
+import org.gradle.api.GradleException;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.concurrent.StoppableExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deletes directory trees in the background. A directory is first moved into a trash directory provided by the caller, so that it disappears
+ * from its original location immediately. The trash directory should be on the same file system as the directory, as the move is a rename;
+ * when it cannot be done the caller is expected to delete the directory itself. The moved directory is then deleted by a pool of worker
+ * threads, which delete the subdirectories of a directory concurrently. Each directory is deleted once its contents have been deleted.
+ *
+ * <p>Failures to delete a moved directory are collected and reported by {@link #awaitCompletion()}. Anything found in a trash directory that
+ * is not being deleted, such as leftovers from a process that stopped before deleting them, is deleted the next time a directory is moved
+ * into the same trash directory. Stopping this deleter waits for all scheduled deletions to complete.</p>
+ */
+public class BackgroundDirectoryDeleter implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundDirectoryDeleter.class);
+    private final Lock lock = new ReentrantLock();
+    private final Condition stateChanged = lock.newCondition();
+    private final LinkedList<DirectoryNode> queue = new LinkedList<DirectoryNode>();
+    private final Set<File> trashDirs = new HashSet<File>();
+    private final List<DirectoryNode> failures = new ArrayList<DirectoryNode>();
+    private final ExecutorFactory executorFactory;
+    private final int maxWorkers;
+    private StoppableExecutor executor;
+    private int workers;
+    private boolean stopped;
+
+    public BackgroundDirectoryDeleter(ExecutorFactory executorFactory, int maxWorkers) {
+        this.executorFactory = executorFactory;
+        this.maxWorkers = maxWorkers;
+    }
+
+    /**
+     * Moves the given directory into the given trash directory and schedules its deletion.
+     *
+     * @return true if the directory has been moved, false if it cannot be moved, in which case the directory is unchanged.
+     */
+    public boolean delete(File dir, File trashDir) {
+        File absoluteDir = dir.getAbsoluteFile();
+        File absoluteTrashDir = trashDir.getAbsoluteFile();
+        if (absoluteTrashDir.getPath().startsWith(absoluteDir.getPath() + File.separator)) {
+            return false;
+        }
+        absoluteTrashDir.mkdirs();
+        File[] leftovers = absoluteTrashDir.listFiles();
+        File target = new File(absoluteTrashDir, absoluteDir.getName() + "." + UUID.randomUUID());
+
+        lock.lock();
+        try {
+            if (stopped || !absoluteDir.renameTo(target)) {
+                return false;
+            }
+            LOGGER.debug("Moved {} to {}", absoluteDir, target);
+            schedule(target, absoluteDir);
+            if (leftovers != null) {
+                for (File leftover : leftovers) {
+                    if (!trashDirs.contains(leftover)) {
+                        LOGGER.debug("Deleting {} left behind in the trash by an earlier deletion", leftover);
+                        schedule(leftover, null);
+                    }
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until all scheduled deletions have completed.
+     *
+     * @throws GradleException when a directory moved since the last call could not be completely deleted.
+     */
+    public void awaitCompletion() {
+        List<DirectoryNode> failures;
+        lock.lock();
+        try {
+            awaitEmpty();
+            failures = new ArrayList<DirectoryNode>(this.failures);
+            this.failures.clear();
+        } finally {
+            lock.unlock();
+        }
+        if (failures.isEmpty()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder("Unable to delete ");
+        message.append(failures.size() == 1 ? "directory" : "directories");
+        for (DirectoryNode failure : failures) {
+            message.append(String.format("%n  - %s (the remaining files are in %s)", failure.original, failure.dir));
+        }
+        throw new GradleException(message.toString());
+    }
+
+    /**
+     * Blocks until all scheduled deletions have completed, and stops accepting new ones.
+     */
+    public void stop() {
+        StoppableExecutor executor;
+        lock.lock();
+        try {
+            stopped = true;
+            awaitEmpty();
+            executor = this.executor;
+            this.executor = null;
+        } finally {
+            lock.unlock();
+        }
+        if (executor != null) {
+            executor.stop();
+        }
+    }
+
+    private void awaitEmpty() {
+        while (!trashDirs.isEmpty()) {
+            try {
+                stateChanged.await();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+
+    private void schedule(File trashDir, File original) {
+        trashDirs.add(trashDir);
+        add(new DirectoryNode(trashDir, original));
+    }
+
+    private void add(DirectoryNode node) {
+        queue.add(node);
+        if (workers < maxWorkers) {
+            if (executor == null) {
+                executor = executorFactory.create("Delete trash directories");
+            }
+            workers++;
+            executor.execute(new Worker());
+        }
+    }
+
+    private void visit(DirectoryNode node) {
+        try {
+            File[] children = node.dir.listFiles();
+            // Something else may have removed it
+            if (children == null) {
+                return;
+            }
+            List<DirectoryNode> subdirs = new ArrayList<DirectoryNode>();
+            List<File> files = new ArrayList<File>();
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    subdirs.add(new DirectoryNode(child, node));
+                } else {
+                    files.add(child);
+                }
+            }
+            if (!subdirs.isEmpty()) {
+                node.remaining.addAndGet(subdirs.size());
+                lock.lock();
+                try {
+                    for (DirectoryNode subdir : subdirs) {
+                        add(subdir);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            for (File file : files) {
+                deleteFile(file, node);
+            }
+        } finally {
+            release(node);
+        }
+    }
+
+    /**
+     * Called when the contents of a directory have been visited, and when each of its subdirectories has been deleted. Deletes the directory
+     * once all of these have happened, and then releases its parent.
+     */
+    private void release(DirectoryNode node) {
+        while (node != null && node.remaining.decrementAndGet() == 0) {
+            deleteFile(node.dir, node);
+            if (node.parent == null) {
+                finished(node);
+            }
+            node = node.parent;
+        }
+    }
+
+    private void deleteFile(File file, DirectoryNode node) {
+        if (!DeleteActionImpl.tryHardToDelete(file)) {
+            LOGGER.debug("Could not delete {}.", file);
+            node.root.failed = true;
+        }
+    }
+
+    private void finished(DirectoryNode root) {
+        lock.lock();
+        try {
+            trashDirs.remove(root.dir);
+            if (root.failed) {
+                if (root.original != null) {
+                    failures.add(root);
+                } else {
+                    LOGGER.warn("Could not delete {}.", root.dir);
+                }
+            }
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class DirectoryNode {
+        final File dir;
+        final DirectoryNode parent;
+        final DirectoryNode root;
+        // For a root, the location the directory was moved from, or null when deleting leftovers in the trash
+        final File original;
+        // The visit of this directory, plus one for each subdirectory that has not been deleted
+        final AtomicInteger remaining = new AtomicInteger(1);
+        volatile boolean failed;
+
+        DirectoryNode(File dir, File original) {
+            this.dir = dir;
+            this.parent = null;
+            this.root = this;
+            this.original = original;
+        }
+
+        DirectoryNode(File dir, DirectoryNode parent) {
+            this.dir = dir;
+            this.parent = parent;
+            this.root = parent.root;
+            this.original = null;
+        }
+    }
+
+    private class Worker implements Runnable {
+        public void run() {
+            while (true) {
+                DirectoryNode node;
+                lock.lock();
+                try {
+                    node = queue.poll();
+                    if (node == null) {
+                        workers--;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                visit(node);
+            }
+        }
+    }
+}
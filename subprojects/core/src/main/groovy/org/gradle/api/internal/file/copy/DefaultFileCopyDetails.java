@@ -22,6 +22,8 @@ import org.gradle.api.file.DuplicatesStrategy;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
+import org.gradle.api.internal.file.DefaultFileTreeElement;
+import org.gradle.api.internal.file.archive.ArchiveEntryDetails;
 import org.gradle.internal.nativeintegration.filesystem.Chmod;
 
 import java.io.*;
@@ -63,6 +65,17 @@ public class DefaultFileCopyDetails extends AbstractFileTreeElement implements F
         }
     }
 
+    public File getSourceFile() {
+        if (fileDetails instanceof ArchiveEntryDetails) {
+            return ((ArchiveEntryDetails) fileDetails).getExpandedFile();
+        }
+        return fileDetails.getFile();
+    }
+
+    public boolean isUnfilteredFile() {
+        return fileDetails instanceof DefaultFileTreeElement && !filterChain.hasFilters() && !fileDetails.isDirectory();
+    }
+
     public boolean isDirectory() {
         return fileDetails.isDirectory();
     }
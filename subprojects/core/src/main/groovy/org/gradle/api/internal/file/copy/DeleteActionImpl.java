@@ -16,6 +16,7 @@
 package org.gradle.api.internal.file.copy;
 
 import org.gradle.api.file.DeleteAction;
+import org.gradle.api.Nullable;
 import org.gradle.api.file.UnableToDeleteFileException;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.internal.os.OperatingSystem;
@@ -28,11 +29,23 @@ public class DeleteActionImpl implements DeleteAction {
     private static Logger logger = LoggerFactory.getLogger(DeleteActionImpl.class);
     
     private FileResolver fileResolver;
+    private final BackgroundDirectoryDeleter backgroundDeleter;
+    private final File trashDir;
 
     private static final int DELETE_RETRY_SLEEP_MILLIS = 10;
 
     public DeleteActionImpl(FileResolver fileResolver) {
+        this(fileResolver, null, null);
+    }
+
+    /**
+     * @param backgroundDeleter When not null, directories are moved to the given trash directory and deleted in the background.
+     * @param trashDir The directory to move deleted directories into. Directories that cannot be moved there are deleted synchronously.
+     */
+    public DeleteActionImpl(FileResolver fileResolver, @Nullable BackgroundDirectoryDeleter backgroundDeleter, @Nullable File trashDir) {
         this.fileResolver = fileResolver;
+        this.backgroundDeleter = backgroundDeleter;
+        this.trashDir = trashDir;
     }
 
     public boolean delete(Object... deletes) {
@@ -43,6 +56,9 @@ public class DeleteActionImpl implements DeleteAction {
             }
             logger.debug("Deleting {}", file);
             didWork = true;
+            if (backgroundDeleter != null && trashDir != null && file.isDirectory() && backgroundDeleter.delete(file, trashDir)) {
+                continue;
+            }
             doDelete(file);
         }
         return didWork;
@@ -62,17 +78,25 @@ public class DeleteActionImpl implements DeleteAction {
             }
         }
 
-        if (!file.delete() && file.exists()) {
-            handleFailedDelete(file);
-
+        if (!tryHardToDelete(file)) {
+            throw new UnableToDeleteFileException(file);
         }
     }
 
-    private boolean isRunGcOnFailedDelete() {
+    private static boolean isRunGcOnFailedDelete() {
         return OperatingSystem.current().isWindows();
     }
 
-    private void handleFailedDelete(File file) {
+    /**
+     * Deletes the given file or empty directory, retrying once on failure.
+     *
+     * @return true if the file no longer exists.
+     */
+    static boolean tryHardToDelete(File file) {
+        if (file.delete() || !file.exists()) {
+            return true;
+        }
+
         // This is copied from Ant (see org.apache.tools.ant.util.FileUtils.tryHardToDelete).
         // It mentions that there is a bug in the Windows JDK impls that this is a valid
         // workaround for. I've been unable to find a definitive reference to this bug.
@@ -86,9 +110,7 @@ public class DeleteActionImpl implements DeleteAction {
             // Ignore Exception
         }
 
-        if (!file.delete() && file.exists()) {
-            throw new UnableToDeleteFileException(file);
-        }
+        return file.delete() || !file.exists();
     }
 
 }
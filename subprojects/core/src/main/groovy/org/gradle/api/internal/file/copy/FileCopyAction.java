@@ -15,29 +15,79 @@
  */
 package org.gradle.api.internal.file.copy;
 
+import org.gradle.api.Nullable;
 import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.tasks.SimpleWorkResult;
 import org.gradle.api.tasks.WorkResult;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 
 import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class FileCopyAction implements CopyAction {
+    /**
+     * Files smaller than this are copied by the visiting thread, as handing them to another thread costs more than copying them.
+     */
+    static final long PARALLEL_COPY_MIN_SIZE = 64 * 1024;
 
     private final FileResolver fileResolver;
+    private final ExecutorFactory executorFactory;
+    private final int maxParallelCopies;
 
     public FileCopyAction(FileResolver fileResolver) {
+        this(fileResolver, null, 1);
+    }
+
+    /**
+     * Creates an action which copies large unfiltered files concurrently, using at most the given number of threads.
+     */
+    public FileCopyAction(FileResolver fileResolver, @Nullable ExecutorFactory executorFactory, int maxParallelCopies) {
         this.fileResolver = fileResolver;
+        this.executorFactory = executorFactory;
+        this.maxParallelCopies = maxParallelCopies;
     }
 
     public WorkResult execute(CopyActionProcessingStream stream) {
-        FileCopyDetailsInternalAction action = new FileCopyDetailsInternalAction();
-        stream.process(action);
+        if (executorFactory == null || maxParallelCopies < 2) {
+            FileCopyDetailsInternalAction action = new FileCopyDetailsInternalAction();
+            stream.process(action);
+            return new SimpleWorkResult(action.didWork);
+        }
+
+        StoppableExecutor executor = executorFactory.create("Copy files");
+        ParallelFileCopyDetailsInternalAction action = new ParallelFileCopyDetailsInternalAction(executor);
+        Throwable failure = null;
+        try {
+            stream.process(action);
+        } catch (Throwable t) {
+            failure = t;
+        }
+        // Wait for the pending copies even when the visit has failed, but keep the failure of the visit, which is the primary one
+        try {
+            executor.stop();
+        } catch (Throwable t) {
+            if (failure == null) {
+                failure = t;
+            }
+        }
+        if (failure == null) {
+            failure = action.failure.get();
+        }
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
+        }
         return new SimpleWorkResult(action.didWork);
     }
 
     private class FileCopyDetailsInternalAction implements CopyActionProcessingStreamAction {
-        private boolean didWork;
+        boolean didWork;
 
         public void processFile(FileCopyDetailsInternal details) {
             File target = fileResolver.resolve(details.getRelativePath().getPathString());
@@ -47,4 +97,74 @@ public class FileCopyAction implements CopyAction {
             }
         }
     }
+
+    /**
+     * Hands large unfiltered files to the executor, and copies everything else in the visiting thread. The number of files being copied concurrently
+     * is bounded. A target that is written more than once, as allowed by the duplicates strategy, is written in the order of the visit. Once a
+     * concurrent copy has failed, no more files are copied and the failure is rethrown to the visit.
+     */
+    private class ParallelFileCopyDetailsInternalAction extends FileCopyDetailsInternalAction {
+        private final Executor executor;
+        private final Semaphore permits = new Semaphore(maxParallelCopies);
+        private final Set<File> targets = new HashSet<File>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        ParallelFileCopyDetailsInternalAction(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void processFile(final FileCopyDetailsInternal details) {
+            rethrowFailure();
+            final File target = fileResolver.resolve(details.getRelativePath().getPathString());
+            if (!targets.add(target)) {
+                awaitPendingCopies();
+                rethrowFailure();
+            }
+            if (!details.isUnfilteredFile() || details.getSize() < PARALLEL_COPY_MIN_SIZE) {
+                if (details.copyTo(target)) {
+                    didWork = true;
+                }
+                return;
+            }
+
+            acquire(1);
+            if (failure.get() != null) {
+                permits.release();
+                rethrowFailure();
+            }
+            didWork = true;
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        details.copyTo(target);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        }
+
+        private void rethrowFailure() {
+            Throwable t = failure.get();
+            if (t != null) {
+                throw UncheckedException.throwAsUncheckedException(t);
+            }
+        }
+
+        private void awaitPendingCopies() {
+            acquire(maxParallelCopies);
+            permits.release(maxParallelCopies);
+        }
+
+        private void acquire(int count) {
+            try {
+                permits.acquire(count);
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
 }
@@ -16,10 +16,25 @@
 
 package org.gradle.api.internal.file.copy;
 
+import org.gradle.api.Nullable;
 import org.gradle.api.file.FileCopyDetails;
 
+import java.io.File;
+
 public interface FileCopyDetailsInternal extends FileCopyDetails {
 
     boolean isIncludeEmptyDirs();
 
+    /**
+     * Returns the source file that this element is copied from, without extracting it from an archive. Returns null when this element has no source file.
+     */
+    @Nullable
+    File getSourceFile();
+
+    /**
+     * Returns true when this element is a regular file of the file system that is copied without changes to its content. Such a file can be
+     * copied after the visit of its file tree has completed.
+     */
+    boolean isUnfilteredFile();
+
 }
@@ -18,6 +18,7 @@ package org.gradle.api.internal.file.copy;
 import groovy.lang.Closure;
 import groovy.text.SimpleTemplateEngine;
 import groovy.text.Template;
+import org.apache.tools.ant.filters.ReplaceTokens;
 import org.apache.tools.ant.util.ReaderInputStream;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.Transformer;
@@ -27,6 +28,7 @@ import org.gradle.util.ConfigureUtil;
 
 import java.io.*;
 import java.lang.reflect.Constructor;
+import java.util.HashMap;
 import java.util.Map;
 
 public class FilterChain implements Transformer<InputStream, InputStream> {
@@ -55,6 +57,9 @@ public class FilterChain implements Transformer<InputStream, InputStream> {
     }
 
     public void add(final Class<? extends FilterReader> filterType, final Map<String, ?> properties) {
+        if (filterType == ReplaceTokens.class && properties != null && addTokenReplacement(properties)) {
+            return;
+        }
         transformers.add(new Transformer<Reader, Reader>() {
             public Reader transform(Reader original) {
                 try {
@@ -72,6 +77,43 @@ public class FilterChain implements Transformer<InputStream, InputStream> {
         });
     }
 
+    /**
+     * Replaces Ant's {@link ReplaceTokens} with a {@link TokenReplacingReader}, when it is configured with string tokens and single character
+     * begin and end tokens only.
+     *
+     * @return false if the properties are not supported, in which case nothing is added.
+     */
+    private boolean addTokenReplacement(Map<String, ?> properties) {
+        final Map<String, String> tokens = new HashMap<String, String>();
+        char beginToken = '@';
+        char endToken = '@';
+        for (Map.Entry<String, ?> entry : properties.entrySet()) {
+            Object value = entry.getValue();
+            if (entry.getKey().equals("tokens") && value instanceof Map) {
+                for (Map.Entry<?, ?> token : ((Map<?, ?>) value).entrySet()) {
+                    if (!(token.getKey() instanceof String) || !(token.getValue() instanceof String)) {
+                        return false;
+                    }
+                    tokens.put((String) token.getKey(), (String) token.getValue());
+                }
+            } else if (entry.getKey().equals("beginToken") && value instanceof String && ((String) value).length() == 1) {
+                beginToken = ((String) value).charAt(0);
+            } else if (entry.getKey().equals("endToken") && value instanceof String && ((String) value).length() == 1) {
+                endToken = ((String) value).charAt(0);
+            } else {
+                return false;
+            }
+        }
+        final char begin = beginToken;
+        final char end = endToken;
+        transformers.add(new Transformer<Reader, Reader>() {
+            public Reader transform(Reader original) {
+                return new TokenReplacingReader(original, tokens, begin, end);
+            }
+        });
+        return true;
+    }
+
     public void add(final Closure closure) {
         transformers.add(new Transformer<Reader, Reader>() {
             public Reader transform(Reader original) {
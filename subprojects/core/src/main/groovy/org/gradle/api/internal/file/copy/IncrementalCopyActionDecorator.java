@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy;
+
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
+import org.gradle.api.internal.tasks.SimpleWorkResult;
+import org.gradle.api.tasks.WorkResult;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link CopyAction} which copies only the files whose source has changed since the previous copy, or whose target is missing, and removes the
+ * given files written by the previous copy that are no longer copied. Removing stale files can only be used when the destination directory
+ * contains only the output of the previous copy.
+ */
+public class IncrementalCopyActionDecorator implements CopyAction {
+    private final File baseDestDir;
+    private final Set<String> changedSources;
+    private final Iterable<File> previousOutputs;
+    private final CopyAction delegate;
+
+    /**
+     * @param changedSources The absolute paths of the source files that have been added or modified since the previous copy.
+     * @param previousOutputs The files written by the previous copy, which are removed if they are no longer copied. Empty to keep them.
+     */
+    public IncrementalCopyActionDecorator(File baseDestDir, Set<String> changedSources, Iterable<File> previousOutputs, CopyAction delegate) {
+        this.baseDestDir = baseDestDir;
+        this.changedSources = changedSources;
+        this.previousOutputs = previousOutputs;
+        this.delegate = delegate;
+    }
+
+    public WorkResult execute(final CopyActionProcessingStream stream) {
+        final Set<RelativePath> visited = new HashSet<RelativePath>();
+        final Set<RelativePath> copied = new HashSet<RelativePath>();
+
+        WorkResult didWork = delegate.execute(new CopyActionProcessingStream() {
+            public void process(final CopyActionProcessingStreamAction action) {
+                stream.process(new CopyActionProcessingStreamAction() {
+                    public void processFile(FileCopyDetailsInternal details) {
+                        RelativePath path = details.getRelativePath();
+                        visited.add(path);
+                        // A file copied over a target that has already been copied during this copy must be copied again, so that the
+                        // duplicates strategy is honoured
+                        if (details.isDirectory() || copied.contains(path) || isChanged(details) || !new File(baseDestDir, path.getPathString()).exists()) {
+                            copied.add(path);
+                            action.processFile(details);
+                        }
+                    }
+                });
+            }
+        });
+
+        boolean removed = removeStaleOutputs(visited);
+        return new SimpleWorkResult(didWork.getDidWork() || removed);
+    }
+
+    private boolean isChanged(FileCopyDetailsInternal details) {
+        File sourceFile = details.getSourceFile();
+        return sourceFile == null || changedSources.contains(sourceFile.getAbsolutePath());
+    }
+
+    private boolean removeStaleOutputs(Set<RelativePath> visited) {
+        String prefix = baseDestDir.getAbsolutePath() + File.separator;
+        boolean didWork = false;
+        for (File output : previousOutputs) {
+            String path = output.getAbsolutePath();
+            if (!path.startsWith(prefix)) {
+                continue;
+            }
+            RelativePath relativePath = RelativePath.parse(true, path.substring(prefix.length()));
+            if (!visited.contains(relativePath) && output.delete()) {
+                didWork = true;
+                removeEmptyParents(relativePath.getParent(), visited);
+            }
+        }
+        return didWork;
+    }
+
+    private void removeEmptyParents(RelativePath dirPath, Set<RelativePath> visited) {
+        while (dirPath != null && dirPath.getParent() != null && !visited.contains(dirPath)) {
+            if (!new File(baseDestDir, dirPath.getPathString()).delete()) {
+                // Not empty
+                return;
+            }
+            dirPath = dirPath.getParent();
+        }
+    }
+}
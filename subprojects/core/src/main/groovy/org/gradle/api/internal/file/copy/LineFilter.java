@@ -19,16 +19,28 @@ import groovy.lang.Closure;
 
 import org.gradle.internal.SystemProperties;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 
+/**
+ * Transforms each line of a Reader using a closure. Lines are found by scanning a buffer of characters, and the transformed lines are copied
+ * to the caller's buffer in bulk.
+ */
 public class LineFilter extends Reader {
+    private static final int BUFFER_SIZE = 8192;
     private final Closure closure;
+    private final Reader in;
+    private final String lineSeparator = SystemProperties.getLineSeparator();
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] single = new char[1];
+    private final StringBuilder partialLine = new StringBuilder();
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean skipLineFeed;
     private String transformedLine;
     private int transformedIndex;
-    private final BufferedReader bufferedIn;
-    private final Reader in;
+    private boolean separatorPending;
 
     /**
      * Creates a new filtered reader.
@@ -38,69 +50,105 @@ public class LineFilter extends Reader {
      */
     public LineFilter(Reader in, Closure closure) {
         this.in = in;
-        this.bufferedIn = new BufferedReader(in);
         this.closure = closure;
     }
 
-    private String getTransformedLine() throws IOException {
-        StringBuilder line = new StringBuilder();
-        boolean eol = false;
-        int ch;
-        while (!eol && (ch = bufferedIn.read()) >= 0) {
-            if (ch == '\n') {
-                eol = true;
-            } else if (ch == '\r') {
-                eol = true;
-                bufferedIn.mark(1);
-                if (bufferedIn.read() != '\n') {
-                    bufferedIn.reset();
+    /**
+     * Reads and transforms the next line.
+     *
+     * @return false when the end of the input has been reached.
+     */
+    private boolean transformNextLine() throws IOException {
+        partialLine.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                if (partialLine.length() == 0) {
+                    return false;
                 }
-            } else {
-                line.append((char) ch);
+                setTransformedLine(partialLine.toString(), false);
+                return true;
             }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+            int start = pos;
+            while (pos < limit) {
+                char ch = buffer[pos];
+                if (ch == '\n' || ch == '\r') {
+                    String line;
+                    if (partialLine.length() == 0) {
+                        line = new String(buffer, start, pos - start);
+                    } else {
+                        line = partialLine.append(buffer, start, pos - start).toString();
+                    }
+                    skipLineFeed = ch == '\r';
+                    pos++;
+                    setTransformedLine(line, true);
+                    return true;
+                }
+                pos++;
+            }
+            partialLine.append(buffer, start, pos - start);
         }
-        if (line.length() == 0 && !eol) {
-            return null;
-        }
+    }
 
-        StringBuilder result = new StringBuilder();
-        result.append(closure.call(line.toString()).toString());
-        if (eol) {
-            result.append(SystemProperties.getLineSeparator());
-        }
-        return result.toString();
+    private void setTransformedLine(String line, boolean eol) {
+        transformedLine = closure.call(line).toString();
+        transformedIndex = 0;
+        separatorPending = eol;
     }
 
-    private void ensureData() throws IOException {
-        if (transformedLine == null || transformedIndex >= transformedLine.length()) {
-            transformedLine = getTransformedLine();
-            transformedIndex = 0;
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
         }
+        int nread = in.read(buffer, 0, buffer.length);
+        if (nread < 0) {
+            eof = true;
+            return false;
+        }
+        pos = 0;
+        limit = nread;
+        return true;
     }
 
     @Override
     public int read() throws IOException {
-        ensureData();
-        if (transformedLine == null || transformedLine.length() == 0) {
-            return -1;
-        }
-        return transformedLine.charAt(transformedIndex++);
+        return read(single, 0, 1) < 0 ? -1 : single[0];
     }
 
     @Override
     public int read(char[] cbuf, int off, int len) throws IOException {
-        for (int i = 0; i < len; i++) {
-            final int c = read();
-            if (c == -1) {
-                if (i == 0) {
-                    return -1;
-                } else {
-                    return i;
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len) {
+            if (transformedLine != null) {
+                int n = Math.min(len - count, transformedLine.length() - transformedIndex);
+                transformedLine.getChars(transformedIndex, transformedIndex + n, cbuf, off + count);
+                transformedIndex += n;
+                count += n;
+                if (transformedIndex == transformedLine.length()) {
+                    if (separatorPending) {
+                        transformedLine = lineSeparator;
+                        transformedIndex = 0;
+                        separatorPending = false;
+                    } else {
+                        transformedLine = null;
+                    }
                 }
+                continue;
+            }
+            if (count > 0 && pos == limit || !transformNextLine()) {
+                break;
             }
-            cbuf[off + i] = (char) c;
         }
-        return len;
+        return count == 0 ? -1 : count;
     }
 
     public void close() throws IOException {
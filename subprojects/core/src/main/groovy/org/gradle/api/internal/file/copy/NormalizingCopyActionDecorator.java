@@ -126,6 +126,14 @@ public class NormalizingCopyActionDecorator implements CopyAction {
             throw new UnsupportedOperationException();
         }
 
+        public File getSourceFile() {
+            return null;
+        }
+
+        public boolean isUnfilteredFile() {
+            return false;
+        }
+
         public boolean isDirectory() {
             return !path.isFile();
         }
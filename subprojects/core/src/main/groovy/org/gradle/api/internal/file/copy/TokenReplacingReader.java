@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * Replaces tokens of the form {@code @key@} with values, in the same way as Ant's {@code ReplaceTokens} filter with single character begin and
+ * end tokens. Works on a buffer of characters, and only creates a string for each token found.
+ *
+ * <p>When the characters between a begin token and the following end token are not a known key, the begin token is written and the characters
+ * following it are scanned again, so that the end token can start another token. A value is not scanned for tokens.</p>
+ */
+public class TokenReplacingReader extends Reader {
+    private static final int BUFFER_SIZE = 8192;
+    private final Reader in;
+    private final Map<String, String> tokens;
+    private final char beginToken;
+    private final char endToken;
+    private final char[] single = new char[1];
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private String replacement;
+    private int replacementIndex;
+
+    public TokenReplacingReader(Reader in, Map<String, String> tokens, char beginToken, char endToken) {
+        this.in = in;
+        this.tokens = tokens;
+        this.beginToken = beginToken;
+        this.endToken = endToken;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) < 0 ? -1 : single[0];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len) {
+            if (replacement != null) {
+                int n = Math.min(len - count, replacement.length() - replacementIndex);
+                replacement.getChars(replacementIndex, replacementIndex + n, cbuf, off + count);
+                replacementIndex += n;
+                count += n;
+                if (replacementIndex == replacement.length()) {
+                    replacement = null;
+                }
+                continue;
+            }
+            if (pos == limit && (count > 0 || !readMore())) {
+                break;
+            }
+
+            // Copy everything up to the next begin token
+            int start = pos;
+            int end = Math.min(limit, pos + len - count);
+            while (pos < end && buffer[pos] != beginToken) {
+                pos++;
+            }
+            if (pos > start) {
+                System.arraycopy(buffer, start, cbuf, off + count, pos - start);
+                count += pos - start;
+                continue;
+            }
+            if (pos == end) {
+                continue;
+            }
+
+            int tokenEnd = findEndToken();
+            if (tokenEnd >= 0) {
+                String value = tokens.get(new String(buffer, pos + 1, tokenEnd - pos - 1));
+                if (value != null) {
+                    pos = tokenEnd + 1;
+                    if (value.length() > 0) {
+                        replacement = value;
+                        replacementIndex = 0;
+                    }
+                    continue;
+                }
+            }
+            cbuf[off + count++] = beginToken;
+            pos++;
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    /**
+     * Returns the index in the buffer of the end token for the begin token at the current position, reading more characters as required.
+     * Returns -1 when there is no end token before the end of the input.
+     */
+    private int findEndToken() throws IOException {
+        int i = pos + 1;
+        while (true) {
+            for (; i < limit; i++) {
+                if (buffer[i] == endToken) {
+                    return i;
+                }
+            }
+            int start = pos;
+            if (!readMore()) {
+                return -1;
+            }
+            i -= start - pos;
+        }
+    }
+
+    /**
+     * Moves the unread characters to the start of the buffer, growing it if full, and reads more characters after them.
+     */
+    private boolean readMore() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        } else if (limit == buffer.length) {
+            char[] newBuffer = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, newBuffer, 0, limit);
+            buffer = newBuffer;
+        }
+        int nread = in.read(buffer, limit, buffer.length - limit);
+        if (nread < 0) {
+            eof = true;
+            return false;
+        }
+        limit += nread;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -24,6 +24,7 @@ public class ClassLoaderCacheFactory {
 
     private final GradleBuildEnvironment environment;
     private DefaultClassLoaderCache instance;
+    private HashClassPathSnapshotter snapshotter;
 
     public ClassLoaderCacheFactory(GradleBuildEnvironment environment) {
         this.environment = environment;
@@ -32,6 +33,8 @@ public class ClassLoaderCacheFactory {
     public ClassLoaderCache create() {
         if (environment.isLongLivingProcess()) {
             maybeInit();
+            //a new build is starting, the class path may have changed since the previous one
+            snapshotter.discardMemoizedSnapshots();
             return instance;
         }
         return newCache(new FileClassPathSnapshotter());
@@ -43,7 +46,8 @@ public class ClassLoaderCacheFactory {
 
     private void maybeInit() {
         if (instance == null) {
-            instance = newCache(new HashClassPathSnapshotter());
+            snapshotter = new HashClassPathSnapshotter();
+            instance = newCache(snapshotter);
         }
     }
 }
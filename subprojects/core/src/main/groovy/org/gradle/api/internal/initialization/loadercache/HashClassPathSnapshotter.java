@@ -16,45 +16,121 @@
 
 package org.gradle.api.internal.initialization.loadercache;
 
-import com.google.common.primitives.Bytes;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.gradle.api.internal.hash.DefaultHasher;
 import org.gradle.api.internal.hash.Hasher;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.util.GFileUtils;
 
 import java.io.File;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Creates snapshots based on the paths and the content hashes of the files of the class path.
+ *
+ * <p>The hashes of the most recently used files are cached for the lifetime of the snapshotter, and are only recalculated when the length or
+ * the modification time of the file changes. The number of cached hashes is bounded, so that a long running daemon does not keep the
+ * hash of every file it has ever seen. Snapshots are memoized per class path until {@link #discardMemoizedSnapshots()} is called, which happens at the start
+ * of each build.</p>
+ */
 public class HashClassPathSnapshotter implements ClassPathSnapshotter {
 
-    private final Hasher hasher = new DefaultHasher();
+    private static final int MAX_CACHED_FILE_HASHES = 10000;
+    private final Hasher hasher;
+    private final Cache<File, FileInfo> fileHashes;
+    private final ConcurrentMap<ClassPath, ClassPathSnapshot> snapshots = new ConcurrentHashMap<ClassPath, ClassPathSnapshot>();
+
+    public HashClassPathSnapshotter() {
+        this(new DefaultHasher());
+    }
+
+    public HashClassPathSnapshotter(Hasher hasher) {
+        this(hasher, MAX_CACHED_FILE_HASHES);
+    }
+
+    HashClassPathSnapshotter(Hasher hasher, int maxCachedFileHashes) {
+        this.hasher = hasher;
+        this.fileHashes = CacheBuilder.newBuilder().maximumSize(maxCachedFileHashes).build();
+    }
 
     public ClassPathSnapshot snapshot(ClassPath classPath) {
-        List<String> visitedFilePaths = new LinkedList<String>();
+        ClassPathSnapshot snapshot = snapshots.get(classPath);
+        if (snapshot == null) {
+            snapshot = createSnapshot(classPath);
+            snapshots.put(classPath, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discards the memoized snapshots, so that the next snapshot of each class path checks its files again. The file hashes are kept.
+     */
+    public void discardMemoizedSnapshots() {
+        snapshots.clear();
+    }
+
+    private ClassPathSnapshot createSnapshot(ClassPath classPath) {
+        List<String> visitedFilePaths = new ArrayList<String>();
         Set<File> visitedDirs = new LinkedHashSet<File>();
-        byte[] combinedHash = new byte[0];
+        MessageDigest combinedHash = createDigest();
         List<File> cpFiles = classPath.getAsFiles();
-        combinedHash = hash(visitedFilePaths, visitedDirs, combinedHash, cpFiles.toArray(new File[cpFiles.size()]));
-        return new ClassPathSnapshotImpl(visitedFilePaths, combinedHash);
+        hash(visitedFilePaths, visitedDirs, combinedHash, cpFiles.toArray(new File[cpFiles.size()]));
+        return new ClassPathSnapshotImpl(visitedFilePaths, combinedHash.digest());
     }
 
-    private byte[] hash(List<String> visitedFilePaths, Set<File> visitedDirs, byte[] combinedHash, File[] toHash) {
+    private void hash(List<String> visitedFilePaths, Set<File> visitedDirs, MessageDigest combinedHash, File[] toHash) {
         for (File file : toHash) {
             file = GFileUtils.canonicalise(file);
             if (file.isDirectory()) {
                 if (visitedDirs.add(file)) {
                     //in theory, awkward symbolic links can lead to recursion problems.
                     //TODO - figure out a way to test it. I only tested it 'manually' and the feature is needed.
-                    combinedHash = hash(visitedFilePaths, visitedDirs, combinedHash, file.listFiles());
+                    hash(visitedFilePaths, visitedDirs, combinedHash, file.listFiles());
                 }
             } else if (file.isFile()) {
                 visitedFilePaths.add(file.getAbsolutePath());
-                //TODO SF Luke prefers keeping a list instead of merging arrays
-                combinedHash = Bytes.concat(combinedHash, hasher.hash(file));
+                combinedHash.update(hashOf(file));
             }
             //else an empty folder - a legit situation
         }
-        return combinedHash;
+    }
+
+    private byte[] hashOf(File file) {
+        long length = file.length();
+        long timestamp = file.lastModified();
+        FileInfo info = fileHashes.getIfPresent(file);
+        if (info != null && length == info.length && timestamp == info.timestamp) {
+            return info.hash;
+        }
+        byte[] hash = hasher.hash(file);
+        fileHashes.put(file, new FileInfo(hash, length, timestamp));
+        return hash;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static class FileInfo {
+        private final byte[] hash;
+        private final long length;
+        private final long timestamp;
+
+        private FileInfo(byte[] hash, long length, long timestamp) {
+            this.hash = hash;
+            this.length = length;
+            this.timestamp = timestamp;
+        }
     }
 
     private class ClassPathSnapshotImpl implements ClassPathSnapshot {
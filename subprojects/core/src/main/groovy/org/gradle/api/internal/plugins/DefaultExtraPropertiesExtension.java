@@ -20,14 +20,25 @@ import groovy.lang.Closure;
 import groovy.lang.GroovyObjectSupport;
 import groovy.lang.MissingPropertyException;
 import groovy.lang.ReadOnlyPropertyException;
+import org.gradle.api.Action;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class DefaultExtraPropertiesExtension extends GroovyObjectSupport implements ExtraPropertiesExtension {
 
     Map<String, Object> storage = new HashMap<String, Object>();
+    private final List<Action<? super String>> mutateActions = new ArrayList<Action<? super String>>();
+
+    /**
+     * Adds an action to execute with the name of the property before a property is set.
+     */
+    public void beforeChange(Action<? super String> action) {
+        mutateActions.add(action);
+    }
 
     public boolean has(String name) {
         return storage.containsKey(name);
@@ -42,6 +53,9 @@ public class DefaultExtraPropertiesExtension extends GroovyObjectSupport impleme
     }
 
     public void set(String name, Object value) {
+        for (Action<? super String> action : mutateActions) {
+            action.execute(name);
+        }
         storage.put(name, value);
     }
 
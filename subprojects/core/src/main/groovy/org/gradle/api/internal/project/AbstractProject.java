@@ -37,6 +37,7 @@ import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.initialization.ClassLoaderScope;
 import org.gradle.api.internal.initialization.ScriptHandlerFactory;
+import org.gradle.api.internal.plugins.DefaultExtraPropertiesExtension;
 import org.gradle.api.internal.plugins.DefaultObjectConfigurationAction;
 import org.gradle.api.internal.plugins.ExtensionContainerInternal;
 import org.gradle.api.internal.plugins.PluginManagerInternal;
@@ -50,6 +51,7 @@ import org.gradle.api.resources.ResourceHandler;
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.configuration.ScriptPluginFactory;
 import org.gradle.configuration.project.ProjectConfigurationActionContainer;
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
 import org.gradle.configuration.project.ProjectEvaluator;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.internal.Factory;
@@ -97,6 +99,8 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
 
     private ProjectEvaluator projectEvaluator;
 
+    private ProjectEvaluationCoordinator projectEvaluationCoordinator;
+
     private ScriptSource buildScriptSource;
 
     private final File projectDir;
@@ -179,6 +183,11 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
             extensibleDynamicObject.setParent(parent.getInheritedScope());
         }
         extensibleDynamicObject.addObject(taskContainer.getTasksAsDynamicObject(), ExtensibleDynamicObject.Location.AfterConvention);
+        ((DefaultExtraPropertiesExtension) extensibleDynamicObject.getDynamicProperties()).beforeChange(new Action<String>() {
+            public void execute(String propertyName) {
+                assertCanBeConfigured(String.format("set extra property '%s' of", propertyName));
+            }
+        });
 
         evaluationListener.add(gradle.getProjectEvaluationBroadcaster());
 
@@ -242,6 +251,23 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         this.projectEvaluator = projectEvaluator;
     }
 
+    private ProjectEvaluationCoordinator getProjectEvaluationCoordinator() {
+        if (projectEvaluationCoordinator == null) {
+            projectEvaluationCoordinator = services.get(ProjectEvaluationCoordinator.class);
+        }
+        return projectEvaluationCoordinator;
+    }
+
+    private void assertCanConfigure(Object object) {
+        if (object instanceof ProjectInternal) {
+            getProjectEvaluationCoordinator().assertCanConfigure((ProjectInternal) object);
+        }
+    }
+
+    private void assertCanBeConfigured(String access) {
+        getProjectEvaluationCoordinator().assertCanConfigure(this, access);
+    }
+
     @Inject
     public ScriptHandler getBuildscript() {
         // Decoration takes care of the implementation
@@ -453,6 +479,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
 
     public <T> Iterable<T> configure(Iterable<T> objects, Action<? super T> configureAction) {
         for (T object : objects) {
+            assertCanConfigure(object);
             configureAction.execute(object);
         }
         return objects;
@@ -541,7 +568,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     private Project evaluationDependsOn(DefaultProject projectToEvaluate) {
-        if (projectToEvaluate.getState().getExecuting()) {
+        if (projectToEvaluate.getState().isExecutingInCurrentThread()) {
             throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.",
                     projectToEvaluate));
         }
@@ -803,10 +830,11 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     }
 
     public Project project(String path, Closure configureClosure) {
-        return ConfigureUtil.configure(configureClosure, project(path));
+        return (Project) configure(project(path), configureClosure);
     }
 
     public Object configure(Object object, Closure configureClosure) {
+        assertCanConfigure(object);
         return ConfigureUtil.configure(configureClosure, object);
     }
 
@@ -883,6 +911,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
 
     @Override
     protected DefaultObjectConfigurationAction createObjectConfigurationAction() {
+        assertCanBeConfigured("apply a plugin or script to");
         return new DefaultObjectConfigurationAction(getFileResolver(), getScriptPluginFactory(), getScriptHandlerFactory(), getBaseClassLoaderScope(), this);
     }
 
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.tasks;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import groovy.lang.Closure;
 import org.apache.commons.lang.StringUtils;
@@ -22,6 +23,8 @@ import org.gradle.api.*;
 import org.gradle.api.internal.DynamicObject;
 import org.gradle.api.internal.NamedDomainObjectContainerConfigureDelegate;
 import org.gradle.api.internal.TaskInternal;
+import org.gradle.api.internal.collections.CollectionFilter;
+import org.gradle.api.internal.collections.FilteredSet;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.project.taskfactory.ITaskFactory;
 import org.gradle.initialization.ProjectAccessListener;
@@ -45,6 +48,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
     private final ITaskFactory taskFactory;
     private final ProjectAccessListener projectAccessListener;
     private final Set<String> placeholders = Sets.newHashSet();
+    private final Map<String, Class<? extends Task>> laterTasks = Maps.newLinkedHashMap();
     private final NamedEntityInstantiator<Task> instantiator;
 
     public DefaultTaskContainer(MutableModelNode modelNode, ModelReference<NamedEntityInstantiator<Task>> instantiatorReference, ProjectInternal project, Instantiator instantiator, ITaskFactory taskFactory, ProjectAccessListener projectAccessListener) {
@@ -68,6 +72,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         if (placeholders.remove(name)) {
             modelNode.removeLink(name);
         }
+        laterTasks.remove(name);
 
         Task existing = findByNameWithoutRules(name);
         if (existing != null) {
@@ -132,6 +137,15 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         return task;
     }
 
+    public <T extends Task> void createLater(String name, Class<T> type, Action<? super T> configuration) throws InvalidUserDataException {
+        if (findByNameWithoutRules(name) != null || modelNode.hasLink(name)) {
+            throw new InvalidUserDataException(String.format("Cannot add task '%s' as a task with that name already exists.", name));
+        }
+        addTaskCreator(name, type, configuration, "tasks.createLater(" + name + ")");
+        placeholders.add(name);
+        laterTasks.put(name, type);
+    }
+
     public <T extends Task> T replace(String name, Class<T> type) {
         return type.cast(create(GUtil.map(Task.TASK_NAME, name, Task.TASK_TYPE, type, Task.TASK_OVERWRITE, true)));
     }
@@ -208,6 +222,52 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         }
     }
 
+    @Override
+    public Iterator<Task> iterator() {
+        createLaterTasks(Task.class);
+        return super.iterator();
+    }
+
+    @Override
+    public int size() {
+        createLaterTasks(Task.class);
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        createLaterTasks(Task.class);
+        return super.isEmpty();
+    }
+
+    @Override
+    public SortedMap<String, Task> getAsMap() {
+        createLaterTasks(Task.class);
+        return super.getAsMap();
+    }
+
+    @Override
+    protected <S extends Task> Set<S> filteredStore(CollectionFilter<S> filter) {
+        return new FilteredSet<Task, S>(new CreateLaterTasksView(filter.getType()), filter);
+    }
+
+    /**
+     * Creates the tasks defined using {@link #createLater(String, Class, Action)} whose type is assignable to the given type.
+     */
+    private void createLaterTasks(Class<?> type) {
+        boolean created = true;
+        while (created && !laterTasks.isEmpty()) {
+            created = false;
+            for (Map.Entry<String, Class<? extends Task>> entry : new ArrayList<Map.Entry<String, Class<? extends Task>>>(laterTasks.entrySet())) {
+                if (type.isAssignableFrom(entry.getValue()) && laterTasks.remove(entry.getKey()) != null) {
+                    // Configuring the task may define more tasks
+                    findByName(entry.getKey());
+                    created = true;
+                }
+            }
+        }
+    }
+
     public Task findByName(String name) {
         Task task = super.findByName(name);
         if (task != null) {
@@ -232,36 +292,41 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
 
     public <T extends TaskInternal> void addPlaceholderAction(final String placeholderName, final Class<T> taskType, final Action<? super T> configure) {
         if (!modelNode.hasLink(placeholderName)) {
-            final ModelType<T> taskModelType = ModelType.of(taskType);
-            ModelPath path = MODEL_PATH.child(placeholderName);
-            modelNode.addLink(
-                    ModelCreators
-                            .of(ModelReference.of(path), new BiAction<MutableModelNode, List<ModelView<?>>>() {
-                                @Override
-                                public void execute(MutableModelNode mutableModelNode, List<ModelView<?>> inputs) {
-                                    NamedEntityInstantiator<Task> instantiator = ModelViews.getInstance(inputs.get(0), instantiatorReference);
-                                    final T task = instantiator.create(placeholderName, taskType);
-                                    configure.execute(task);
-                                    DeprecationLogger.whileDisabled(new Runnable() {
-                                        @Override
-                                        public void run() {
-                                            modelNode.getPrivateData(ModelType.of(TaskContainerInternal.class)).add(task);
-                                        }
-                                    });
-                                    mutableModelNode.setPrivateData(taskModelType, task);
-                                }
-                            })
-                            .inputs(instantiatorReference)
-                            .withProjection(new UnmanagedModelProjection<T>(taskModelType, true, true))
-                            .descriptor(new SimpleModelRuleDescriptor("tasks.addPlaceholderAction(" + placeholderName + ")"))
-                            .build()
-            );
+            addTaskCreator(placeholderName, taskType, configure, "tasks.addPlaceholderAction(" + placeholderName + ")");
         }
         if (findByNameWithoutRules(placeholderName) == null) {
             placeholders.add(placeholderName);
         }
     }
 
+    private <T extends Task> void addTaskCreator(final String placeholderName, final Class<T> taskType, final Action<? super T> configure, String descriptor) {
+        final ModelType<T> taskModelType = ModelType.of(taskType);
+        ModelPath path = MODEL_PATH.child(placeholderName);
+        modelNode.addLink(
+                ModelCreators
+                        .of(ModelReference.of(path), new BiAction<MutableModelNode, List<ModelView<?>>>() {
+                            @Override
+                            public void execute(MutableModelNode mutableModelNode, List<ModelView<?>> inputs) {
+                                laterTasks.remove(placeholderName);
+                                NamedEntityInstantiator<Task> instantiator = ModelViews.getInstance(inputs.get(0), instantiatorReference);
+                                final T task = instantiator.create(placeholderName, taskType);
+                                configure.execute(task);
+                                DeprecationLogger.whileDisabled(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        modelNode.getPrivateData(ModelType.of(TaskContainerInternal.class)).add(task);
+                                    }
+                                });
+                                mutableModelNode.setPrivateData(taskModelType, task);
+                            }
+                        })
+                        .inputs(instantiatorReference)
+                        .withProjection(new UnmanagedModelProjection<T>(taskModelType, true, true))
+                        .descriptor(new SimpleModelRuleDescriptor(descriptor))
+                        .build()
+        );
+    }
+
     public <U extends Task> NamedDomainObjectContainer<U> containerWithType(Class<U> type) {
         throw new UnsupportedOperationException();
     }
@@ -270,6 +335,34 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         return Collections.singleton(getType());
     }
 
+    /**
+     * The tasks of this container, which creates the tasks of the given type defined using {@link #createLater(String, Class, Action)} before they are queried.
+     */
+    private class CreateLaterTasksView extends AbstractSet<Task> {
+        private final Class<?> type;
+
+        public CreateLaterTasksView(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            createLaterTasks(type);
+            return getStore().iterator();
+        }
+
+        @Override
+        public int size() {
+            createLaterTasks(type);
+            return getStore().size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return getStore().contains(o);
+        }
+    }
+
     private static class TaskInstantiator implements NamedEntityInstantiator<Task> {
         private final ITaskFactory taskFactory;
 
@@ -15,11 +15,12 @@
  */
 package org.gradle.api.internal.tasks;
 
-import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.Transformer;
+import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.project.taskfactory.ITaskFactory;
 import org.gradle.api.tasks.TaskContainer;
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
 import org.gradle.initialization.ProjectAccessListener;
 import org.gradle.internal.Factory;
 import org.gradle.internal.reflect.Instantiator;
@@ -35,15 +36,18 @@ public class DefaultTaskContainerFactory implements Factory<TaskContainerInterna
     private final ModelRegistry modelRegistry;
     private final Instantiator instantiator;
     private final ITaskFactory taskFactory;
-    private Project project;
+    private ProjectInternal project;
     public ProjectAccessListener projectAccessListener;
+    private final ProjectEvaluationCoordinator coordinator;
 
-    public DefaultTaskContainerFactory(ModelRegistry modelRegistry, Instantiator instantiator, ITaskFactory taskFactory, Project project, ProjectAccessListener projectAccessListener) {
+    public DefaultTaskContainerFactory(ModelRegistry modelRegistry, Instantiator instantiator, ITaskFactory taskFactory, ProjectInternal project, ProjectAccessListener projectAccessListener,
+                                       ProjectEvaluationCoordinator coordinator) {
         this.modelRegistry = modelRegistry;
         this.instantiator = instantiator;
         this.taskFactory = taskFactory;
         this.project = project;
         this.projectAccessListener = projectAccessListener;
+        this.coordinator = coordinator;
     }
 
     ModelType<Task> taskModelType = ModelType.of(Task.class);
@@ -59,7 +63,13 @@ public class DefaultTaskContainerFactory implements Factory<TaskContainerInterna
                     @Override
                     public TaskContainerInternal transform(MutableModelNode mutableModelNode) {
                         ModelReference<NamedEntityInstantiator<Task>> instantiatorReference = BridgedCollections.instantiatorReference(TaskContainerInternal.MODEL_PATH, taskModelType);
-                        return instantiator.newInstance(DefaultTaskContainer.class, mutableModelNode, instantiatorReference, project, instantiator, taskFactory, projectAccessListener);
+                        DefaultTaskContainer tasks = instantiator.newInstance(DefaultTaskContainer.class, mutableModelNode, instantiatorReference, project, instantiator, taskFactory, projectAccessListener);
+                        tasks.beforeChange(new Runnable() {
+                            public void run() {
+                                coordinator.assertCanConfigure(project, "add or remove tasks of");
+                            }
+                        });
+                        return tasks;
                     }
                 },
                 new Task.Namer(),
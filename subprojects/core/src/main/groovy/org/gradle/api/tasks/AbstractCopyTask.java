@@ -23,11 +23,16 @@ import org.gradle.api.internal.file.FileLookup;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.file.copy.*;
 import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
+import org.gradle.api.tasks.incremental.InputFileDetails;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.nativeplatform.filesystem.FileSystem;
 import org.gradle.internal.reflect.Instantiator;
 
 import javax.inject.Inject;
+import java.io.File;
 import java.io.FilterReader;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -73,17 +78,45 @@ public abstract class AbstractCopyTask extends ConventionTask implements CopySpe
         throw new UnsupportedOperationException();
     }
 
+    @Inject
+    protected ExecutorFactory getExecutorFactory() {
+        throw new UnsupportedOperationException();
+    }
+
     @TaskAction
     protected void copy() {
+        copy(createCopyAction());
+    }
+
+    void copy(CopyAction copyAction) {
         Instantiator instantiator = getInstantiator();
         FileSystem fileSystem = getFileSystem();
 
         CopyActionExecuter copyActionExecuter = new CopyActionExecuter(instantiator, fileSystem);
-        CopyAction copyAction = createCopyAction();
         WorkResult didWork = copyActionExecuter.execute(rootSpec, copyAction);
         setDidWork(didWork.getDidWork());
     }
 
+    /**
+     * Creates an action which copies files into the given directory, copying large files concurrently.
+     */
+    FileCopyAction createFileCopyAction(File destinationDir) {
+        return new FileCopyAction(getFileLookup().getFileResolver(destinationDir), getExecutorFactory(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns the absolute paths of the source files that have been added or modified since the previous execution.
+     */
+    static Set<String> changedSources(IncrementalTaskInputs inputs) {
+        final Set<String> changedSources = new HashSet<String>();
+        inputs.outOfDate(new Action<InputFileDetails>() {
+            public void execute(InputFileDetails details) {
+                changedSources.add(details.getFile().getAbsolutePath());
+            }
+        });
+        return changedSources;
+    }
+
     /**
      * Returns the source files for this task.
      * @return The source files. Never returns null.
@@ -16,15 +16,18 @@
 
 package org.gradle.api.tasks;
 
+import org.gradle.api.Incubating;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.file.copy.CopyAction;
 import org.gradle.api.internal.file.copy.CopySpecInternal;
 import org.gradle.api.internal.file.copy.DestinationRootCopySpec;
-import org.gradle.api.internal.file.copy.FileCopyAction;
+import org.gradle.api.internal.file.copy.IncrementalCopyActionDecorator;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 import org.gradle.internal.reflect.Instantiator;
 
 import java.io.File;
+import java.util.Collections;
 
 /**
  * Copies files into a destination directory. This task can also rename and filter files as it copies. The task
@@ -70,13 +73,49 @@ import java.io.File;
 @ParallelizableTask
 public class Copy extends AbstractCopyTask {
 
+    /**
+     * Copies only the files whose source has changed since the previous execution, when the inputs of this task changed incrementally.
+     * Otherwise, copies all files. Calls {@link #beforeCopy(boolean)} first in both cases.
+     *
+     * @param inputs The changes to the inputs of this task since its previous execution.
+     * @since 2.4
+     */
+    @Incubating
+    @TaskAction
+    protected void copy(IncrementalTaskInputs inputs) {
+        if (!inputs.isIncremental()) {
+            beforeCopy(false);
+            copy();
+            return;
+        }
+        Iterable<File> previousOutputs = beforeCopy(true);
+        copy(new IncrementalCopyActionDecorator(getDestinationDir(), changedSources(inputs), previousOutputs, createCopyAction()));
+    }
+
+    /**
+     * Called before the files of this task are copied, both when all files are copied and when only the files whose source has changed are
+     * copied. Returns the files written by the previous execution that are to be removed when they are not copied again. This is used only when
+     * {@code incremental} is true.
+     *
+     * <p>Does nothing by default, and returns no files. Files copied by an earlier execution that are no longer copied are therefore left in
+     * the destination directory. Use {@link Sync} to remove them.</p>
+     *
+     * @param incremental true when only the files whose source has changed since the previous execution are copied.
+     * @return The files to remove if they are not copied again. Never returns null.
+     * @since 2.4
+     */
+    @Incubating
+    protected Iterable<File> beforeCopy(boolean incremental) {
+        return Collections.emptySet();
+    }
+
     @Override
     protected CopyAction createCopyAction() {
         File destinationDir = getDestinationDir();
         if (destinationDir == null) {
             throw new InvalidUserDataException("No copy destination directory has been specified, use 'into' to specify a target directory.");
         }
-        return new FileCopyAction(getFileLookup().getFileResolver(destinationDir));
+        return createFileCopyAction(destinationDir);
     }
 
     @Override
@@ -16,9 +16,11 @@
 
 package org.gradle.api.tasks;
 
+import org.gradle.api.Incubating;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.file.copy.*;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 import org.gradle.internal.reflect.Instantiator;
 
 import java.io.File;
@@ -28,13 +30,37 @@ import java.io.File;
  */
 public class Sync extends AbstractCopyTask {
 
+    /**
+     * Copies only the files whose source has changed since the previous execution, and removes the files copied by the previous execution
+     * that are no longer copied, when the inputs of this task changed incrementally. In this case the destination directory is not
+     * scanned for extra files, as it contains only the files copied by the previous execution. Otherwise, synchronizes all files.
+     *
+     * @param inputs The changes to the inputs of this task since its previous execution.
+     * @since 2.4
+     */
+    @Incubating
+    @TaskAction
+    protected void copy(IncrementalTaskInputs inputs) {
+        if (!inputs.isIncremental()) {
+            copy();
+            return;
+        }
+        File destinationDir = getCheckedDestinationDir();
+        copy(new IncrementalCopyActionDecorator(destinationDir, changedSources(inputs), getOutputs().getPreviousFiles(), createFileCopyAction(destinationDir)));
+    }
+
     @Override
     protected CopyAction createCopyAction() {
+        File destinationDir = getCheckedDestinationDir();
+        return new SyncCopyActionDecorator(destinationDir, createFileCopyAction(destinationDir));
+    }
+
+    private File getCheckedDestinationDir() {
         File destinationDir = getDestinationDir();
         if (destinationDir == null) {
             throw new InvalidUserDataException("No copy destination directory has been specified, use 'into' to specify a target directory.");
         }
-        return new SyncCopyActionDecorator(destinationDir, new FileCopyAction(getFileLookup().getFileResolver(destinationDir)));
+        return destinationDir;
     }
 
     @Override
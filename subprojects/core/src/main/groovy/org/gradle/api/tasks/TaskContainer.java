@@ -155,6 +155,22 @@ public interface TaskContainer extends TaskCollection<Task>, PolymorphicDomainOb
      */
     <T extends Task> T create(String name, Class<T> type, Action<? super T> configuration) throws InvalidUserDataException;
 
+    /**
+     * <p>Defines a {@link Task} with the given name and type, which is created, configured with the given action and added to this container only
+     * when it is required.</p>
+     *
+     * <p>The task is created when it is looked up by name or path, when it is selected for execution or is a dependency of a selected task,
+     * or when this container, or a collection of tasks of a type that the task matches, is iterated.</p>
+     *
+     * @param name The name of the task to be created.
+     * @param type The type of task to create.
+     * @param configuration The action to configure the task with.
+     * @throws InvalidUserDataException If a task with the given name already exists in this project.
+     * @since 2.4
+     */
+    @Incubating
+    <T extends Task> void createLater(String name, Class<T> type, Action<? super T> configuration) throws InvalidUserDataException;
+
     /**
      * <p>Creates a {@link Task} with the given name and adds it to this container, replacing any existing task with the
      * same name.</p>
@@ -50,7 +50,7 @@ public class Zip extends AbstractArchiveTask {
     @Override
     protected CopyAction createCopyAction() {
         DocumentationRegistry documentationRegistry = getServices().get(DocumentationRegistry.class);
-        return new ZipCopyAction(getArchivePath(), getCompressor(), documentationRegistry);
+        return new ZipCopyAction(getArchivePath(), getCompressor(), documentationRegistry, getExecutorFactory(), Runtime.getRuntime().availableProcessors());
     }
 
     /**
@@ -31,20 +31,36 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(LifecycleProjectEvaluator.class);
 
     private final ProjectEvaluator delegate;
+    private final ProjectEvaluationCoordinator coordinator;
 
     public LifecycleProjectEvaluator(ProjectEvaluator delegate) {
+        this(delegate, new ProjectEvaluationCoordinator());
+    }
+
+    public LifecycleProjectEvaluator(ProjectEvaluator delegate, ProjectEvaluationCoordinator coordinator) {
         this.delegate = delegate;
+        this.coordinator = coordinator;
     }
 
     public void evaluate(ProjectInternal project, ProjectStateInternal state) {
-        //TODO this is one of the places to look into thread safety when we implement parallel configuration
+        if (!coordinator.startEvaluation(project, state)) {
+            return;
+        }
+        try {
+            doEvaluate(project, state);
+        } finally {
+            coordinator.finishEvaluation(project);
+        }
+    }
+
+    private void doEvaluate(ProjectInternal project, ProjectStateInternal state) {
         if (state.getExecuted() || state.getExecuting()) {
             return;
         }
 
         ProjectEvaluationListener listener = project.getProjectEvaluationBroadcaster();
         try {
-            listener.beforeEvaluate(project);
+            notifyBeforeEvaluate(listener, project);
         } catch (Exception e) {
             addConfigurationFailure(project, state, e);
             return;
@@ -62,9 +78,21 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
         }
     }
 
-    private void notifyAfterEvaluate(ProjectEvaluationListener listener, ProjectInternal project, ProjectStateInternal state) {
+    private void notifyBeforeEvaluate(final ProjectEvaluationListener listener, final ProjectInternal project) {
+        coordinator.notifyListeners(new Runnable() {
+            public void run() {
+                listener.beforeEvaluate(project);
+            }
+        });
+    }
+
+    private void notifyAfterEvaluate(final ProjectEvaluationListener listener, final ProjectInternal project, final ProjectStateInternal state) {
         try {
-            listener.afterEvaluate(project, state);
+            coordinator.notifyListeners(new Runnable() {
+                public void run() {
+                    listener.afterEvaluate(project, state);
+                }
+            });
         } catch (Exception e) {
             if (state.hasFailure()) {
                 // Just log this failure, and pass the existing failure out in the project state
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration.project;
+
+import org.gradle.api.CircularReferenceException;
+import org.gradle.api.InvalidUserCodeException;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateInternal;
+import org.gradle.internal.UncheckedException;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coordinates the evaluation of the projects of a build, so that projects can be evaluated by multiple threads.
+ *
+ * <p>Each project is evaluated once, by a single thread. A thread that requires a project which is being evaluated by another thread, for example
+ * through {@code evaluationDependsOn()}, waits until that evaluation has finished. Waiting that would never finish, because the evaluations depend
+ * on each other, fails with a {@link CircularReferenceException}.</p>
+ *
+ * <p>While projects are configured in parallel, the evaluation of a project may only configure the project itself and its subprojects. The
+ * subprojects are not evaluated before their parent, but any other project may be evaluated at the same time. Evaluation listeners are notified
+ * by one thread at a time.</p>
+ */
+public class ProjectEvaluationCoordinator {
+    private final Object lock = new Object();
+    private final Map<ProjectInternal, Thread> evaluatingThreads = new HashMap<ProjectInternal, Thread>();
+    private final Map<Thread, ProjectInternal> awaitedProjects = new HashMap<Thread, ProjectInternal>();
+    private final ThreadLocal<LinkedList<ProjectInternal>> evaluatingProjects = new ThreadLocal<LinkedList<ProjectInternal>>() {
+        @Override
+        protected LinkedList<ProjectInternal> initialValue() {
+            return new LinkedList<ProjectInternal>();
+        }
+    };
+    private final ReentrantLock listenerLock = new ReentrantLock();
+    private volatile boolean parallel;
+
+    /**
+     * Starts the evaluation of the given project by the current thread, waiting for an evaluation in progress by another thread to finish.
+     *
+     * @return true if the current thread should evaluate the project, false if the project has been evaluated or is being evaluated by the current thread.
+     */
+    public boolean startEvaluation(ProjectInternal project, ProjectStateInternal state) {
+        Thread currentThread = Thread.currentThread();
+        while (true) {
+            int releasedListenerLocks = 0;
+            try {
+                synchronized (lock) {
+                    if (state.getExecuted()) {
+                        return false;
+                    }
+                    Thread evaluatingThread = evaluatingThreads.get(project);
+                    if (evaluatingThread == null) {
+                        evaluatingThreads.put(project, currentThread);
+                        break;
+                    }
+                    if (evaluatingThread == currentThread) {
+                        return false;
+                    }
+                    if (isWaitingFor(evaluatingThread, currentThread)) {
+                        throw new CircularReferenceException(String.format("Circular referencing during evaluation for %s.", project));
+                    }
+                    awaitedProjects.put(currentThread, project);
+                    // The awaited evaluation may need to notify listeners before it can finish
+                    releasedListenerLocks = releaseListenerLock();
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    } finally {
+                        awaitedProjects.remove(currentThread);
+                    }
+                }
+            } finally {
+                // Reacquired outside of the monitor, as threads notifying listeners may start and finish evaluations
+                acquireListenerLock(releasedListenerLocks);
+            }
+        }
+        evaluatingProjects.get().addFirst(project);
+        return true;
+    }
+
+    public void finishEvaluation(ProjectInternal project) {
+        evaluatingProjects.get().remove(project);
+        synchronized (lock) {
+            evaluatingThreads.remove(project);
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns true if the given thread, or one of the threads it waits for, waits for the target thread.
+     */
+    private boolean isWaitingFor(Thread thread, Thread target) {
+        Thread current = thread;
+        while (current != null) {
+            ProjectInternal awaitedProject = awaitedProjects.get(current);
+            if (awaitedProject == null) {
+                return false;
+            }
+            current = evaluatingThreads.get(awaitedProject);
+            if (current == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Runs the given notification of evaluation listeners. While projects are configured in parallel, only one thread at a time notifies
+     * listeners, so that listeners registered for all projects of the build need not be thread-safe.
+     */
+    public void notifyListeners(Runnable notification) {
+        if (!parallel) {
+            notification.run();
+            return;
+        }
+        listenerLock.lock();
+        try {
+            notification.run();
+        } finally {
+            listenerLock.unlock();
+        }
+    }
+
+    private int releaseListenerLock() {
+        int holdCount = listenerLock.getHoldCount();
+        for (int i = 0; i < holdCount; i++) {
+            listenerLock.unlock();
+        }
+        return holdCount;
+    }
+
+    private void acquireListenerLock(int holdCount) {
+        for (int i = 0; i < holdCount; i++) {
+            listenerLock.lock();
+        }
+    }
+
+    /**
+     * Fails when projects are configured in parallel and the project evaluated by the current thread attempts to configure a project other
+     * than itself or one of its subprojects.
+     */
+    public void assertCanConfigure(ProjectInternal target) {
+        assertCanConfigure(target, "configure");
+    }
+
+    /**
+     * Fails when projects are configured in parallel and the project evaluated by the current thread attempts to change a project other
+     * than itself or one of its subprojects.
+     *
+     * @param access describes the change, for example "apply a plugin or script to".
+     */
+    public void assertCanConfigure(ProjectInternal target, String access) {
+        if (!parallel) {
+            return;
+        }
+        ProjectInternal evaluatingProject = evaluatingProjects.get().peek();
+        if (evaluatingProject == null) {
+            return;
+        }
+        for (ProjectInternal project = target; project != null; project = project.getParent()) {
+            if (project == evaluatingProject) {
+                return;
+            }
+        }
+        throw new InvalidUserCodeException(String.format("The evaluation of %s attempted to %s %s while projects are configured in parallel. "
+                + "A project may only configure itself and its subprojects when projects are configured in parallel.", evaluatingProject, access, target));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution;
+
+import org.gradle.api.BuildCancelledException;
+import org.gradle.api.Project;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
+import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+
+import java.util.LinkedList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Configures the projects of a hierarchy concurrently. The root project is configured first, by the calling thread. Each other project is
+ * configured once its parent has been configured. Other dependencies between projects, declared with {@code evaluationDependsOn()}, are
+ * honoured by the {@link ProjectEvaluationCoordinator}.
+ *
+ * <p>No further projects are configured once the configuration of a project has failed.</p>
+ */
+public class ParallelProjectConfigurer implements ProjectConfigurer {
+    private static final Logger LOGGER = Logging.getLogger(ParallelProjectConfigurer.class);
+    private final BuildCancellationToken cancellationToken;
+    private final ExecutorFactory executorFactory;
+    private final int executorCount;
+    private final ProjectEvaluationCoordinator coordinator;
+
+    public ParallelProjectConfigurer(BuildCancellationToken cancellationToken, ExecutorFactory executorFactory, int parallelThreads, ProjectEvaluationCoordinator coordinator) {
+        this.cancellationToken = cancellationToken;
+        this.executorFactory = executorFactory;
+        this.executorCount = parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors();
+        this.coordinator = coordinator;
+    }
+
+    public void configure(ProjectInternal project) {
+        if (cancellationToken.isCancellationRequested()) {
+            throw new BuildCancelledException();
+        }
+        project.evaluate();
+    }
+
+    public void configureHierarchy(ProjectInternal project) {
+        configure(project);
+
+        ProjectQueue queue = new ProjectQueue();
+        queue.addChildren(project);
+        LOGGER.info("Configuring projects using {} parallel threads", executorCount);
+        coordinator.setParallel(true);
+        try {
+            StoppableExecutor executor = executorFactory.create("Project configurer");
+            try {
+                for (int i = 1; i < executorCount; i++) {
+                    executor.execute(new ProjectWorker(queue));
+                }
+                new ProjectWorker(queue).run();
+            } finally {
+                executor.stop();
+            }
+        } finally {
+            coordinator.setParallel(false);
+        }
+        queue.rethrowFailure();
+    }
+
+    private class ProjectWorker implements Runnable {
+        private final ProjectQueue queue;
+
+        private ProjectWorker(ProjectQueue queue) {
+            this.queue = queue;
+        }
+
+        public void run() {
+            ProjectInternal project;
+            while ((project = queue.take()) != null) {
+                try {
+                    configure(project);
+                } catch (Throwable t) {
+                    queue.failed(t);
+                    continue;
+                }
+                queue.configured(project);
+            }
+        }
+    }
+
+    private static class ProjectQueue {
+        private final Lock lock = new ReentrantLock();
+        private final Condition stateChanged = lock.newCondition();
+        private final LinkedList<ProjectInternal> ready = new LinkedList<ProjectInternal>();
+        private int running;
+        private Throwable failure;
+
+        /**
+         * Returns the next project to configure, waiting for one to become ready. Returns null when there is nothing left to configure.
+         */
+        ProjectInternal take() {
+            lock.lock();
+            try {
+                while (failure == null && ready.isEmpty() && running > 0) {
+                    try {
+                        stateChanged.await();
+                    } catch (InterruptedException e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                }
+                if (failure != null || ready.isEmpty()) {
+                    return null;
+                }
+                running++;
+                return ready.removeFirst();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void addChildren(ProjectInternal project) {
+            for (Project child : project.getChildProjects().values()) {
+                ready.add((ProjectInternal) child);
+            }
+        }
+
+        void configured(ProjectInternal project) {
+            lock.lock();
+            try {
+                running--;
+                addChildren(project);
+                stateChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void failed(Throwable t) {
+            lock.lock();
+            try {
+                running--;
+                if (failure == null) {
+                    failure = t;
+                }
+                stateChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void rethrowFailure() {
+            if (failure != null) {
+                throw UncheckedException.throwAsUncheckedException(failure);
+            }
+        }
+    }
+}
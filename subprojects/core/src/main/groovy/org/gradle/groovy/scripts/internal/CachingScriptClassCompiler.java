@@ -21,10 +21,14 @@ import org.gradle.api.Action;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.groovy.scripts.Transformer;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class CachingScriptClassCompiler implements ScriptClassCompiler {
-    private final Map<Collection<Object>, Class<?>> cachedClasses = new HashMap<Collection<Object>, Class<?>>();
+    private final ConcurrentMap<Collection<Object>, Class<?>> cachedClasses = new ConcurrentHashMap<Collection<Object>, Class<?>>();
     private final ScriptClassCompiler scriptClassCompiler;
 
     public CachingScriptClassCompiler(ScriptClassCompiler scriptClassCompiler) {
@@ -36,8 +40,12 @@ public class CachingScriptClassCompiler implements ScriptClassCompiler {
         List<Object> key = Arrays.asList(source.getClassName(), classLoader, transformer.getId(), scriptBaseClass.getName());
         Class<?> c = cachedClasses.get(key);
         if (c == null) {
+            // Scripts may be compiled by several threads when projects are configured in parallel. The first class loaded wins.
             c = scriptClassCompiler.compile(source, classLoader, transformer, scriptBaseClass, verifier);
-            cachedClasses.put(key, c);
+            Class<?> existing = cachedClasses.putIfAbsent(key, c);
+            if (existing != null) {
+                c = existing;
+            }
         }
         return c.asSubclass(scriptBaseClass);
     }
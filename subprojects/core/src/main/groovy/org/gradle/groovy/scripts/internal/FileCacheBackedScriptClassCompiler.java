@@ -35,28 +35,44 @@ import java.util.Map;
 
 /**
  * A {@link ScriptClassCompiler} which compiles scripts to a cache directory, and loads them from there.
+ *
+ * <p>Loaded classes are also kept in an {@link InMemoryScriptClassCache}, so that a script whose content has not changed since it was last
+ * loaded by this process is not loaded again, and the cache directory is not locked. Closing this compiler at the end of the build releases
+ * the classes that were not used during the build from that cache.</p>
  */
 public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler, Closeable {
     private final ScriptCompilationHandler scriptCompilationHandler;
     private ProgressLoggerFactory progressLoggerFactory;
     private final CacheRepository cacheRepository;
     private final CacheValidator validator;
+    private final InMemoryScriptClassCache inMemoryCache;
     private final CompositeStoppable caches = new CompositeStoppable();
 
-    public FileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, CacheValidator validator, ScriptCompilationHandler scriptCompilationHandler, ProgressLoggerFactory progressLoggerFactory) {
+    public FileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, CacheValidator validator, ScriptCompilationHandler scriptCompilationHandler, ProgressLoggerFactory progressLoggerFactory,
+                                              InMemoryScriptClassCache inMemoryCache) {
         this.cacheRepository = cacheRepository;
         this.validator = validator;
         this.scriptCompilationHandler = scriptCompilationHandler;
         this.progressLoggerFactory = progressLoggerFactory;
+        this.inMemoryCache = inMemoryCache;
     }
 
     @Override
     public <T extends Script> Class<? extends T> compile(ScriptSource source, ClassLoader classLoader, Transformer transformer, Class<T> scriptBaseClass, Action<? super ClassNode> verifier) {
+        String sourceHash = HashUtil.createCompactMD5(source.getResource().getText());
+        String cacheName = String.format("scripts/%s/%s/%s", source.getClassName(), scriptBaseClass.getSimpleName(), transformer.getId());
+        String inMemoryKey = String.format("%s/%s/%s", cacheName, scriptBaseClass.getName(), sourceHash);
+        if (validator.isValid()) {
+            Class<?> loadedClass = inMemoryCache.get(classLoader, inMemoryKey);
+            if (loadedClass != null) {
+                return loadedClass.asSubclass(scriptBaseClass);
+            }
+        }
+
         Map<String, Object> properties = new HashMap<String, Object>();
         properties.put("source.filename", source.getFileName());
-        properties.put("source.hash", HashUtil.createCompactMD5(source.getResource().getText()));
+        properties.put("source.hash", sourceHash);
 
-        String cacheName = String.format("scripts/%s/%s/%s", source.getClassName(), scriptBaseClass.getSimpleName(), transformer.getId());
         PersistentCache cache = cacheRepository.cache(cacheName)
                 .withProperties(properties)
                 .withValidator(validator)
@@ -69,11 +85,14 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         caches.add(cache);
 
         File classesDir = classesDir(cache);
-        return scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, scriptBaseClass);
+        Class<? extends T> scriptClass = scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, scriptBaseClass);
+        inMemoryCache.put(classLoader, inMemoryKey, scriptClass);
+        return scriptClass;
     }
 
     public void close() {
         caches.stop();
+        inMemoryCache.releaseUnusedClasses();
     }
 
     private File classesDir(PersistentCache cache) {
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.groovy.scripts.internal;
+
+import org.gradle.api.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A process wide index of loaded script classes, keyed by the parent class loader of the script and a key that includes the hash of the
+ * script content. Lets a long living process reuse the classes of unchanged scripts across builds, without opening the persistent script cache.
+ *
+ * <p>A class is held strongly while builds keep using it. A script class references its class loader, which references the parent class
+ * loader, so a class that is held strongly also keeps its parent class loader, and the entry for it, alive. To let the parent class loaders
+ * of previous builds be collected, {@link #releaseUnusedClasses()} is called at the end of each build, and releases the classes that were
+ * not used since its previous call. A released class is still reused, and held strongly again, for as long as it has not been unloaded.</p>
+ */
+public class InMemoryScriptClassCache {
+    private final Map<ClassLoader, Map<String, CachedClass>> classes = new WeakHashMap<ClassLoader, Map<String, CachedClass>>();
+
+    @Nullable
+    public synchronized Class<?> get(ClassLoader parent, String key) {
+        Map<String, CachedClass> classesForLoader = classes.get(parent);
+        if (classesForLoader == null) {
+            return null;
+        }
+        CachedClass cachedClass = classesForLoader.get(key);
+        return cachedClass == null ? null : cachedClass.use();
+    }
+
+    public synchronized void put(ClassLoader parent, String key, Class<?> scriptClass) {
+        Map<String, CachedClass> classesForLoader = classes.get(parent);
+        if (classesForLoader == null) {
+            classesForLoader = new HashMap<String, CachedClass>();
+            classes.put(parent, classesForLoader);
+        }
+        classesForLoader.put(key, new CachedClass(scriptClass));
+    }
+
+    /**
+     * Releases the strong references to the classes that have not been used since the previous call, and forgets the classes that have
+     * been unloaded.
+     */
+    public synchronized void releaseUnusedClasses() {
+        for (Iterator<Map<String, CachedClass>> loaders = classes.values().iterator(); loaders.hasNext();) {
+            Map<String, CachedClass> classesForLoader = loaders.next();
+            for (Iterator<CachedClass> iterator = classesForLoader.values().iterator(); iterator.hasNext();) {
+                if (!iterator.next().release()) {
+                    iterator.remove();
+                }
+            }
+            if (classesForLoader.isEmpty()) {
+                loaders.remove();
+            }
+        }
+    }
+
+    private static class CachedClass {
+        private final WeakReference<Class<?>> reference;
+        private Class<?> strongReference;
+        private boolean used;
+
+        CachedClass(Class<?> scriptClass) {
+            reference = new WeakReference<Class<?>>(scriptClass);
+            strongReference = scriptClass;
+            used = true;
+        }
+
+        @Nullable
+        Class<?> use() {
+            Class<?> scriptClass = reference.get();
+            strongReference = scriptClass;
+            used = scriptClass != null;
+            return scriptClass;
+        }
+
+        /**
+         * @return false when the class has been unloaded.
+         */
+        boolean release() {
+            if (!used) {
+                strongReference = null;
+            }
+            used = false;
+            return reference.get() != null;
+        }
+    }
+}
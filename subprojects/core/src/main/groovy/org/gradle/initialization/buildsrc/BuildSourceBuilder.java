@@ -36,6 +36,11 @@ import java.util.Collections;
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
 public class BuildSourceBuilder {
+    /**
+     * When set to true, the buildSrc build is skipped when its inputs have not changed since the previous build. The classpath of a buildSrc
+     * build with dynamic or changing dependencies is never reused. Other dependencies are assumed to resolve to the same files again.
+     */
+    public static final String REUSE_UNCHANGED_PROPERTY = "org.gradle.buildSrc.reuseUnchanged";
     private static final Logger LOGGER = LoggerFactory.getLogger(BuildSourceBuilder.class);
 
     private final GradleLauncherFactory gradleLauncherFactory;
@@ -75,7 +80,8 @@ public class BuildSourceBuilder {
         try {
             GradleLauncher gradleLauncher = buildGradleLauncher(startParameter);
             try {
-                return buildSrcCache.useCache("rebuild buildSrc", new BuildSrcUpdateFactory(buildSrcCache, gradleLauncher, new BuildSrcBuildListenerFactory()));
+                BuildSrcInputsHasher inputsHasher = isReuseUnchanged(startParameter) ? new BuildSrcInputsHasher(startParameter) : null;
+                return buildSrcCache.useCache("rebuild buildSrc", new BuildSrcUpdateFactory(buildSrcCache, gradleLauncher, new BuildSrcBuildListenerFactory(), inputsHasher));
             } finally {
                 gradleLauncher.stop();
             }
@@ -85,6 +91,14 @@ public class BuildSourceBuilder {
         }
     }
 
+    private boolean isReuseUnchanged(StartParameter startParameter) {
+        String value = startParameter.getSystemPropertiesArgs().get(REUSE_UNCHANGED_PROPERTY);
+        if (value == null) {
+            value = System.getProperty(REUSE_UNCHANGED_PROPERTY);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
     PersistentCache createCache(StartParameter startParameter) {
         return cacheRepository
                 .cache(new File(startParameter.getCurrentDir(), ".gradle/noVersion/buildSrc"))
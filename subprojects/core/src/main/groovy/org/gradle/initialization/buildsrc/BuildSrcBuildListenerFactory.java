@@ -17,6 +17,8 @@
 package org.gradle.initialization.buildsrc;
 
 import org.gradle.BuildAdapter;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ExternalModuleDependency;
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.component.BuildableJavaComponent;
 import org.gradle.api.internal.component.ComponentRegistry;
@@ -38,6 +40,8 @@ public class BuildSrcBuildListenerFactory {
 
     public static class Listener extends BuildAdapter implements ModelConfigurationListener {
         private Set<File> classpath;
+        private File buildDir;
+        private boolean fixedDependencies;
         private final boolean rebuild;
 
         public Listener(boolean rebuild) {
@@ -53,10 +57,47 @@ public class BuildSrcBuildListenerFactory {
             return classpath;
         }
 
+        public File getBuildDir() {
+            return buildDir;
+        }
+
+        /**
+         * Returns true when none of the external dependencies of the buildSrc project has a dynamic version or is changing, so that
+         * resolving them again would produce the same classpath.
+         */
+        public boolean hasFixedDependencies() {
+            return fixedDependencies;
+        }
+
         public void onConfigure(GradleInternal gradle) {
             BuildableJavaComponent projectInfo = gradle.getRootProject().getServices().get(ComponentRegistry.class).getMainComponent();
             gradle.getStartParameter().setTaskNames(rebuild ? projectInfo.getRebuildTasks() : projectInfo.getBuildTasks());
             classpath = projectInfo.getRuntimeClasspath().getFiles();
+            buildDir = gradle.getRootProject().getBuildDir();
+            fixedDependencies = hasFixedDependencies(gradle.getRootProject().getConfigurations());
+        }
+
+        private static boolean hasFixedDependencies(Iterable<Configuration> configurations) {
+            for (Configuration configuration : configurations) {
+                for (ExternalModuleDependency dependency : configuration.getDependencies().withType(ExternalModuleDependency.class)) {
+                    if (dependency.isChanging() || isDynamic(dependency.getVersion())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static boolean isDynamic(String version) {
+            if (version == null || version.endsWith("-SNAPSHOT") || version.startsWith("latest.")) {
+                return true;
+            }
+            for (char ch : version.toCharArray()) {
+                if (ch == '+' || ch == '[' || ch == ']' || ch == '(' || ch == ')' || ch == ',') {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.initialization.buildsrc;
+
+import org.gradle.StartParameter;
+import org.gradle.api.Nullable;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.util.GradleVersion;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Calculates a hash of the inputs of the buildSrc build: the files of the buildSrc directory, other than the build output and Gradle state
+ * directories, the init scripts, the gradle.properties file of the Gradle user home, the project and system properties and the Gradle version.
+ *
+ * <p>The content hash of a file is reused from a previous calculation when the length and last modified time of the file have not changed.</p>
+ */
+public class BuildSrcInputsHasher {
+    private final StartParameter startParameter;
+
+    public BuildSrcInputsHasher(StartParameter startParameter) {
+        this.startParameter = startParameter;
+    }
+
+    /**
+     * Calculates the hash of the inputs.
+     *
+     * @param buildDir The build directory of the buildSrc project, which is not an input. May be null when not known.
+     * @param previousFiles The files visited by a previous calculation, keyed by absolute path.
+     * @param visitedFiles Receives the files visited by this calculation, keyed by absolute path.
+     */
+    public HashValue hash(@Nullable File buildDir, Map<String, FileHash> previousFiles, Map<String, FileHash> visitedFiles) {
+        MessageDigest digest = createDigest();
+        update(digest, GradleVersion.current().getVersion());
+        File buildSrcDir = startParameter.getCurrentDir();
+        File defaultBuildDir = new File(buildSrcDir, "build");
+        File stateDir = new File(buildSrcDir, ".gradle");
+        Hasher hasher = new Hasher(digest, previousFiles, visitedFiles);
+        for (File file : sorted(buildSrcDir)) {
+            if (file.equals(defaultBuildDir) || file.equals(stateDir) || file.equals(buildDir)) {
+                continue;
+            }
+            hasher.visit(file, file.getName(), buildDir);
+        }
+        for (File initScript : startParameter.getAllInitScripts()) {
+            hasher.visit(initScript, initScript.getAbsolutePath(), null);
+        }
+        File userHomeProperties = new File(startParameter.getGradleUserHomeDir(), "gradle.properties");
+        hasher.visit(userHomeProperties, userHomeProperties.getAbsolutePath(), null);
+        updateAll(digest, startParameter.getProjectProperties());
+        updateAll(digest, startParameter.getSystemPropertiesArgs());
+        return new HashValue(digest.digest());
+    }
+
+    private static File[] sorted(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static void updateAll(MessageDigest digest, Map<String, String> properties) {
+        update(digest, String.valueOf(properties.size()));
+        for (Map.Entry<String, String> entry : new TreeMap<String, String>(properties).entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, entry.getValue());
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        try {
+            digest.update(value.getBytes("UTF-8"));
+            digest.update((byte) 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static class Hasher {
+        private final MessageDigest digest;
+        private final Map<String, FileHash> previousFiles;
+        private final Map<String, FileHash> visitedFiles;
+
+        Hasher(MessageDigest digest, Map<String, FileHash> previousFiles, Map<String, FileHash> visitedFiles) {
+            this.digest = digest;
+            this.previousFiles = previousFiles;
+            this.visitedFiles = visitedFiles;
+        }
+
+        void visit(File file, String path, @Nullable File buildDir) {
+            if (file.isDirectory()) {
+                update(digest, path + "/");
+                for (File child : sorted(file)) {
+                    if (!child.equals(buildDir)) {
+                        visit(child, path + "/" + child.getName(), buildDir);
+                    }
+                }
+            } else if (file.isFile()) {
+                update(digest, path);
+                update(digest, contentHash(file).getHash().asHexString());
+            }
+        }
+
+        private FileHash contentHash(File file) {
+            String key = file.getAbsolutePath();
+            long length = file.length();
+            long lastModified = file.lastModified();
+            FileHash fileHash = previousFiles.get(key);
+            if (fileHash == null || fileHash.getLength() != length || fileHash.getLastModified() != lastModified) {
+                fileHash = new FileHash(length, lastModified, HashUtil.createHash(file, "MD5"));
+            }
+            visitedFiles.put(key, fileHash);
+            return fileHash;
+        }
+    }
+
+    public static class FileHash {
+        private final long length;
+        private final long lastModified;
+        private final HashValue hash;
+
+        public FileHash(long length, long lastModified, HashValue hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public HashValue getHash() {
+            return hash;
+        }
+    }
+}
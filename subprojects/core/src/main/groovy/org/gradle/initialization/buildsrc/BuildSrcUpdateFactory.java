@@ -17,32 +17,61 @@
 package org.gradle.initialization.buildsrc;
 
 import org.gradle.initialization.GradleLauncher;
+import org.gradle.api.Nullable;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.cache.PersistentCache;
 import org.gradle.internal.Factory;
 import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.hash.HashValue;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class BuildSrcUpdateFactory implements Factory<DefaultClassPath> {
     private final PersistentCache cache;
     private final GradleLauncher gradleLauncher;
     private BuildSrcBuildListenerFactory listenerFactory;
+    private final BuildSrcInputsHasher inputsHasher;
     private static final Logger LOGGER = Logging.getLogger(BuildSrcUpdateFactory.class);
 
     public BuildSrcUpdateFactory(PersistentCache cache, GradleLauncher gradleLauncher, BuildSrcBuildListenerFactory listenerFactory) {
+        this(cache, gradleLauncher, listenerFactory, null);
+    }
+
+    /**
+     * @param inputsHasher Hashes the inputs of the buildSrc build. When not null, the classpath of the previous build is reused when the inputs have not changed since.
+     */
+    public BuildSrcUpdateFactory(PersistentCache cache, GradleLauncher gradleLauncher, BuildSrcBuildListenerFactory listenerFactory, @Nullable BuildSrcInputsHasher inputsHasher) {
         this.cache = cache;
         this.gradleLauncher = gradleLauncher;
         this.listenerFactory = listenerFactory;
+        this.inputsHasher = inputsHasher;
     }
 
     public DefaultClassPath create() {
         File markerFile = new File(cache.getBaseDir(), "built.bin");
         final boolean rebuild = !markerFile.exists();
+        File inputsFile = new File(cache.getBaseDir(), "inputs.bin");
+
+        PreviousBuild previousBuild = null;
+        if (!rebuild && inputsHasher != null) {
+            previousBuild = readPreviousBuild(inputsFile);
+            if (previousBuild != null) {
+                Map<String, BuildSrcInputsHasher.FileHash> files = new HashMap<String, BuildSrcInputsHasher.FileHash>();
+                HashValue inputsHash = inputsHasher.hash(previousBuild.buildDir, previousBuild.files, files);
+                if (inputsHash.equals(previousBuild.inputsHash) && exists(previousBuild.classpath)) {
+                    LOGGER.info("buildSrc inputs have not changed. Reusing the buildSrc classpath of the previous build.");
+                    return new DefaultClassPath(previousBuild.classpath);
+                }
+            }
+        }
 
         BuildSrcBuildListenerFactory.Listener listener = listenerFactory.create(rebuild);
         gradleLauncher.addListener(listener);
@@ -56,6 +85,100 @@ public class BuildSrcUpdateFactory implements Factory<DefaultClassPath> {
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        if (inputsHasher != null && listener.hasFixedDependencies()) {
+            Map<String, BuildSrcInputsHasher.FileHash> previousFiles = previousBuild != null ? previousBuild.files : Collections.<String, BuildSrcInputsHasher.FileHash>emptyMap();
+            Map<String, BuildSrcInputsHasher.FileHash> files = new HashMap<String, BuildSrcInputsHasher.FileHash>();
+            HashValue inputsHash = inputsHasher.hash(listener.getBuildDir(), previousFiles, files);
+            writePreviousBuild(inputsFile, new PreviousBuild(inputsHash, listener.getBuildDir(), files, new ArrayList<File>(classpath)));
+        } else {
+            // Dependencies with dynamic versions may resolve differently next time
+            inputsFile.delete();
+        }
         return new DefaultClassPath(classpath);
     }
+
+    private static boolean exists(List<File> classpath) {
+        for (File file : classpath) {
+            if (!file.exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the state recorded by the previous build, or null when there is none.
+     */
+    @Nullable
+    private PreviousBuild readPreviousBuild(File inputsFile) {
+        if (!inputsFile.isFile()) {
+            return null;
+        }
+        try {
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(inputsFile)));
+            try {
+                HashValue inputsHash = new HashValue(inputStream.readUTF());
+                String buildDirPath = inputStream.readUTF();
+                File buildDir = buildDirPath.length() == 0 ? null : new File(buildDirPath);
+                int fileCount = inputStream.readInt();
+                Map<String, BuildSrcInputsHasher.FileHash> files = new HashMap<String, BuildSrcInputsHasher.FileHash>(fileCount);
+                for (int i = 0; i < fileCount; i++) {
+                    String path = inputStream.readUTF();
+                    long length = inputStream.readLong();
+                    long lastModified = inputStream.readLong();
+                    files.put(path, new BuildSrcInputsHasher.FileHash(length, lastModified, new HashValue(inputStream.readUTF())));
+                }
+                int classpathCount = inputStream.readInt();
+                List<File> classpath = new ArrayList<File>(classpathCount);
+                for (int i = 0; i < classpathCount; i++) {
+                    classpath.add(new File(inputStream.readUTF()));
+                }
+                return new PreviousBuild(inputsHash, buildDir, files, classpath);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not read buildSrc inputs file {}.", inputsFile, e);
+            return null;
+        }
+    }
+
+    private void writePreviousBuild(File inputsFile, PreviousBuild previousBuild) {
+        try {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(inputsFile)));
+            try {
+                outputStream.writeUTF(previousBuild.inputsHash.asHexString());
+                outputStream.writeUTF(previousBuild.buildDir == null ? "" : previousBuild.buildDir.getAbsolutePath());
+                outputStream.writeInt(previousBuild.files.size());
+                for (Map.Entry<String, BuildSrcInputsHasher.FileHash> entry : previousBuild.files.entrySet()) {
+                    outputStream.writeUTF(entry.getKey());
+                    outputStream.writeLong(entry.getValue().getLength());
+                    outputStream.writeLong(entry.getValue().getLastModified());
+                    outputStream.writeUTF(entry.getValue().getHash().asHexString());
+                }
+                outputStream.writeInt(previousBuild.classpath.size());
+                for (File file : previousBuild.classpath) {
+                    outputStream.writeUTF(file.getAbsolutePath());
+                }
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class PreviousBuild {
+        final HashValue inputsHash;
+        final File buildDir;
+        final Map<String, BuildSrcInputsHasher.FileHash> files;
+        final List<File> classpath;
+
+        PreviousBuild(HashValue inputsHash, @Nullable File buildDir, Map<String, BuildSrcInputsHasher.FileHash> files, List<File> classpath) {
+            this.inputsHash = inputsHash;
+            this.buildDir = buildDir;
+            this.files = files;
+            this.classpath = classpath;
+        }
+    }
 }
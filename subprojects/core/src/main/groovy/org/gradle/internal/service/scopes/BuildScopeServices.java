@@ -49,6 +49,7 @@ import org.gradle.cache.internal.DefaultCacheRepository;
 import org.gradle.cache.internal.DefaultCacheScopeMapping;
 import org.gradle.configuration.*;
 import org.gradle.configuration.project.*;
+import org.gradle.execution.ParallelProjectConfigurer;
 import org.gradle.execution.ProjectConfigurer;
 import org.gradle.execution.TaskPathProjectEvaluator;
 import org.gradle.groovy.scripts.DefaultScriptCompilerFactory;
@@ -138,7 +139,7 @@ public class BuildScopeServices extends DefaultServiceRegistry {
     }
 
     protected ActorFactory createActorFactory() {
-        return new DefaultActorFactory(get(ExecutorFactory.class));
+        return new DefaultActorFactory(get(ExecutorFactory.class), true);
     }
 
     protected IGradlePropertiesLoader createGradlePropertiesLoader() {
@@ -166,7 +167,7 @@ public class BuildScopeServices extends DefaultServiceRegistry {
                 new BuildScriptProcessor(get(ScriptPluginFactory.class)),
                 new DelayedConfigurationActions()
         );
-        return new LifecycleProjectEvaluator(withActionsEvaluator);
+        return new LifecycleProjectEvaluator(withActionsEvaluator, get(ProjectEvaluationCoordinator.class));
     }
 
     protected ITaskFactory createITaskFactory() {
@@ -197,7 +198,7 @@ public class BuildScopeServices extends DefaultServiceRegistry {
 
     protected FileCacheBackedScriptClassCompiler createFileCacheBackedScriptClassCompiler(
             CacheRepository cacheRepository, EmptyScriptGenerator emptyScriptGenerator, final StartParameter startParameter,
-            ProgressLoggerFactory progressLoggerFactory, ClassLoaderCache classLoaderCache) {
+            ProgressLoggerFactory progressLoggerFactory, ClassLoaderCache classLoaderCache, InMemoryScriptClassCache inMemoryScriptClassCache) {
         CacheValidator scriptCacheInvalidator = new CacheValidator() {
             public boolean isValid() {
                 return !startParameter.isRecompileScripts();
@@ -207,7 +208,8 @@ public class BuildScopeServices extends DefaultServiceRegistry {
                 cacheRepository,
                 scriptCacheInvalidator,
                 new DefaultScriptCompilationHandler(emptyScriptGenerator, classLoaderCache),
-                progressLoggerFactory
+                progressLoggerFactory,
+                inMemoryScriptClassCache
         );
     }
 
@@ -275,7 +277,15 @@ public class BuildScopeServices extends DefaultServiceRegistry {
                 new LongIdGenerator());
     }
 
-    protected ProjectConfigurer createProjectConfigurer(BuildCancellationToken cancellationToken) {
+    protected ProjectEvaluationCoordinator createProjectEvaluationCoordinator() {
+        return new ProjectEvaluationCoordinator();
+    }
+
+    protected ProjectConfigurer createProjectConfigurer(BuildCancellationToken cancellationToken, StartParameter startParameter, ExecutorFactory executorFactory,
+                                                        ProjectEvaluationCoordinator coordinator) {
+        if (startParameter.isParallelProjectConfiguration()) {
+            return new ParallelProjectConfigurer(cancellationToken, executorFactory, startParameter.getParallelThreadCount(), coordinator);
+        }
         return new TaskPathProjectEvaluator(cancellationToken);
     }
 
@@ -25,6 +25,7 @@ import org.gradle.api.internal.classpath.DefaultPluginModuleRegistry;
 import org.gradle.api.internal.classpath.ModuleRegistry;
 import org.gradle.api.internal.classpath.PluginModuleRegistry;
 import org.gradle.api.internal.file.*;
+import org.gradle.api.internal.file.copy.BackgroundDirectoryDeleter;
 import org.gradle.api.internal.initialization.loadercache.ClassLoaderCacheFactory;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
@@ -32,6 +33,7 @@ import org.gradle.cache.internal.*;
 import org.gradle.cache.internal.locklistener.DefaultFileLockContentionHandler;
 import org.gradle.cache.internal.locklistener.FileLockContentionHandler;
 import org.gradle.cli.CommandLineConverter;
+import org.gradle.groovy.scripts.internal.InMemoryScriptClassCache;
 import org.gradle.initialization.ClassLoaderRegistry;
 import org.gradle.initialization.DefaultClassLoaderRegistry;
 import org.gradle.initialization.DefaultCommandLineConverter;
@@ -161,6 +163,10 @@ public class GlobalScopeServices {
         return new DefaultExecutorFactory();
     }
 
+    BackgroundDirectoryDeleter createBackgroundDirectoryDeleter(ExecutorFactory executorFactory) {
+        return new BackgroundDirectoryDeleter(executorFactory, Runtime.getRuntime().availableProcessors());
+    }
+
     FileLockManager createFileLockManager(ProcessEnvironment processEnvironment, FileLockContentionHandler fileLockContentionHandler) {
         return new DefaultFileLockManager(
                 new DefaultProcessMetaDataProvider(
@@ -191,6 +197,10 @@ public class GlobalScopeServices {
         return new ClassLoaderCacheFactory(environment);
     }
 
+    InMemoryScriptClassCache createInMemoryScriptClassCache() {
+        return new InMemoryScriptClassCache();
+    }
+
     ModelRuleExtractor createModelRuleInspector(ServiceRegistry services, ModelSchemaStore modelSchemaStore) {
         List<MethodModelRuleExtractor> extractors = services.getAll(MethodModelRuleExtractor.class);
         List<MethodModelRuleExtractor> coreExtractors = MethodModelRuleExtractors.coreExtractors(modelSchemaStore);
@@ -29,6 +29,7 @@ import org.gradle.api.internal.artifacts.dsl.dependencies.ProjectFinder;
 import org.gradle.api.internal.component.ComponentRegistry;
 import org.gradle.api.internal.component.DefaultSoftwareComponentContainer;
 import org.gradle.api.internal.file.*;
+import org.gradle.api.internal.file.copy.BackgroundDirectoryDeleter;
 import org.gradle.api.internal.initialization.DefaultScriptHandlerFactory;
 import org.gradle.api.internal.initialization.ScriptHandlerFactory;
 import org.gradle.api.internal.plugins.*;
@@ -40,6 +41,7 @@ import org.gradle.api.internal.tasks.DefaultTaskContainerFactory;
 import org.gradle.api.internal.tasks.TaskContainerInternal;
 import org.gradle.configuration.project.DefaultProjectConfigurationActionContainer;
 import org.gradle.configuration.project.ProjectConfigurationActionContainer;
+import org.gradle.configuration.project.ProjectEvaluationCoordinator;
 import org.gradle.initialization.ProjectAccessListener;
 import org.gradle.internal.Factory;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
@@ -94,7 +96,15 @@ public class ProjectScopeServices extends DefaultServiceRegistry {
     }
 
     protected DefaultFileOperations createFileOperations() {
-        return new DefaultFileOperations(get(FileResolver.class), project.getTasks(), get(TemporaryFileProvider.class), get(Instantiator.class), get(FileLookup.class));
+        return new DefaultFileOperations(get(FileResolver.class), project.getTasks(), get(TemporaryFileProvider.class), get(Instantiator.class), get(FileLookup.class), get(BackgroundDirectoryDeleter.class), getTrashDir());
+    }
+
+    private File getTrashDir() {
+        File projectCacheDir = project.getGradle().getStartParameter().getProjectCacheDir();
+        if (projectCacheDir == null) {
+            projectCacheDir = new File(project.getRootProject().getProjectDir(), ".gradle");
+        }
+        return new File(projectCacheDir, "trash");
     }
 
     protected TemporaryFileProvider createTemporaryFileProvider() {
@@ -123,7 +133,8 @@ public class ProjectScopeServices extends DefaultServiceRegistry {
     }
 
     protected Factory<TaskContainerInternal> createTaskContainerInternal() {
-        return new DefaultTaskContainerFactory(get(ModelRegistry.class), get(Instantiator.class), get(ITaskFactory.class), project, get(ProjectAccessListener.class));
+        return new DefaultTaskContainerFactory(get(ModelRegistry.class), get(Instantiator.class), get(ITaskFactory.class), project, get(ProjectAccessListener.class),
+                get(ProjectEvaluationCoordinator.class));
     }
 
     protected SoftwareComponentContainer createSoftwareComponentContainer() {
@@ -31,6 +31,7 @@ import java.util.Map;
 public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
     private final Class<T> type;
     private final Map<Object, Dispatch<MethodInvocation>> handlers = new LinkedHashMap<Object, Dispatch<MethodInvocation>>();
+    private final Object lock = new Object();
 
     public BroadcastDispatch(Class<T> type) {
         this.type = type;
@@ -41,16 +42,22 @@ public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
     }
 
     public void add(Dispatch<MethodInvocation> dispatch) {
-        handlers.put(dispatch, dispatch);
+        synchronized (lock) {
+            handlers.put(dispatch, dispatch);
+        }
     }
 
     public void add(T listener) {
-        handlers.put(listener, new ReflectionDispatch(listener));
+        synchronized (lock) {
+            handlers.put(listener, new ReflectionDispatch(listener));
+        }
     }
 
     public void add(String methodName, Action<?> action) {
         assertIsMethod(methodName);
-        handlers.put(action, new ActionInvocationHandler(methodName, action));
+        synchronized (lock) {
+            handlers.put(action, new ActionInvocationHandler(methodName, action));
+        }
     }
 
     private void assertIsMethod(String methodName) {
@@ -64,11 +71,15 @@ public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
     }
 
     public void remove(Object listener) {
-        handlers.remove(listener);
+        synchronized (lock) {
+            handlers.remove(listener);
+        }
     }
 
     public void removeAll() {
-        handlers.clear();
+        synchronized (lock) {
+            handlers.clear();
+        }
     }
 
     private String getErrorMessage() {
@@ -77,8 +88,12 @@ public class BroadcastDispatch<T> implements Dispatch<MethodInvocation> {
     }
 
     public void dispatch(MethodInvocation invocation) {
+        List<Dispatch<MethodInvocation>> handlers;
+        synchronized (lock) {
+            handlers = new ArrayList<Dispatch<MethodInvocation>>(this.handlers.values());
+        }
         List<Throwable> failures = new ArrayList<Throwable>();
-        for (Dispatch<MethodInvocation> handler : new ArrayList<Dispatch<MethodInvocation>>(handlers.values())) {
+        for (Dispatch<MethodInvocation> handler : handlers) {
             try {
                 handler.dispatch(invocation);
             } catch (UncheckedException e) {
@@ -21,6 +21,7 @@ import org.gradle.internal.Actions;
 import org.gradle.internal.Factory;
 import org.gradle.internal.TimeProvider;
 import org.gradle.internal.TrueTimeProvider;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
 import org.gradle.internal.service.DefaultServiceRegistry;
 import org.gradle.logging.internal.*;
 import org.gradle.logging.internal.logback.LogbackLoggingConfigurer;
@@ -110,7 +111,7 @@ public abstract class LoggingServiceRegistry extends DefaultServiceRegistry {
     protected abstract Factory<LoggingManagerInternal> createLoggingManagerFactory();
 
     protected OutputEventRenderer createOutputEventRenderer() {
-        OutputEventRenderer renderer = new OutputEventRenderer(Actions.doNothing());
+        OutputEventRenderer renderer = new OutputEventRenderer(Actions.doNothing(), new DefaultExecutorFactory());
         renderer.attachSystemOutAndErr();
         return renderer;
     }
@@ -131,7 +132,7 @@ public abstract class LoggingServiceRegistry extends DefaultServiceRegistry {
         }
 
         protected OutputEventRenderer createOutputEventRenderer() {
-            OutputEventRenderer renderer = new OutputEventRenderer(new ConsoleConfigureAction());
+            OutputEventRenderer renderer = new OutputEventRenderer(new ConsoleConfigureAction(), new DefaultExecutorFactory());
             renderer.attachSystemOutAndErr();
             return renderer;
         }
@@ -161,7 +162,7 @@ public abstract class LoggingServiceRegistry extends DefaultServiceRegistry {
         }
 
         protected OutputEventRenderer createOutputEventRenderer() {
-            return new OutputEventRenderer(Actions.doNothing());
+            return new OutputEventRenderer(Actions.doNothing(), new DefaultExecutorFactory());
         }
     }
 }
@@ -24,6 +24,9 @@ public class ConsoleBackedProgressRenderer implements OutputEventListener {
     private final ProgressOperations operations = new ProgressOperations();
     private final DefaultStatusBarFormatter statusBarFormatter;
     private Label statusBar;
+    private boolean batching;
+    private boolean statusBarChanged;
+    private ProgressOperation statusBarOperation;
 
     public ConsoleBackedProgressRenderer(OutputEventListener listener, Console console, DefaultStatusBarFormatter statusBarFormatter) {
         this.listener = listener;
@@ -52,7 +55,31 @@ public class ConsoleBackedProgressRenderer implements OutputEventListener {
         }
     }
 
+    /**
+     * Defers updates of the status bar until {@link #endBatch()} is called, so that a batch of progress events redraws the status bar once.
+     */
+    public void startBatch() {
+        batching = true;
+    }
+
+    /**
+     * Updates the status bar with the status of the most recent operation of the batch, if any.
+     */
+    public void endBatch() {
+        batching = false;
+        if (statusBarChanged) {
+            updateText(statusBarOperation);
+        }
+    }
+
     private void updateText(ProgressOperation op) {
+        if (batching) {
+            statusBarChanged = true;
+            statusBarOperation = op;
+            return;
+        }
+        statusBarChanged = false;
+        statusBarOperation = null;
         if (statusBar == null) {
             statusBar = console.getStatusBar();
         }
@@ -19,6 +19,9 @@ import net.jcip.annotations.ThreadSafe;
 import org.gradle.api.Action;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.StandardOutputListener;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.internal.nativeintegration.console.ConsoleMetaData;
 import org.gradle.internal.nativeintegration.console.FallbackConsoleMetaData;
 import org.gradle.listener.ListenerBroadcast;
@@ -26,20 +29,45 @@ import org.gradle.logging.ConsoleOutput;
 
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A {@link org.gradle.logging.internal.OutputEventListener} implementation which renders output events to various
  * destinations. This implementation is thread-safe.
+ *
+ * <p>Events are added to a queue and rendered by whichever thread holds the render lock, so that a thread which logs while another
+ * thread is rendering does not wait for the rendering to complete. The events are rendered in the order they were queued. A thread
+ * which logs while the queue is full renders the queued events itself, which slows down threads that flood the output. Events below
+ * the current log level are discarded before they are queued.</p>
+ *
+ * <p>A thread renders at most the events that were queued when it acquired the render lock, so that it does not keep rendering the
+ * events of other threads for as long as they keep logging. Events that are still queued when the thread is done are rendered by a
+ * thread of an executor, which returns once the queue is empty.</p>
+ *
+ * <p>The queued events are rendered before a listener is removed, and when this renderer is stopped.</p>
  */
 @ThreadSafe
-public class OutputEventRenderer implements OutputEventListener, LoggingConfigurer, LoggingOutputInternal {
+public class OutputEventRenderer implements OutputEventListener, LoggingConfigurer, LoggingOutputInternal, Stoppable {
     private final ListenerBroadcast<OutputEventListener> stdOutAndErrorFormatters = new ListenerBroadcast<OutputEventListener>(OutputEventListener.class);
     private final ListenerBroadcast<OutputEventListener> formatters = new ListenerBroadcast<OutputEventListener>(OutputEventListener.class);
     private final ListenerBroadcast<StandardOutputListener> stdoutListeners = new ListenerBroadcast<StandardOutputListener>(StandardOutputListener.class);
     private final ListenerBroadcast<StandardOutputListener> stderrListeners = new ListenerBroadcast<StandardOutputListener>(StandardOutputListener.class);
-    private final Object lock = new Object();
+    private static final int MAX_QUEUED_EVENTS = 1000;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<OutputEvent> queue = new ConcurrentLinkedQueue<OutputEvent>();
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+    private final AtomicBoolean renderingInBackground = new AtomicBoolean();
+    private final StoppableExecutor executor;
+    private final List<ConsoleBackedProgressRenderer> consoles = new ArrayList<ConsoleBackedProgressRenderer>();
     private final DefaultColorMap colourMap = new DefaultColorMap();
-    private LogLevel logLevel = LogLevel.LIFECYCLE;
+    private volatile LogLevel logLevel = LogLevel.LIFECYCLE;
     private final Action<? super OutputEventRenderer> consoleConfigureAction;
     private OutputStream originalStdOut;
     private OutputStream originalStdErr;
@@ -47,12 +75,13 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     private StreamBackedStandardOutputListener stdErrListener;
     private ConsoleOutput consoleOutput;
 
-    public OutputEventRenderer(Action<? super OutputEventRenderer> consoleConfigureAction) {
+    public OutputEventRenderer(Action<? super OutputEventRenderer> consoleConfigureAction, ExecutorFactory executorFactory) {
         OutputEventListener stdOutChain = onNonError(new ProgressLogEventGenerator(new StyledTextOutputBackedRenderer(new StreamingStyledTextOutput(stdoutListeners.getSource())), false));
         stdOutAndErrorFormatters.add(stdOutChain);
         OutputEventListener stdErrChain = onError(new ProgressLogEventGenerator(new StyledTextOutputBackedRenderer(new StreamingStyledTextOutput(stderrListeners.getSource())), false));
         stdOutAndErrorFormatters.add(stdErrChain);
         this.consoleConfigureAction = consoleConfigureAction;
+        this.executor = executorFactory.create("Render output events");
     }
 
     public ColorMap getColourMap() {
@@ -70,17 +99,23 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     }
 
     public void attachProcessConsole(ConsoleOutput consoleOutput) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             this.consoleOutput = consoleOutput;
             consoleConfigureAction.execute(this);
+        } finally {
+            unlock();
         }
     }
 
     public void attachAnsiConsole(OutputStream outputStream) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             OutputStreamWriter writer = new OutputStreamWriter(outputStream);
             Console console = new AnsiConsole(writer, writer, colourMap, true);
             addConsole(console, true, true, new FallbackConsoleMetaData());
+        } finally {
+            unlock();
         }
     }
 
@@ -90,24 +125,30 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     }
 
     private void addStandardOutputListener() {
-        synchronized (lock) {
+        lock.lock();
+        try {
             originalStdOut = System.out;
             if (stdOutListener != null) {
                 stdoutListeners.remove(stdOutListener);
             }
             stdOutListener = new StreamBackedStandardOutputListener((Appendable) System.out);
             addStandardOutputListener(stdOutListener);
+        } finally {
+            unlock();
         }
     }
 
     private void addStandardErrorListener() {
-        synchronized (lock) {
+        lock.lock();
+        try {
             originalStdErr = System.err;
             if(stdErrListener != null) {
                 stderrListeners.remove(stdErrListener);
             }
             stdErrListener = new StreamBackedStandardOutputListener((Appendable) System.err);
             addStandardErrorListener(stdErrListener);
+        } finally {
+            unlock();
         }
     }
 
@@ -117,48 +158,69 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     }
 
     private void removeStandardOutputListener() {
-        synchronized (lock) {
+        lock.lock();
+        try {
+            flush();
             if (stdOutListener != null) {
                 stdoutListeners.remove(stdOutListener);
                 stdOutListener = null;
             }
+        } finally {
+            unlock();
         }
     }
 
     private void removeStandardErrorListener() {
-        synchronized (lock) {
+        lock.lock();
+        try {
+            flush();
             if(stdErrListener != null) {
                 stderrListeners.remove(stdErrListener);
                 stdErrListener = null;
             }
+        } finally {
+            unlock();
         }
     }
 
     public void addOutputEventListener(OutputEventListener listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             formatters.add(listener);
+        } finally {
+            unlock();
         }
     }
 
     public void removeOutputEventListener(OutputEventListener listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
+            flush();
             formatters.remove(listener);
+        } finally {
+            unlock();
         }
     }
 
     public void removeAllOutputEventListeners() {
-        synchronized (lock) {
+        lock.lock();
+        try {
+            flush();
             formatters.removeAll();
+            consoles.clear();
+        } finally {
+            unlock();
         }
     }
 
     public OutputEventRenderer addConsole(Console console, boolean stdout, boolean stderr, ConsoleMetaData consoleMetaData) {
-        final OutputEventListener consoleChain = new ConsoleBackedProgressRenderer(
+        final ConsoleBackedProgressRenderer consoleChain = new ConsoleBackedProgressRenderer(
                 new ProgressLogEventGenerator(
                         new StyledTextOutputBackedRenderer(console.getMainArea()), true),
                 console,
                 new DefaultStatusBarFormatter(consoleMetaData));
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (stdout && stderr) {
                 formatters.add(consoleChain);
                 removeStandardOutputAndError();
@@ -169,7 +231,10 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
                 formatters.add(onError(consoleChain));
                 removeStandardErrorListener();
             }
+            consoles.add(consoleChain);
             consoleChain.onOutput(new LogLevelChangeEvent(logLevel));
+        } finally {
+            unlock();
         }
         return this;
     }
@@ -195,14 +260,20 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     }
 
     public void addStandardErrorListener(StandardOutputListener listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             stderrListeners.add(listener);
+        } finally {
+            unlock();
         }
     }
 
     public void addStandardOutputListener(StandardOutputListener listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             stdoutListeners.add(listener);
+        } finally {
+            unlock();
         }
     }
 
@@ -216,14 +287,22 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
 
 
     public void removeStandardOutputListener(StandardOutputListener listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
+            flush();
             stdoutListeners.remove(listener);
+        } finally {
+            unlock();
         }
     }
 
     public void removeStandardErrorListener(StandardOutputListener listener) {
-        synchronized (lock) {
+        lock.lock();
+        try {
+            flush();
             stderrListeners.remove(listener);
+        } finally {
+            unlock();
         }
     }
 
@@ -231,21 +310,139 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
         onOutput(new LogLevelChangeEvent(logLevel));
     }
 
+    /**
+     * Waits for the events being rendered in the background, then renders the events that are still queued.
+     */
+    public void stop() {
+        executor.stop();
+        lock.lock();
+        try {
+            flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public void onOutput(OutputEvent event) {
-        synchronized (lock) {
-            if (event.getLogLevel() != null && event.getLogLevel().compareTo(logLevel) < 0) {
-                return;
+        if (event.getLogLevel() != null && event.getLogLevel().compareTo(logLevel) < 0) {
+            return;
+        }
+        queue.add(event);
+        int queued = queuedEvents.incrementAndGet();
+        if (lock.isHeldByCurrentThread()) {
+            // Logged while rendering, the event is rendered once the current event has been rendered
+            return;
+        }
+        if (event instanceof LogLevelChangeEvent || queued > MAX_QUEUED_EVENTS) {
+            // Wait for the queue to be rendered when it is full, and apply a new log level before returning, so that later events from
+            // this thread are filtered using it
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            // Another thread is rendering and will render this event
+            return;
+        }
+        unlock();
+    }
+
+    /**
+     * Renders the events queued so far and releases the render lock. Checks the queue once more when the lock has been released, to render
+     * events queued by threads that failed to acquire the lock while the events were being rendered, and leaves any events queued after
+     * that to be rendered in the background.
+     */
+    private void unlock() {
+        if (lock.getHoldCount() > 1) {
+            lock.unlock();
+            return;
+        }
+        try {
+            renderQueuedEvents(queuedEvents.get());
+        } finally {
+            lock.unlock();
+        }
+        if (!queue.isEmpty() && lock.tryLock()) {
+            try {
+                renderQueuedEvents(queuedEvents.get());
+            } finally {
+                lock.unlock();
             }
-            if (event instanceof LogLevelChangeEvent) {
-                LogLevelChangeEvent changeEvent = (LogLevelChangeEvent) event;
-                LogLevel newLogLevel = changeEvent.getNewLogLevel();
-                if (newLogLevel == this.logLevel) {
-                    return;
+        }
+        if (!queue.isEmpty()) {
+            renderInBackground();
+        }
+    }
+
+    private void renderInBackground() {
+        if (!renderingInBackground.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(new BackgroundRender());
+        } catch (RejectedExecutionException e) {
+            // Stopped, render the events in this thread instead
+            renderingInBackground.set(false);
+            lock.lock();
+            try {
+                renderQueuedEvents(Integer.MAX_VALUE);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private class BackgroundRender implements Runnable {
+        public void run() {
+            do {
+                lock.lock();
+                try {
+                    renderQueuedEvents(Integer.MAX_VALUE);
+                } finally {
+                    lock.unlock();
+                    renderingInBackground.set(false);
                 }
-                this.logLevel = newLogLevel;
+                // Check the queue again, for events queued by threads that failed to acquire the lock after the queue was rendered
+            } while (!queue.isEmpty() && renderingInBackground.compareAndSet(false, true));
+        }
+    }
+
+    /**
+     * Renders the queued events until the queue is empty, unless this thread is already rendering events. Must be called holding the render lock.
+     */
+    private void flush() {
+        if (lock.getHoldCount() == 1) {
+            renderQueuedEvents(Integer.MAX_VALUE);
+        }
+    }
+
+    private void renderQueuedEvents(int maxEvents) {
+        for (ConsoleBackedProgressRenderer console : consoles) {
+            console.startBatch();
+        }
+        try {
+            OutputEvent event;
+            for (int i = 0; i < maxEvents && (event = queue.poll()) != null; i++) {
+                queuedEvents.decrementAndGet();
+                render(event);
+            }
+        } finally {
+            for (ConsoleBackedProgressRenderer console : consoles) {
+                console.endBatch();
+            }
+        }
+    }
+
+    private void render(OutputEvent event) {
+        if (event.getLogLevel() != null && event.getLogLevel().compareTo(logLevel) < 0) {
+            return;
+        }
+        if (event instanceof LogLevelChangeEvent) {
+            LogLevelChangeEvent changeEvent = (LogLevelChangeEvent) event;
+            LogLevel newLogLevel = changeEvent.getNewLogLevel();
+            if (newLogLevel == this.logLevel) {
+                return;
             }
-            stdOutAndErrorFormatters.getSource().onOutput(event);
-            formatters.getSource().onOutput(event);
+            this.logLevel = newLogLevel;
         }
+        stdOutAndErrorFormatters.getSource().onOutput(event);
+        formatters.getSource().onOutput(event);
     }
 }
@@ -41,6 +41,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.gradle.api.internal.AbstractClassGeneratorTestGroovy.BeanWithGroovyBoolean;
 import static org.gradle.util.Matchers.isEmpty;
@@ -106,6 +109,32 @@ public class AsmBackedClassGeneratorTest {
         assertSame(generator.generate(Bean.class), generator.generate(Bean.class));
     }
 
+    @Test
+    public void sharesGeneratedSubclassBetweenGeneratorInstances() {
+        assertSame(generator.generate(Bean.class), new AsmBackedClassGenerator().generate(Bean.class));
+    }
+
+    @Test
+    public void generatesSubclassOnceWhenRequestedConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Class<?>>> results = new ArrayList<Future<Class<?>>>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(new Callable<Class<?>>() {
+                    public Class<?> call() {
+                        return new AsmBackedClassGenerator().generate(ConcurrentlyGeneratedBean.class);
+                    }
+                }));
+            }
+            Class<?> generatedClass = results.get(0).get();
+            for (Future<Class<?>> result : results) {
+                assertSame(generatedClass, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void doesNotDecorateAlreadyDecoratedClass() {
         Class<? extends Bean> generatedClass = generator.generate(Bean.class);
@@ -851,6 +880,18 @@ public class AsmBackedClassGeneratorTest {
         }
     }
 
+    public static class ConcurrentlyGeneratedBean {
+        private String prop;
+
+        public String getProp() {
+            return prop;
+        }
+
+        public void setProp(String prop) {
+            this.prop = prop;
+        }
+    }
+
     public static class ParentBean {
         Object value;
 
@@ -645,6 +645,23 @@ public class ExtensibleDynamicObjectTest {
         assertThat(inherited.getProperties().get("parentProperty"), equalTo((Object) "value"));
     }
 
+    @Test
+    public void inheritedParentPropertiesTrackChanges() {
+        Bean parent = new Bean();
+        parent.defineProperty("parentProperty", "value");
+        Bean bean = new Bean();
+
+        DynamicObject inherited = bean.getInheritable();
+        assertFalse(inherited.hasProperty("parentProperty"));
+
+        bean.setParent(parent.getAsDynamicObject());
+        assertTrue(inherited.hasProperty("parentProperty"));
+        assertThat(inherited.getProperty("parentProperty"), equalTo((Object) "value"));
+
+        bean.setParent(new Bean().getAsDynamicObject());
+        assertFalse(inherited.hasProperty("parentProperty"));
+    }
+
     @Test
     public void otherPropertiesAreNotInherited() {
         Bean bean = new Bean();
@@ -17,6 +17,11 @@ package org.gradle.api.internal.changedetection.state
 
 import org.gradle.api.file.FileCollection
 import org.gradle.api.file.FileTree
+import org.gradle.api.file.FileVisitDetails
+import org.gradle.api.file.FileVisitor
+import org.gradle.api.internal.file.archive.ZipFileTree
+import org.gradle.api.internal.file.collections.FileTreeAdapter
+import org.gradle.cache.PersistentIndexedCache
 import org.gradle.internal.hash.HashUtil
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -342,10 +347,73 @@ public class DefaultFileCollectionSnapshotterTest extends Specification {
         0 * _
     }
 
+    def snapshotsTheEntriesOfAZipWithoutExtractingThem() {
+        given:
+        def entryHashes = [:]
+        def snapshotter = snapshotterWithArchiveCache(entryHashes)
+        TestFile zip = zip()
+        TestFile expandDir = tmpDir.file('expanded')
+        FileTree tree = new FileTreeAdapter(new ZipFileTree(zip, expandDir, null))
+
+        when:
+        FileCollectionSnapshot snapshot = snapshotter.snapshot(tree)
+
+        then:
+        snapshot.files.files as Set == [expandDir.file('a.txt'), expandDir.file('dir/b.txt')] as Set
+        snapshot.snapshot.findSnapshot(expandDir.file('a.txt')).hash == HashUtil.createHash(tmpDir.file('contents/a.txt'), "MD5").asByteArray()
+        !expandDir.exists()
+        entryHashes.size() == 1
+    }
+
+    def reusesTheEntryHashesOfAnUnchangedZip() {
+        given:
+        def entryHashes = [:]
+        def snapshotter = snapshotterWithArchiveCache(entryHashes)
+        TestFile zip = zip()
+        TestFile expandDir = tmpDir.file('expanded')
+        FileTree tree = new FileTreeAdapter(new ZipFileTree(zip, expandDir, null))
+        snapshotter.snapshot(tree)
+        def cached = [1, 2, 3] as byte[]
+        entryHashes.values().first()['a.txt'] = cached
+
+        when:
+        FileCollectionSnapshot snapshot = snapshotter.snapshot(tree)
+
+        then:
+        snapshot.snapshot.findSnapshot(expandDir.file('a.txt')).hash == cached
+    }
+
+    private DefaultFileCollectionSnapshotter snapshotterWithArchiveCache(Map<String, Map<String, byte[]>> entryHashes) {
+        def cache = Stub(PersistentIndexedCache) {
+            get(_) >> { String key -> entryHashes[key] }
+            put(_, _) >> { String key, Map<String, byte[]> value -> entryHashes[key] = value }
+        }
+        def cacheAccess = Stub(TaskArtifactStateCacheAccess) {
+            createCache("archiveEntryHashes", String, _) >> cache
+            useCache(_, _) >> { String name, Runnable action -> action.run() }
+        }
+        return new DefaultFileCollectionSnapshotter(fileSnapshotter, cacheAccess)
+    }
+
+    private TestFile zip() {
+        TestFile contents = tmpDir.createDir('contents')
+        contents.file('a.txt').text = 'a'
+        contents.file('dir/b.txt').text = 'b'
+        TestFile zip = tmpDir.file('archive.zip')
+        contents.zipTo(zip)
+        return zip
+    }
+
     private FileCollection files(File... files) {
         FileTree collection = Mock(FileTree.class)
         _ * collection.asFileTree >> collection
         _ * collection.getFiles() >> files
+        _ * collection.visit(_ as FileVisitor) >> { FileVisitor visitor ->
+            files.each { file ->
+                visitor.visitFile(Stub(FileVisitDetails) { getFile() >> file })
+            }
+            return collection
+        }
         return collection
     }
     
@@ -133,4 +133,25 @@ class InMemoryTaskArtifactCacheTest extends Specification {
         0 * target._
     }
 
+
+    def "caps the total number of archive entries cached"() {
+        given:
+        def cache = cacheFactory.decorate("path/archiveEntryHashes.bin", "archiveEntryHashes", target)
+        def entries = (1..100000).collectEntries { [it as String, new byte[0]] }
+
+        when:
+        cache.put("archive1", entries)
+        cache.put("archive2", entries)
+
+        then:
+        2 * target.put(_, _)
+
+        when:
+        cache.get("archive2")
+        cache.get("archive1")
+
+        then:
+        1 * target.get("archive1") >> entries
+        0 * target._
+    }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive
+
+import org.apache.tools.zip.Zip64RequiredException
+import org.apache.tools.zip.ZipOutputStream
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.zip.CRC32
+import java.util.zip.ZipFile
+import java.util.zip.ZipInputStream
+
+class PrecompressedZipWriterTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    TestFile zipFile
+
+    def setup() {
+        zipFile = tmpDir.testDirectory.file("test.zip")
+    }
+
+    @Unroll
+    def "writes compressed entries with method #method"() {
+        when:
+        def writer = new PrecompressedZipWriter(zipFile, false)
+        writer.write(PrecompressedZipWriter.compress("dir/", 1000L, 040755, ZipOutputStream.STORED, new ByteArrayInputStream(new byte[0])))
+        writer.write(PrecompressedZipWriter.compress("dir/file1", 1000L, 0100644, method, new ByteArrayInputStream("contents of file1".bytes)))
+        writer.close()
+
+        then:
+        def zip = new ZipFile(zipFile)
+        zip.entries().collect { it.name } == ["dir/", "dir/file1"]
+        zip.getInputStream(zip.getEntry("dir/file1")).text == "contents of file1"
+        readStreamed(zipFile) == ["dir/": "", "dir/file1": "contents of file1"]
+
+        cleanup:
+        zip?.close()
+
+        where:
+        method << [ZipOutputStream.STORED, ZipOutputStream.DEFLATED]
+    }
+
+    @Unroll
+    def "fills in the local header of a streamed entry larger than the buffered size with method #method and zip64 #zip64"() {
+        def content = largeContent(3 * 1024 * 1024)
+        def crc = new CRC32()
+        crc.update(content)
+
+        when:
+        def writer = new PrecompressedZipWriter(zipFile, zip64)
+        writer.write(PrecompressedZipWriter.compress("small", 1000L, 0100644, method, new ByteArrayInputStream("small".bytes)))
+        writer.write("large", 1000L, 0100644, method, new ByteArrayInputStream(content))
+        writer.write(PrecompressedZipWriter.compress("after", 1000L, 0100644, method, new ByteArrayInputStream("after".bytes)))
+        writer.close()
+
+        then:
+        def zip = new ZipFile(zipFile)
+        def entry = zip.getEntry("large")
+        entry.size == content.length
+        entry.crc == crc.value
+        zip.getInputStream(entry).bytes == content
+        zip.getInputStream(zip.getEntry("after")).text == "after"
+
+        and:
+        def header = localHeader(zipFile, entry.name)
+        header.getInt(14) == (int) crc.value
+        if (zip64) {
+            assert header.getInt(18) == -1
+            assert header.getInt(22) == -1
+            assert header.getShort(30 + entry.name.length()) == 1
+            assert header.getLong(34 + entry.name.length()) == content.length
+            assert header.getLong(42 + entry.name.length()) == entry.compressedSize
+        } else {
+            assert header.getInt(18) == entry.compressedSize
+            assert header.getInt(22) == content.length
+            assert header.getShort(28) == 0
+        }
+
+        and:
+        def streamed = new ZipInputStream(new FileInputStream(zipFile))
+        streamed.nextEntry.name == "small"
+        streamed.nextEntry.name == "large"
+        readEntry(streamed) == content
+        streamed.nextEntry.name == "after"
+
+        cleanup:
+        zip?.close()
+        streamed?.close()
+
+        where:
+        method                   | zip64
+        ZipOutputStream.STORED   | false
+        ZipOutputStream.STORED   | true
+        ZipOutputStream.DEFLATED | false
+        ZipOutputStream.DEFLATED | true
+    }
+
+    def "writes ZIP64 central directory when there are too many entries and zip64 is enabled"() {
+        def count = 70000
+
+        when:
+        def writer = new PrecompressedZipWriter(zipFile, true)
+        count.times {
+            writer.write(PrecompressedZipWriter.compress("file" + it, 1000L, 0100644, ZipOutputStream.STORED, new ByteArrayInputStream(it.toString().bytes)))
+        }
+        writer.close()
+
+        then:
+        def zip = new ZipFile(zipFile)
+        zip.size() == count
+        zip.getInputStream(zip.getEntry("file69999")).text == "69999"
+
+        cleanup:
+        zip?.close()
+    }
+
+    def "fails when there are too many entries and zip64 is not enabled"() {
+        def writer = new PrecompressedZipWriter(zipFile, false)
+        0xFFFF.times {
+            writer.write(PrecompressedZipWriter.compress("file" + it, 1000L, 0100644, ZipOutputStream.STORED, new ByteArrayInputStream(new byte[0])))
+        }
+
+        when:
+        writer.close()
+
+        then:
+        def e = thrown(Zip64RequiredException)
+        e.message == "the archive exceeds the limits of the zip format in '$zipFile'."
+    }
+
+    private static byte[] largeContent(int size) {
+        def content = new byte[size]
+        new Random(1).nextBytes(content)
+        // Make part of the content compressible
+        Arrays.fill(content, 0, size.intdiv(2), (byte) 'a')
+        content
+    }
+
+    private static Map<String, String> readStreamed(File zipFile) {
+        def result = [:]
+        def stream = new ZipInputStream(new FileInputStream(zipFile))
+        try {
+            def entry
+            while ((entry = stream.nextEntry) != null) {
+                result[entry.name] = new String(readEntry(stream))
+            }
+        } finally {
+            stream.close()
+        }
+        result
+    }
+
+    private static byte[] readEntry(ZipInputStream stream) {
+        // Reads the current entry without closing the stream
+        def content = new ByteArrayOutputStream()
+        def buffer = new byte[8192]
+        int nread
+        while ((nread = stream.read(buffer)) >= 0) {
+            content.write(buffer, 0, nread)
+        }
+        content.toByteArray()
+    }
+
+    private static ByteBuffer localHeader(File zipFile, String name) {
+        def bytes = zipFile.bytes
+        def offset = findLocalHeaderOffset(bytes, name)
+        ByteBuffer.wrap(bytes, offset, bytes.length - offset).slice().order(ByteOrder.LITTLE_ENDIAN)
+    }
+
+    private static int findLocalHeaderOffset(byte[] bytes, String name) {
+        def buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)
+        int offset = 0
+        while (buffer.getInt(offset) == 0x04034b50) {
+            def nameLength = buffer.getShort(offset + 26) & 0xFFFF
+            def extraLength = buffer.getShort(offset + 28) & 0xFFFF
+            def entryName = new String(bytes, offset + 30, nameLength, "UTF-8")
+            if (entryName == name) {
+                return offset
+            }
+            def compressedSize = buffer.getInt(offset + 18) & 0xFFFFFFFFL
+            if (compressedSize == 0xFFFFFFFFL) {
+                compressedSize = buffer.getLong(offset + 30 + nameLength + 12)
+            }
+            offset += 30 + nameLength + extraLength + (int) compressedSize
+        }
+        throw new IllegalArgumentException("No local header for $name")
+    }
+}
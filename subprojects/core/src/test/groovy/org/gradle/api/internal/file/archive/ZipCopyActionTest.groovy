@@ -25,12 +25,15 @@ import org.gradle.api.internal.file.copy.CopyActionProcessingStream
 import org.gradle.api.internal.file.copy.DefaultZipCompressor
 import org.gradle.api.internal.file.copy.FileCopyDetailsInternal
 import org.gradle.api.tasks.bundling.Zip
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import org.junit.Test
 import spock.lang.Specification
 
+import java.util.zip.ZipFile
+
 import static org.gradle.api.file.FileVisitorUtil.assertVisitsPermissions
 import static org.gradle.api.internal.file.copy.CopyActionExecuterUtil.visit
 import static org.hamcrest.Matchers.equalTo
@@ -147,6 +150,47 @@ class ZipCopyActionTest extends Specification {
         e.cause.is(failure)
     }
 
+    void createsZipFileConcurrently() {
+        given:
+        def executorFactory = new DefaultExecutorFactory()
+        visitor = new ZipCopyAction(zipFile, new DefaultZipCompressor(false, ZipOutputStream.DEFLATED), new DocumentationRegistry(), executorFactory, 4)
+
+        when:
+        zip(dir("dir"), file("dir/file1"), file("file2"), file("file3"))
+        executorFactory.stop()
+
+        then:
+        new ZipFile(zipFile).entries().collect { it.name } == ["dir/", "dir/file1", "file2", "file3"]
+
+        when:
+        TestFile expandDir = tmpDir.getTestDirectory().file("expanded")
+        zipFile.unzipTo(expandDir)
+
+        then:
+        expandDir.file("dir/file1").assertContents(equalTo("contents of dir/file1"))
+        expandDir.file("file3").assertContents(equalTo("contents of file3"))
+        assertVisitsPermissions(new ZipFileTree(zipFile, null, TestFiles.fileSystem()), [dir: 2, file1: 1, file2: 1, file3: 1])
+    }
+
+    void wrapsFailureToAddElementConcurrently() {
+        given:
+        def executorFactory = new DefaultExecutorFactory()
+        visitor = new ZipCopyAction(zipFile, new DefaultZipCompressor(false, ZipOutputStream.DEFLATED), new DocumentationRegistry(), executorFactory, 4)
+        Throwable failure = new RuntimeException("broken")
+        def brokenFile = brokenFile("dir/file1", failure)
+
+        when:
+        zip(brokenFile)
+
+        then:
+        def e = thrown(Exception)
+        e.message == String.format("Could not add $brokenFile to ZIP '%s'.", zipFile)
+        e.cause.is(failure)
+
+        cleanup:
+        executorFactory.stop()
+    }
+
     private void zip(final FileCopyDetailsInternal... files) {
         visitor.execute(new CopyActionProcessingStream() {
             public void process(CopyActionProcessingStreamAction action) {
@@ -166,6 +210,7 @@ class ZipCopyActionTest extends Specification {
         mock.copyTo(_ as OutputStream) >> { OutputStream out ->
             out << "contents of $path"
         }
+        mock.open() >> { new ByteArrayInputStream("contents of $path".bytes) }
         mock
     }
 
@@ -188,6 +233,10 @@ class ZipCopyActionTest extends Specification {
             failure.fillInStackTrace()
             throw failure
         }
+        mock.open() >> {
+            failure.fillInStackTrace()
+            throw failure
+        }
         mock
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.file.copy
+
+import org.gradle.api.GradleException
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Requires
+import org.gradle.util.TestPrecondition
+import org.junit.Rule
+import spock.lang.Specification
+
+class BackgroundDirectoryDeleterTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def executorFactory = new DefaultExecutorFactory()
+    def deleter = new BackgroundDirectoryDeleter(executorFactory, 4)
+    def trashDir = tmpDir.file("root/.gradle/trash")
+
+    def cleanup() {
+        deleter.stop()
+        executorFactory.stop()
+    }
+
+    def "moves directory into the trash and deletes it in the background"() {
+        def dir = tmpDir.createDir("root/parent/build")
+        dir.file("a/b/c/file1").createFile()
+        dir.file("a/file2").createFile()
+        dir.file("d/e/file3").createFile()
+        dir.file("file4").createFile()
+
+        when:
+        def moved = deleter.delete(dir, trashDir)
+
+        then:
+        moved
+        dir.assertDoesNotExist()
+        dir.parentFile.list() as List == []
+
+        when:
+        deleter.awaitCompletion()
+
+        then:
+        trashDir.list() as List == []
+    }
+
+    def "deletes anything left behind in the trash by an earlier deletion"() {
+        def leftover = trashDir.createDir("build.1234")
+        leftover.file("sub/file").createFile()
+        def leftoverFile = trashDir.file("other.1234").createFile()
+        def dir = tmpDir.createDir("root/build")
+
+        when:
+        deleter.delete(dir, trashDir)
+        deleter.awaitCompletion()
+
+        then:
+        leftover.assertDoesNotExist()
+        leftoverFile.assertDoesNotExist()
+        trashDir.list() as List == []
+    }
+
+    def "does not move directory that contains the trash"() {
+        def dir = tmpDir.createDir("root")
+
+        when:
+        def moved = deleter.delete(dir, trashDir)
+
+        then:
+        !moved
+        dir.assertIsDir()
+    }
+
+    def "does not move directory once stopped"() {
+        def dir = tmpDir.createDir("root/build")
+
+        given:
+        deleter.stop()
+
+        when:
+        def moved = deleter.delete(dir, trashDir)
+
+        then:
+        !moved
+        dir.assertIsDir()
+    }
+
+    @Requires(TestPrecondition.FILE_PERMISSIONS)
+    def "reports directories that could not be completely deleted"() {
+        def dir = tmpDir.createDir("root/build")
+        def subdir = dir.createDir("sub")
+        subdir.file("file").createFile()
+        subdir.setWritable(false)
+
+        when:
+        deleter.delete(dir, trashDir)
+        deleter.awaitCompletion()
+
+        then:
+        GradleException e = thrown()
+        e.message.startsWith("Unable to delete directory")
+        e.message.contains(dir.absolutePath)
+
+        when:
+        deleter.awaitCompletion()
+
+        then:
+        noExceptionThrown()
+
+        cleanup:
+        trashDir.listFiles().each { new File(it, "sub").setWritable(true) }
+    }
+}
@@ -16,6 +16,7 @@
 package org.gradle.api.internal.file.copy
 
 import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
@@ -88,4 +89,50 @@ class DeleteActionImplTest extends Specification {
         then:
         !didWork
     }
+
+    def deletesDirectoryInTheBackgroundWhenBackgroundDeleterIsProvided() {
+        def executorFactory = new DefaultExecutorFactory()
+        def backgroundDeleter = new BackgroundDirectoryDeleter(executorFactory, 2)
+        def trashDir = tmpDir.getTestDirectory().file(".gradle/trash")
+        def delete = new DeleteActionImpl(TestFiles.resolver(tmpDir.testDirectory), backgroundDeleter, trashDir)
+        TestFile file = tmpDir.getTestDirectory().file("somefile").createFile();
+        TestFile dir = tmpDir.getTestDirectory().file("somedir").createDir();
+        dir.file("sub/child").createFile();
+
+        when:
+        boolean didWork = delete.delete(file, dir);
+
+        then:
+        file.assertDoesNotExist();
+        dir.assertDoesNotExist();
+        didWork
+
+        when:
+        backgroundDeleter.stop()
+        executorFactory.stop()
+
+        then:
+        tmpDir.testDirectory.list() as List == [".gradle"]
+        trashDir.list() as List == []
+    }
+
+    def deletesDirectorySynchronouslyWhenItCannotBeMovedToTheTrash() {
+        def executorFactory = new DefaultExecutorFactory()
+        def backgroundDeleter = new BackgroundDirectoryDeleter(executorFactory, 2)
+        def trashDir = tmpDir.getTestDirectory().file("notADirectory").createFile().file("trash")
+        def delete = new DeleteActionImpl(TestFiles.resolver(tmpDir.testDirectory), backgroundDeleter, trashDir)
+        TestFile dir = tmpDir.getTestDirectory().file("somedir").createDir();
+        dir.file("sub/child").createFile();
+
+        when:
+        boolean didWork = delete.delete(dir);
+
+        then:
+        dir.assertDoesNotExist();
+        didWork
+
+        cleanup:
+        backgroundDeleter.stop()
+        executorFactory.stop()
+    }
 }
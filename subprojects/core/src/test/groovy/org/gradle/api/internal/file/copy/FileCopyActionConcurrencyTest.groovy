@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy
+
+import org.gradle.api.file.DuplicatesStrategy
+import org.gradle.api.file.RelativePath
+import org.gradle.api.internal.file.CopyActionProcessingStreamAction
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.tasks.WorkResult
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.reflect.DirectInstantiator
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.WorkspaceTest
+
+class FileCopyActionConcurrencyTest extends WorkspaceTest {
+    def executorFactory = new DefaultExecutorFactory()
+    def resolver = TestFiles.resolver(testDirectory)
+    def copySpec = new DefaultCopySpec(resolver, new DirectInstantiator())
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "copies large files concurrently and filtered files in order"() {
+        given:
+        20.times { largeFile("src/dir$it/file${it}.bin", it) }
+        file("src/filtered.txt").text = "content"
+        copySpec.from "src"
+        copySpec.filesMatching("*.txt") { it.filter { String line -> line.toUpperCase() } }
+
+        when:
+        def result = copy()
+
+        then:
+        result.didWork
+        20.times { file("dest/dir$it/file${it}.bin").assertIsCopyOf(file("src/dir$it/file${it}.bin")) }
+        file("dest/filtered.txt").text.trim() == "CONTENT"
+    }
+
+    def "writes duplicate targets in the order they are visited"() {
+        given:
+        largeFile("src1/file.bin", 1)
+        TestFile last = largeFile("src2/file.bin", 2)
+        copySpec.duplicatesStrategy = DuplicatesStrategy.INCLUDE
+        copySpec.from "src1"
+        copySpec.from "src2"
+
+        when:
+        copy()
+
+        then:
+        file("dest/file.bin").assertIsCopyOf(last)
+    }
+
+    def "rethrows the failure of a concurrent copy and copies no more files"() {
+        given:
+        def failure = new RuntimeException("broken")
+        def failingFile = Stub(FileCopyDetailsInternal) {
+            getRelativePath() >> RelativePath.parse(true, "file.bin")
+            isUnfilteredFile() >> true
+            getSize() >> FileCopyAction.PARALLEL_COPY_MIN_SIZE
+            copyTo(_ as File) >> { throw failure }
+        }
+        def duplicateFile = Mock(FileCopyDetailsInternal) {
+            getRelativePath() >> RelativePath.parse(true, "file.bin")
+        }
+        def stream = new CopyActionProcessingStream() {
+            void process(CopyActionProcessingStreamAction action) {
+                action.processFile(failingFile)
+                action.processFile(duplicateFile)
+            }
+        }
+
+        when:
+        new FileCopyAction(TestFiles.resolver(file("dest")), executorFactory, 4).execute(stream)
+
+        then:
+        RuntimeException e = thrown()
+        e.is(failure)
+        0 * duplicateFile.copyTo(_)
+    }
+
+    def "keeps the failure of the visit when a concurrent copy has also failed"() {
+        given:
+        def visitFailure = new RuntimeException("visit failed")
+        def failingFile = Stub(FileCopyDetailsInternal) {
+            getRelativePath() >> RelativePath.parse(true, "file.bin")
+            isUnfilteredFile() >> true
+            getSize() >> FileCopyAction.PARALLEL_COPY_MIN_SIZE
+            copyTo(_ as File) >> { throw new RuntimeException("broken") }
+        }
+        def stream = new CopyActionProcessingStream() {
+            void process(CopyActionProcessingStreamAction action) {
+                action.processFile(failingFile)
+                throw visitFailure
+            }
+        }
+
+        when:
+        new FileCopyAction(TestFiles.resolver(file("dest")), executorFactory, 4).execute(stream)
+
+        then:
+        RuntimeException e = thrown()
+        e.is(visitFailure)
+    }
+
+    private TestFile largeFile(String path, int seed) {
+        TestFile file = file(path)
+        file.parentFile.mkdirs()
+        byte[] content = new byte[(int) FileCopyAction.PARALLEL_COPY_MIN_SIZE * 2]
+        new Random(seed).nextBytes(content)
+        file.bytes = content
+        return file
+    }
+
+    private WorkResult copy() {
+        def destinationDir = file("dest")
+        def action = new FileCopyAction(TestFiles.resolver(destinationDir), executorFactory, 4)
+        return new CopyActionExecuter(new DirectInstantiator(), TestFiles.fileSystem()).execute(copySpec, action)
+    }
+}
@@ -16,6 +16,7 @@
 package org.gradle.api.internal.file.copy;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.tools.ant.filters.ReplaceTokens;
 import org.gradle.util.TestUtil;
 import org.gradle.util.WrapUtil;
 import org.junit.Test;
@@ -24,6 +25,8 @@ import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.gradle.util.WrapUtil.*;
 import static org.hamcrest.Matchers.*;
@@ -71,6 +74,33 @@ public class FilterChainTest {
         assertThat(IOUtils.toString(transformedReader), equalTo("[1][2][3]"));
     }
 
+    @Test
+    public void replacesAntReplaceTokensFilterWithTokenReplacingReader() throws IOException {
+        filterChain.add(ReplaceTokens.class, toMap("tokens", toMap("prop", "value")));
+        Reader transformedReader = filterChain.transform(new StringReader("[@prop@][@other@]"));
+        assertThat(transformedReader, instanceOf(TokenReplacingReader.class));
+        assertThat(IOUtils.toString(transformedReader), equalTo("[value][@other@]"));
+    }
+
+    @Test
+    public void replacesAntReplaceTokensFilterWithCustomTokens() throws IOException {
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("tokens", toMap("prop", "value"));
+        properties.put("beginToken", "$");
+        properties.put("endToken", "%");
+        filterChain.add(ReplaceTokens.class, properties);
+        Reader transformedReader = filterChain.transform(new StringReader("[@prop@][$prop%]"));
+        assertThat(transformedReader, instanceOf(TokenReplacingReader.class));
+        assertThat(IOUtils.toString(transformedReader), equalTo("[@prop@][value]"));
+    }
+
+    @Test
+    public void usesAntReplaceTokensFilterWhenTokensAreNotSupported() {
+        filterChain.add(ReplaceTokens.class, WrapUtil.<String, Object>toMap("beginToken", "<<"));
+        Reader transformedReader = filterChain.transform(originalReader);
+        assertThat(transformedReader, instanceOf(ReplaceTokens.class));
+    }
+
     public static class TestFilterReader extends FilterReader {
         String property;
 
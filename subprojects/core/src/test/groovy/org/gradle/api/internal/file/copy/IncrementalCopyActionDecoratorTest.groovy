@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy
+
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.tasks.WorkResult
+import org.gradle.internal.reflect.DirectInstantiator
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.WorkspaceTest
+
+class IncrementalCopyActionDecoratorTest extends WorkspaceTest {
+    def resolver = TestFiles.resolver(testDirectory)
+    def copySpec = new DefaultCopySpec(resolver, new DirectInstantiator())
+
+    def "copies only changed sources and missing targets"() {
+        given:
+        TestFile changed = file("src/changed.txt").createFile()
+        file("src/unchanged.txt").text = "new content"
+        file("src/missing.txt").createFile()
+        file("dest/changed.txt").text = "old content"
+        file("dest/unchanged.txt").text = "old content"
+        copySpec.from "src"
+
+        when:
+        def result = copy([changed], [])
+
+        then:
+        result.didWork
+        file("dest").assertHasDescendants("changed.txt", "unchanged.txt", "missing.txt")
+        file("dest/changed.txt").assertIsCopyOf(changed)
+        file("dest/unchanged.txt").text == "old content"
+    }
+
+    def "removes previous outputs that are no longer copied"() {
+        given:
+        file("src/kept.txt").createFile()
+        TestFile kept = file("dest/kept.txt").createFile()
+        TestFile removed = file("dest/removed/removed.txt").createFile()
+        copySpec.from "src"
+
+        when:
+        def result = copy([], [kept, removed])
+
+        then:
+        result.didWork
+        file("dest").assertHasDescendants("kept.txt")
+        file("dest/removed").assertDoesNotExist()
+    }
+
+    def "copies unchanged sources to their new target when renamed"() {
+        given:
+        file("src/file.txt").createFile()
+        TestFile previous = file("dest/file.txt").createFile()
+        copySpec.from "src"
+        copySpec.rename "file.txt", "renamed.txt"
+
+        when:
+        def result = copy([], [previous])
+
+        then:
+        result.didWork
+        file("dest").assertHasDescendants("renamed.txt")
+    }
+
+    def "does no work when nothing has changed"() {
+        given:
+        file("src/file.txt").createFile()
+        TestFile previous = file("dest/file.txt").createFile()
+        copySpec.from "src"
+
+        when:
+        def result = copy([], [previous])
+
+        then:
+        !result.didWork
+        file("dest").assertHasDescendants("file.txt")
+    }
+
+    private WorkResult copy(List<File> changedSources, List<File> previousOutputs) {
+        def destinationDir = file("dest")
+        def action = new IncrementalCopyActionDecorator(destinationDir, changedSources*.absolutePath as Set, previousOutputs, new FileCopyAction(TestFiles.resolver(destinationDir)))
+        return new CopyActionExecuter(new DirectInstantiator(), TestFiles.fileSystem()).execute(copySpec, action)
+    }
+}
@@ -77,6 +77,14 @@ class LineFilterTest {
         assertThat(filter.text, equalTo(lines("1 - one", "2 - two", "3 - three")))
     }
 
+    @Test void testLinesLongerThanTheBuffer() {
+        def longLine = "x" * 20000
+        def input = new StringReader("${longLine}\r\n${longLine}")
+        def filter = new LineFilter(input, { it.length() as String })
+
+        assertThat(filter.text, equalTo(lines("20000", "20000")))
+    }
+
     private String lines(String ... lines) {
         (lines as List).join(SystemProperties.lineSeparator)
     }
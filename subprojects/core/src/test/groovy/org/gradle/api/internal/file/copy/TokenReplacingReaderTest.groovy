@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.file.copy
+package org.gradle.api.internal.file.copy
+
+import spock.lang.Specification
+
+class TokenReplacingReaderTest extends Specification {
+    def tokens = [name: 'value', other: 'other value', empty: '', nested: '@name@']
+
+    def "replaces tokens with their values"() {
+        expect:
+        filter("a @name@ b @other@@empty@ c") == "a value b other value c"
+    }
+
+    def "leaves unknown and unterminated tokens unchanged"() {
+        expect:
+        filter("@unknown@ @@ @name") == "@unknown@ @@ @name"
+    }
+
+    def "end token of an unknown token can begin another token"() {
+        expect:
+        filter("@unknown@name@") == "@unknownvalue"
+    }
+
+    def "does not replace tokens in values"() {
+        expect:
+        filter("@nested@") == "@name@"
+    }
+
+    def "can use different begin and end tokens"() {
+        expect:
+        new TokenReplacingReader(new StringReader("[@name@] [name] [[name]"), tokens, '[' as char, ']' as char).text == "[@name@] value [value"
+    }
+
+    def "replaces tokens in input larger than the buffer"() {
+        def prefix = "x" * 10000
+        def longToken = "y" * 20000
+
+        expect:
+        filter("${prefix}@name@${prefix}@${longToken}@") == "${prefix}value${prefix}@${longToken}@"
+    }
+
+    def "can read one character at a time"() {
+        def reader = new TokenReplacingReader(new StringReader("a@name@"), tokens, '@' as char, '@' as char)
+        def result = new StringBuilder()
+        int ch
+        while ((ch = reader.read()) >= 0) {
+            result.append((char) ch)
+        }
+
+        expect:
+        result.toString() == "avalue"
+    }
+
+    private String filter(String text) {
+        return new TokenReplacingReader(new StringReader(text), tokens, '@' as char, '@' as char).text
+    }
+}
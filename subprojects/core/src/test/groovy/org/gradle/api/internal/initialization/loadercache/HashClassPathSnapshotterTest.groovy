@@ -16,6 +16,8 @@
 
 package org.gradle.api.internal.initialization.loadercache
 
+import org.gradle.api.internal.hash.DefaultHasher
+import org.gradle.api.internal.hash.Hasher
 import org.gradle.internal.classpath.DefaultClassPath
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
@@ -31,6 +33,7 @@ class HashClassPathSnapshotterTest extends Specification {
         def file = temp.file("a.txt")
 
         file << "a"; def a = snapshotter.snapshot(new DefaultClassPath(file))
+        snapshotter.discardMemoizedSnapshots()
         file << "b"; def b = snapshotter.snapshot(new DefaultClassPath(file))
 
         expect:
@@ -109,4 +112,59 @@ class HashClassPathSnapshotterTest extends Specification {
         then:
         s1 == s2
     }
-}
\ No newline at end of file
+
+    def "memoizes snapshots until discarded"() {
+        def file = temp.file("a.txt") << "a"
+        def classPath = new DefaultClassPath(file)
+
+        when:
+        def a = snapshotter.snapshot(classPath)
+        file << "b"
+        def b = snapshotter.snapshot(classPath)
+        snapshotter.discardMemoizedSnapshots()
+        def c = snapshotter.snapshot(classPath)
+
+        then:
+        a.is(b)
+        a != c
+    }
+
+    def "reuses file hashes of unchanged files"() {
+        def hasher = Mock(Hasher)
+        def delegate = new DefaultHasher()
+        def snapshotter = new HashClassPathSnapshotter(hasher)
+        def fa = temp.file("a.txt") << "a"
+        def fb = temp.file("b.txt") << "b"
+
+        when:
+        def a = snapshotter.snapshot(new DefaultClassPath(fa, fb))
+        snapshotter.discardMemoizedSnapshots()
+        fb << "changed"
+        def b = snapshotter.snapshot(new DefaultClassPath(fa, fb))
+
+        then:
+        1 * hasher.hash(fa) >> { File f -> delegate.hash(f) }
+        2 * hasher.hash(fb) >> { File f -> delegate.hash(f) }
+        0 * hasher._
+        a != b
+    }
+
+    def "discards the least recently used file hashes"() {
+        def hasher = Mock(Hasher)
+        def delegate = new DefaultHasher()
+        def snapshotter = new HashClassPathSnapshotter(hasher, 1)
+        def fa = temp.file("a.txt") << "a"
+        def fb = temp.file("b.txt") << "b"
+
+        when:
+        snapshotter.snapshot(new DefaultClassPath(fa))
+        snapshotter.snapshot(new DefaultClassPath(fb))
+        snapshotter.discardMemoizedSnapshots()
+        snapshotter.snapshot(new DefaultClassPath(fa))
+
+        then:
+        2 * hasher.hash(fa) >> { File f -> delegate.hash(f) }
+        1 * hasher.hash(fb) >> { File f -> delegate.hash(f) }
+        0 * hasher._
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.plugins
 
+import org.gradle.api.Action
 import org.gradle.api.plugins.ExtraPropertiesExtensionTest
 
 public class DefaultExtraPropertiesExtensionTest extends ExtraPropertiesExtensionTest<DefaultExtraPropertiesExtension> {
@@ -24,4 +25,32 @@ public class DefaultExtraPropertiesExtensionTest extends ExtraPropertiesExtensio
         new DefaultExtraPropertiesExtension()
     }
 
+    def "notifies actions before a property is set"() {
+        def action = Mock(Action)
+        extension.beforeChange(action)
+
+        when:
+        extension.foo = "bar"
+
+        then:
+        1 * action.execute("foo")
+
+        when:
+        extension.set("baz", 1)
+
+        then:
+        1 * action.execute("baz")
+    }
+
+    def "property is not set when an action fails"() {
+        extension.beforeChange({ throw new IllegalStateException() } as Action)
+
+        when:
+        extension.foo = "bar"
+
+        then:
+        thrown(IllegalStateException)
+        !extension.has("foo")
+    }
+
 }
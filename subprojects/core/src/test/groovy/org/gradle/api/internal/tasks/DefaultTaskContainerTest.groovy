@@ -22,6 +22,7 @@ import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.internal.project.taskfactory.ITaskFactory
 import org.gradle.api.tasks.TaskDependency
 import org.gradle.initialization.ProjectAccessListener
+import org.gradle.configuration.project.ProjectEvaluationCoordinator
 import org.gradle.internal.reflect.DirectInstantiator
 import org.gradle.model.internal.registry.DefaultModelRegistry
 import org.gradle.util.GUtil
@@ -38,7 +39,7 @@ public class DefaultTaskContainerTest extends Specification {
     }
     private taskCount = 1;
     private accessListener = Mock(ProjectAccessListener)
-    private container = new DefaultTaskContainerFactory(modelRegistry, new DirectInstantiator(), taskFactory, project, accessListener).create()
+    private container = new DefaultTaskContainerFactory(modelRegistry, new DirectInstantiator(), taskFactory, project, accessListener, new ProjectEvaluationCoordinator()).create()
 
     void "creates by Map"() {
         def options = singletonMap("option", "value")
@@ -346,6 +347,91 @@ public class DefaultTaskContainerTest extends Specification {
         container.names == ['task1', 'task2'] as SortedSet
     }
 
+    void "creates task defined to be created later when it is looked up"() {
+        given:
+        def action = Mock(Action)
+        def task = task("task", DefaultTask)
+
+        when:
+        container.createLater("task", DefaultTask, action)
+
+        then:
+        0 * taskFactory._
+        0 * action._
+        container.names == ['task'] as SortedSet
+
+        when:
+        def result = container.getByName("task")
+
+        then:
+        result == task
+        1 * taskFactory.create("task", DefaultTask) >> task
+        1 * action.execute(task)
+    }
+
+    void "creates tasks defined to be created later when the container is iterated"() {
+        given:
+        def a = task("a", DefaultTask)
+        def b = task("b", CustomTask)
+        container.createLater("a", DefaultTask, Mock(Action))
+        container.createLater("b", CustomTask, Mock(Action))
+
+        when:
+        def tasks = container.toList()
+
+        then:
+        tasks == [a, b]
+        1 * taskFactory.create("a", DefaultTask) >> a
+        1 * taskFactory.create("b", CustomTask) >> b
+    }
+
+    void "creates only tasks of matching type when a collection of tasks of a type is iterated"() {
+        given:
+        def b = task("b", CustomTask)
+        container.createLater("a", DefaultTask, Mock(Action))
+        container.createLater("b", CustomTask, Mock(Action))
+
+        when:
+        def tasks = container.withType(CustomTask).toList()
+
+        then:
+        tasks == [b]
+        1 * taskFactory.create("b", CustomTask) >> b
+        0 * taskFactory.create("a", _)
+    }
+
+    void "configures tasks created later with actions for all tasks"() {
+        given:
+        def action = Mock(Action)
+        def task = task("task", CustomTask)
+        container.withType(CustomTask).all(action)
+
+        when:
+        container.createLater("task", CustomTask, Mock(Action))
+
+        then:
+        0 * action._
+
+        when:
+        container.getByName("task")
+
+        then:
+        1 * taskFactory.create("task", CustomTask) >> task
+        1 * action.execute(task)
+    }
+
+    void "cannot define task to be created later when a task with that name already exists"() {
+        given:
+        addTask("task")
+
+        when:
+        container.createLater("task", DefaultTask, Mock(Action))
+
+        then:
+        InvalidUserDataException e = thrown()
+        e.message == "Cannot add task 'task' as a task with that name already exists."
+    }
+
     void "maybeCreate creates new task"() {
         given:
         def options = singletonMap(Task.TASK_NAME, "task")
@@ -45,6 +45,12 @@ class AbstractCopyTaskTest extends WorkspaceTest {
         task.mainSpec.buildRootResolver().source.files == task.project.fileTree(testDirectory).files
     }
 
+    def "copy task subclasses are not incremental"() {
+        expect:
+        task.actions.size() == 1
+        !task.outputs.hasOutputs
+    }
+
     static class TestCopyTask extends AbstractCopyTask {
         CopyAction copyAction
 
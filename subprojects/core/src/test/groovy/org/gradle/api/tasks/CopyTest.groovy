@@ -16,6 +16,9 @@
 
 package org.gradle.api.tasks
 
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs
+import org.junit.Test
+
 class CopyTest extends AbstractCopyTaskContractTest {
 
     private Copy task = project.tasks.create(TEST_TASK_NAME, Copy)
@@ -23,4 +26,30 @@ class CopyTest extends AbstractCopyTaskContractTest {
     AbstractCopyTask getTask() {
         return task
     }
+
+    @Test
+    void "calls beforeCopy() on full and incremental executions"() {
+        RecordingCopy recordingCopy = project.tasks.create('recordingCopy', RecordingCopy)
+        recordingCopy.from createDir(project.projectDir, 'src')
+        recordingCopy.into createDir(project.projectDir, 'build')
+
+        recordingCopy.copy(inputs(false))
+        recordingCopy.copy(inputs(true))
+
+        assert recordingCopy.calls == [false, true]
+    }
+
+    private static IncrementalTaskInputs inputs(boolean incremental) {
+        return [isIncremental: { incremental }, outOfDate: {}, removed: {}] as IncrementalTaskInputs
+    }
+
+    static class RecordingCopy extends Copy {
+        final List<Boolean> calls = []
+
+        @Override
+        protected Iterable<File> beforeCopy(boolean incremental) {
+            calls << incremental
+            return super.beforeCopy(incremental)
+        }
+    }
 }
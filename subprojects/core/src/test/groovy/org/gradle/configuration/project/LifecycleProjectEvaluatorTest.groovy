@@ -54,6 +54,36 @@ public class LifecycleProjectEvaluatorTest extends Specification {
         0 * delegate._
     }
 
+    void "nothing happens if coordinator does not start evaluation"() {
+        def coordinator = Mock(ProjectEvaluationCoordinator)
+        def evaluator = new LifecycleProjectEvaluator(delegate, coordinator)
+
+        when:
+        evaluator.evaluate(project, state)
+
+        then:
+        1 * coordinator.startEvaluation(project, state) >> false
+        0 * delegate._
+        0 * coordinator.finishEvaluation(_)
+    }
+
+    void "finishes evaluation with coordinator after evaluating the project"() {
+        def coordinator = Mock(ProjectEvaluationCoordinator)
+        def evaluator = new LifecycleProjectEvaluator(delegate, coordinator)
+
+        when:
+        evaluator.evaluate(project, state)
+
+        then:
+        1 * coordinator.startEvaluation(project, state) >> true
+
+        then:
+        1 * delegate.evaluate(project, state)
+
+        then:
+        1 * coordinator.finishEvaluation(project)
+    }
+
     void "evaluates the project firing all necessary listeners and updating the state"() {
         when:
         evaluator.evaluate(project, state)
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration.project
+
+import org.gradle.api.CircularReferenceException
+import org.gradle.api.InvalidUserCodeException
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+class ProjectEvaluationCoordinatorTest extends ConcurrentSpec {
+    def coordinator = new ProjectEvaluationCoordinator()
+    def root = Stub(ProjectInternal) { toString() >> "root project" }
+    def child = Stub(ProjectInternal) { getParent() >> root; toString() >> "child" }
+    def other = Stub(ProjectInternal) { getParent() >> root; toString() >> "other" }
+
+    def "does not evaluate a project that has been evaluated"() {
+        def state = new ProjectStateInternal()
+        state.executed()
+
+        expect:
+        !coordinator.startEvaluation(root, state)
+    }
+
+    def "does not evaluate a project again from the thread evaluating it"() {
+        def state = new ProjectStateInternal()
+
+        expect:
+        coordinator.startEvaluation(root, state)
+        !coordinator.startEvaluation(root, state)
+    }
+
+    def "waits for the evaluation of a project by another thread"() {
+        def state = new ProjectStateInternal()
+
+        when:
+        async {
+            start {
+                coordinator.startEvaluation(root, state)
+                instant.started
+                thread.block()
+                state.executed()
+                instant.finished
+                coordinator.finishEvaluation(root)
+            }
+            start {
+                thread.blockUntil.started
+                assert !coordinator.startEvaluation(root, state)
+                instant.awaited
+            }
+        }
+
+        then:
+        instant.awaited > instant.finished
+    }
+
+    def "fails when evaluations in different threads depend on each other"() {
+        def rootState = new ProjectStateInternal()
+        def childState = new ProjectStateInternal()
+
+        when:
+        async {
+            start {
+                coordinator.startEvaluation(root, rootState)
+                instant.rootStarted
+                thread.blockUntil.childStarted
+                try {
+                    coordinator.startEvaluation(child, childState)
+                } finally {
+                    coordinator.finishEvaluation(root)
+                }
+            }
+            start {
+                coordinator.startEvaluation(child, childState)
+                instant.childStarted
+                thread.blockUntil.rootStarted
+                try {
+                    coordinator.startEvaluation(root, rootState)
+                } finally {
+                    coordinator.finishEvaluation(child)
+                }
+            }
+        }
+
+        then:
+        CircularReferenceException e = thrown()
+    }
+
+    def "project can configure itself and its subprojects while projects are configured in parallel"() {
+        given:
+        coordinator.parallel = true
+        coordinator.startEvaluation(root, new ProjectStateInternal())
+
+        when:
+        coordinator.assertCanConfigure(root)
+        coordinator.assertCanConfigure(child)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "project cannot configure another project while projects are configured in parallel"() {
+        given:
+        coordinator.parallel = true
+        coordinator.startEvaluation(child, new ProjectStateInternal())
+
+        when:
+        coordinator.assertCanConfigure(other)
+
+        then:
+        InvalidUserCodeException e = thrown()
+        e.message.startsWith("The evaluation of child attempted to configure other while projects are configured in parallel.")
+
+        when:
+        coordinator.assertCanConfigure(root)
+
+        then:
+        thrown(InvalidUserCodeException)
+    }
+
+    def "project can configure another project when projects are not configured in parallel"() {
+        given:
+        coordinator.startEvaluation(child, new ProjectStateInternal())
+
+        when:
+        coordinator.assertCanConfigure(other)
+        coordinator.assertCanConfigure(root)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "project evaluated on behalf of another project can only configure itself"() {
+        given:
+        coordinator.parallel = true
+        coordinator.startEvaluation(root, new ProjectStateInternal())
+        coordinator.startEvaluation(other, new ProjectStateInternal())
+
+        when:
+        coordinator.assertCanConfigure(child)
+
+        then:
+        thrown(InvalidUserCodeException)
+
+        when:
+        coordinator.finishEvaluation(other)
+        coordinator.assertCanConfigure(child)
+
+        then:
+        noExceptionThrown()
+    }
+
+    def "reports the attempted access to another project"() {
+        given:
+        coordinator.parallel = true
+        coordinator.startEvaluation(child, new ProjectStateInternal())
+
+        when:
+        coordinator.assertCanConfigure(other, "add or remove tasks of")
+
+        then:
+        InvalidUserCodeException e = thrown()
+        e.message.startsWith("The evaluation of child attempted to add or remove tasks of other while projects are configured in parallel.")
+    }
+
+    def "notifies listeners from one thread at a time while projects are configured in parallel"() {
+        given:
+        coordinator.parallel = true
+
+        when:
+        async {
+            start {
+                coordinator.notifyListeners {
+                    instant.firstStarted
+                    thread.block()
+                    instant.firstFinished
+                }
+            }
+            start {
+                thread.blockUntil.firstStarted
+                coordinator.notifyListeners {
+                    instant.secondStarted
+                }
+            }
+        }
+
+        then:
+        instant.secondStarted > instant.firstFinished
+    }
+
+    def "thread waiting for an evaluation lets other threads notify listeners"() {
+        def state = new ProjectStateInternal()
+
+        given:
+        coordinator.parallel = true
+
+        when:
+        async {
+            start {
+                coordinator.startEvaluation(root, state)
+                instant.evaluationStarted
+                thread.blockUntil.waiting
+                coordinator.notifyListeners {
+                    instant.notified
+                }
+                state.executed()
+                coordinator.finishEvaluation(root)
+            }
+            start {
+                thread.blockUntil.evaluationStarted
+                coordinator.notifyListeners {
+                    instant.waiting
+                    assert !coordinator.startEvaluation(root, state)
+                }
+            }
+        }
+
+        then:
+        instant.notified > instant.waiting
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution
+
+import org.gradle.api.BuildCancelledException
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.configuration.project.ProjectEvaluationCoordinator
+import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class ParallelProjectConfigurerTest extends Specification {
+    def cancellationToken = Mock(BuildCancellationToken)
+    def coordinator = Mock(ProjectEvaluationCoordinator)
+    def executorFactory = new DefaultExecutorFactory()
+    def configurer = new ParallelProjectConfigurer(cancellationToken, executorFactory, 4, coordinator)
+    def evaluated = new CopyOnWriteArrayList<String>()
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "configures each project after its parent"() {
+        def root = project("root")
+        def a = project("a", root)
+        def b = project("b", root)
+        def a1 = project("a1", a)
+        def a2 = project("a2", a)
+        def b1 = project("b1", b)
+
+        when:
+        configurer.configureHierarchy(root)
+
+        then:
+        evaluated.size() == 6
+        evaluated.first() == "root"
+        evaluated.indexOf("a") < evaluated.indexOf("a1")
+        evaluated.indexOf("a") < evaluated.indexOf("a2")
+        evaluated.indexOf("b") < evaluated.indexOf("b1")
+    }
+
+    def "configures projects in parallel mode"() {
+        def root = project("root")
+        project("a", root)
+
+        when:
+        configurer.configureHierarchy(root)
+
+        then:
+        1 * coordinator.setParallel(true)
+
+        then:
+        1 * coordinator.setParallel(false)
+    }
+
+    def "stops configuring projects and rethrows the failure when a project fails"() {
+        def failure = new RuntimeException()
+        def root = project("root")
+        def a = project("a", root) { throw failure }
+        project("a1", a)
+
+        when:
+        configurer.configureHierarchy(root)
+
+        then:
+        RuntimeException e = thrown()
+        e.is(failure)
+        !evaluated.contains("a1")
+        1 * coordinator.setParallel(false)
+    }
+
+    def "project hierarchy configuration fails when cancelled"() {
+        def root = project("root")
+        def a = project("a", root)
+        project("a1", a)
+
+        given:
+        cancellationToken.cancellationRequested >>> [false, false, true]
+
+        when:
+        configurer.configureHierarchy(root)
+
+        then:
+        thrown(BuildCancelledException)
+        evaluated == ["root", "a"]
+    }
+
+    private ProjectInternal project(String name, ProjectInternal parent = null, Closure action = {}) {
+        def children = new TreeMap<String, ProjectInternal>()
+        def project = Mock(ProjectInternal)
+        project.childProjects >> children
+        project.evaluate() >> {
+            evaluated << name
+            action.call()
+            return project
+        }
+        if (parent != null) {
+            parent.childProjects.put(name, project)
+        }
+        return project
+    }
+}
@@ -38,7 +38,8 @@ class FileCacheBackedScriptClassCompilerTest extends Specification {
     final ClassLoader classLoader = Mock()
     final Transformer transformer = Mock()
     final File cacheDir = new File("base-dir")
-    final FileCacheBackedScriptClassCompiler compiler = new FileCacheBackedScriptClassCompiler(cacheRepository, validator, scriptCompilationHandler, Stub(ProgressLoggerFactory))
+    final InMemoryScriptClassCache inMemoryCache = new InMemoryScriptClassCache()
+    final FileCacheBackedScriptClassCompiler compiler = new FileCacheBackedScriptClassCompiler(cacheRepository, validator, scriptCompilationHandler, Stub(ProgressLoggerFactory), inMemoryCache)
     final Action verifier = Stub()
 
     def setup() {
@@ -52,6 +53,46 @@ class FileCacheBackedScriptClassCompilerTest extends Specification {
         _ * validator.isValid() >> true
     }
 
+    def "reuses loaded classes without opening the cache when the script content has not changed"() {
+        given:
+        cacheRepository.cache("scripts/ScriptClassName/Script/TransformerId") >> cacheBuilder
+        cacheBuilder.withProperties(!null) >> cacheBuilder
+        cacheBuilder.withInitializer(!null) >> cacheBuilder
+        cacheBuilder.withDisplayName(!null) >> cacheBuilder
+        cacheBuilder.withValidator(!null) >> cacheBuilder
+        cacheBuilder.open() >> cache
+        scriptCompilationHandler.loadFromDir(source, classLoader, new File(cacheDir, "classes"), Script) >> Script
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+
+        when:
+        def result = compiler.compile(source, classLoader, transformer, Script, verifier)
+
+        then:
+        result == Script
+        0 * cacheRepository._
+        0 * cacheBuilder._
+        0 * scriptCompilationHandler._
+    }
+
+    def "loads classes from cache directory when the parent class loader has changed"() {
+        given:
+        cacheRepository.cache("scripts/ScriptClassName/Script/TransformerId") >> cacheBuilder
+        cacheBuilder.withProperties(!null) >> cacheBuilder
+        cacheBuilder.withInitializer(!null) >> cacheBuilder
+        cacheBuilder.withDisplayName(!null) >> cacheBuilder
+        cacheBuilder.withValidator(!null) >> cacheBuilder
+        cacheBuilder.open() >> cache
+        def otherClassLoader = Mock(ClassLoader)
+
+        when:
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+        compiler.compile(source, otherClassLoader, transformer, Script, verifier)
+
+        then:
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, new File(cacheDir, "classes"), Script) >> Script
+        1 * scriptCompilationHandler.loadFromDir(source, otherClassLoader, new File(cacheDir, "classes"), Script) >> Script
+    }
+
     def "loads classes from cache directory"() {
         when:
         def result = compiler.compile(source, classLoader, transformer, Script, verifier)
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.groovy.scripts.internal
+
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.lang.ref.WeakReference
+
+class InMemoryScriptClassCacheTest extends Specification {
+    def cache = new InMemoryScriptClassCache()
+
+    def "returns class for parent class loader and key"() {
+        def parent = new GroovyClassLoader(getClass().classLoader)
+        def scriptClass = new GroovyClassLoader(parent).parseClass("class Script1 {}")
+
+        when:
+        cache.put(parent, "key", scriptClass)
+
+        then:
+        cache.get(parent, "key") == scriptClass
+        cache.get(parent, "other") == null
+        cache.get(new GroovyClassLoader(getClass().classLoader), "key") == null
+    }
+
+    def "holds classes that are used strongly"() {
+        def parent = new GroovyClassLoader(getClass().classLoader)
+        def scriptLoader = new GroovyClassLoader(parent)
+        cache.put(parent, "key", scriptLoader.parseClass("class Script1 {}"))
+        def classReference = new WeakReference<Class<?>>(cache.get(parent, "key"))
+
+        when:
+        scriptLoader.clearCache()
+        scriptLoader = null
+        cache.releaseUnusedClasses()
+        System.gc()
+
+        then:
+        classReference.get() != null
+        cache.get(parent, "key") == classReference.get()
+
+        when:
+        cache.releaseUnusedClasses()
+        System.gc()
+
+        then:
+        cache.get(parent, "key") == classReference.get()
+    }
+
+    def "releases the parent class loader of a class that is no longer used"() {
+        def parent = new GroovyClassLoader(getClass().classLoader)
+        def scriptLoader = new GroovyClassLoader(parent)
+        cache.put(parent, "key", scriptLoader.parseClass("class Script1 {}"))
+        def parentReference = new WeakReference<ClassLoader>(parent)
+
+        when:
+        scriptLoader.clearCache()
+        scriptLoader = null
+        parent = null
+        cache.releaseUnusedClasses()
+        cache.releaseUnusedClasses()
+
+        then:
+        new PollingConditions(timeout: 10).eventually {
+            System.gc()
+            assert parentReference.get() == null
+        }
+    }
+}
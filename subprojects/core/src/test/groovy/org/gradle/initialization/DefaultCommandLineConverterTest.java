@@ -68,6 +68,7 @@ public class DefaultCommandLineConverterTest {
     private boolean expectedRecompileScripts;
     private int expectedParallelExecutorCount;
     private boolean expectedConfigureOnDemand;
+    private boolean expectedParallelProjectConfiguration;
 
     @Test
     public void withoutAnyOptions() {
@@ -108,6 +109,7 @@ public class DefaultCommandLineConverterTest {
         assertEquals(expectedProjectCacheDir, startParameter.getProjectCacheDir());
         assertEquals(expectedParallelExecutorCount, startParameter.getParallelThreadCount());
         assertEquals(expectedConfigureOnDemand, startParameter.isConfigureOnDemand());
+        assertEquals(expectedParallelProjectConfiguration, startParameter.isParallelProjectConfiguration());
     }
 
     @Test
@@ -396,4 +398,10 @@ public class DefaultCommandLineConverterTest {
         expectedConfigureOnDemand = true;
         checkConversion("--configure-on-demand");
     }
+
+    @Test
+    public void withParallelConfiguration() {
+        expectedParallelProjectConfiguration = true;
+        checkConversion("--parallel-configuration");
+    }
 }
@@ -17,6 +17,11 @@
 package org.gradle.initialization.buildsrc
 
 import org.gradle.StartParameter
+import org.gradle.api.DomainObjectSet
+import org.gradle.api.artifacts.Configuration
+import org.gradle.api.artifacts.ConfigurationContainer
+import org.gradle.api.artifacts.DependencySet
+import org.gradle.api.artifacts.ExternalModuleDependency
 import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.component.BuildableJavaComponent
 import org.gradle.api.internal.component.ComponentRegistry
@@ -27,6 +32,7 @@ import spock.lang.Specification
 class BuildSrcBuildListenerFactoryTest extends Specification {
 
     def startParameter = Mock(StartParameter)
+    def configurations = []
     def component = Stub(BuildableJavaComponent)
     def services = Mock(ServiceRegistry) {
         get(ComponentRegistry) >> Stub(ComponentRegistry) {
@@ -35,6 +41,9 @@ class BuildSrcBuildListenerFactoryTest extends Specification {
     }
     def project = Mock(ProjectInternal) {
         getServices() >> services
+        getConfigurations() >> Stub(ConfigurationContainer) {
+            iterator() >> { configurations.iterator() }
+        }
     }
     def gradle = Mock(GradleInternal) {
         getStartParameter() >> startParameter
@@ -62,4 +71,34 @@ class BuildSrcBuildListenerFactoryTest extends Specification {
         then:
         1 * startParameter.setTaskNames(['barBuild'])
     }
+
+    def "records whether external dependencies are fixed"() {
+        def listener = new BuildSrcBuildListenerFactory().create(false)
+        def dependency = Stub(ExternalModuleDependency) {
+            getVersion() >> version
+            isChanging() >> changing
+        }
+        configurations << Stub(Configuration) {
+            getDependencies() >> Stub(DependencySet) {
+                withType(ExternalModuleDependency) >> Stub(DomainObjectSet) {
+                    iterator() >> { [dependency].iterator() }
+                }
+            }
+        }
+
+        when:
+        listener.onConfigure(gradle)
+
+        then:
+        listener.hasFixedDependencies() == fixed
+
+        where:
+        version          | changing | fixed
+        "1.2"            | false    | true
+        "1.2"            | true     | false
+        "1.+"            | false    | false
+        "[1.0,2.0)"      | false    | false
+        "latest.release" | false    | false
+        "1.2-SNAPSHOT"   | false    | false
+    }
 }
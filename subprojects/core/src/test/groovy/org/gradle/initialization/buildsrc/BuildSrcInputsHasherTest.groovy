@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.initialization.buildsrc
+
+import org.gradle.StartParameter
+import org.gradle.internal.hash.HashValue
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class BuildSrcInputsHasherTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def buildSrcDir = tmpDir.createDir("buildSrc")
+    def userHomeDir = tmpDir.createDir("userHome")
+    def startParameter = new StartParameter()
+    def hasher = new BuildSrcInputsHasher(startParameter)
+
+    def setup() {
+        startParameter.currentDir = buildSrcDir
+        startParameter.gradleUserHomeDir = userHomeDir
+        buildSrcDir.file("build.gradle").text = "apply plugin: 'groovy'"
+        buildSrcDir.file("src/main/groovy/Thing.groovy").text = "class Thing {}"
+    }
+
+    def "hash changes when a source file changes"() {
+        def original = hash()
+
+        when:
+        buildSrcDir.file("src/main/groovy/Thing.groovy").text = "class Thing { String name }"
+
+        then:
+        hash() != original
+    }
+
+    def "hash changes when a file is added"() {
+        def original = hash()
+
+        when:
+        buildSrcDir.file("src/main/groovy/Other.groovy").text = "class Other {}"
+
+        then:
+        hash() != original
+    }
+
+    def "hash changes when project properties change"() {
+        def original = hash()
+
+        when:
+        startParameter.projectProperties = [prop: "value"]
+
+        then:
+        hash() != original
+    }
+
+    def "hash changes when system properties change"() {
+        def original = hash()
+
+        when:
+        startParameter.systemPropertiesArgs = [prop: "value"]
+
+        then:
+        hash() != original
+    }
+
+    def "hash changes when gradle properties of the user home change"() {
+        def original = hash()
+
+        when:
+        userHomeDir.file("gradle.properties").text = "prop=value"
+
+        then:
+        hash() != original
+    }
+
+    def "ignores build output and Gradle state"() {
+        def original = hash()
+
+        when:
+        buildSrcDir.file("build/classes/main/Thing.class").text = "bytes"
+        buildSrcDir.file(".gradle/2.4/taskArtifacts/cache.bin").text = "state"
+
+        then:
+        hash() == original
+    }
+
+    def "ignores custom build dir"() {
+        def buildDir = buildSrcDir.file("target")
+        def original = hasher.hash(buildDir, [:], [:])
+
+        when:
+        buildDir.file("classes/main/Thing.class").text = "bytes"
+
+        then:
+        hasher.hash(buildDir, [:], [:]) == original
+        hash() != original
+    }
+
+    def "reuses content hash of file whose length and modification time have not changed"() {
+        def file = buildSrcDir.file("src/main/groovy/Thing.groovy")
+        def visited = [:]
+        def original = hasher.hash(null, [:], visited)
+        def recorded = new BuildSrcInputsHasher.FileHash(file.length(), file.lastModified(), HashValue.parse("1234"))
+
+        expect:
+        visited[file.absolutePath].length == file.length()
+        hasher.hash(null, [(file.absolutePath): recorded], [:]) != original
+        hasher.hash(null, visited, [:]) == original
+
+        when:
+        def stale = new BuildSrcInputsHasher.FileHash(file.length(), file.lastModified() - 2000, HashValue.parse("1234"))
+        def revisited = [:]
+
+        then:
+        hasher.hash(null, [(file.absolutePath): stale], revisited) == original
+        revisited[file.absolutePath].lastModified == file.lastModified()
+    }
+
+    private HashValue hash() {
+        return hasher.hash(null, [:], [:])
+    }
+}
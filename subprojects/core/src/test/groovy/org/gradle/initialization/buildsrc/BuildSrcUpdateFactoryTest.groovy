@@ -16,8 +16,10 @@
 
 package org.gradle.initialization.buildsrc
 
+import org.gradle.BuildResult
 import org.gradle.initialization.GradleLauncher
 import org.gradle.cache.PersistentCache
+import org.gradle.internal.hash.HashValue
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
@@ -64,4 +66,110 @@ class BuildSrcUpdateFactoryTest extends Specification {
         then:
         1 * listenerFactory.create(true) >> listener
     }
+
+    def "reuses classpath of previous build when inputs have not changed"() {
+        def launcher = Mock(GradleLauncher)
+        def hasher = Stub(BuildSrcInputsHasher)
+        def classesDir = temp.createDir("classes")
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        listener.getRuntimeClasspath() >> [classesDir]
+        listener.hasFixedDependencies() >> true
+        listenerFactory.create(_) >> listener
+        hasher.hash(_, _, _) >> HashValue.parse("1234")
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+        def classpath = new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+
+        then:
+        classpath.asFiles == [classesDir]
+        1 * launcher.run() >> Stub(BuildResult)
+    }
+
+    def "hashes inputs of previous build without its build dir and with its file hashes"() {
+        def launcher = Stub(GradleLauncher)
+        def hasher = Mock(BuildSrcInputsHasher)
+        def buildDir = temp.createDir("out")
+        def fileHash = new BuildSrcInputsHasher.FileHash(12, 34, HashValue.parse("abcd"))
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        launcher.run() >> Stub(BuildResult)
+        listener.getRuntimeClasspath() >> [temp.createDir("classes")]
+        listener.getBuildDir() >> buildDir
+        listener.hasFixedDependencies() >> true
+        listenerFactory.create(_) >> listener
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+
+        then:
+        1 * hasher.hash(buildDir, [:], _) >> { File dir, Map previous, Map visited ->
+            visited.put("file", fileHash)
+            HashValue.parse("1234")
+        }
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+
+        then:
+        1 * hasher.hash(buildDir, { it.file.length == 12 && it.file.lastModified == 34 && it.file.hash == fileHash.hash }, _) >> HashValue.parse("1234")
+        0 * hasher._
+    }
+
+    def "runs build when inputs have changed"() {
+        def launcher = Mock(GradleLauncher)
+        def hasher = Stub(BuildSrcInputsHasher)
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        listener.getRuntimeClasspath() >> [temp.createDir("classes")]
+        listener.hasFixedDependencies() >> true
+        listenerFactory.create(_) >> listener
+        hasher.hash(_, _, _) >>> [HashValue.parse("1234"), HashValue.parse("5678")]
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+
+        then:
+        2 * launcher.run() >> Stub(BuildResult)
+    }
+
+    def "runs build when classpath of previous build no longer exists"() {
+        def launcher = Mock(GradleLauncher)
+        def hasher = Stub(BuildSrcInputsHasher)
+        def classesDir = temp.createDir("classes")
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        listener.getRuntimeClasspath() >> [classesDir]
+        listener.hasFixedDependencies() >> true
+        listenerFactory.create(_) >> listener
+        hasher.hash(_, _, _) >> HashValue.parse("1234")
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+        classesDir.deleteDir()
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+
+        then:
+        2 * launcher.run() >> Stub(BuildResult)
+    }
+
+    def "runs build when buildSrc has dynamic or changing dependencies"() {
+        def launcher = Mock(GradleLauncher)
+        def hasher = Stub(BuildSrcInputsHasher)
+        temp.createFile("built.bin")
+        cache.getBaseDir() >> temp.testDirectory
+        listener.getRuntimeClasspath() >> [temp.createDir("classes")]
+        listener.hasFixedDependencies() >> false
+        listenerFactory.create(_) >> listener
+        hasher.hash(_, _, _) >> HashValue.parse("1234")
+
+        when:
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+        new BuildSrcUpdateFactory(cache, launcher, listenerFactory, hasher).create()
+
+        then:
+        2 * launcher.run() >> Stub(BuildResult)
+    }
 }
@@ -209,6 +209,34 @@ class ConsoleBackedProgressRendererTest extends OutputSpecification {
         0 * statusBar._
     }
 
+    def statusBarIsUpdatedOnceForEachBatchOfEvents() {
+        def event = event('message')
+
+        when:
+        renderer.startBatch()
+        renderer.onOutput(start(status: 'status'))
+        renderer.onOutput(progress('progress'))
+        renderer.onOutput(event)
+
+        then:
+        1 * listener.onOutput(event)
+        0 * statusBar._
+
+        when:
+        renderer.endBatch()
+
+        then:
+        1 * statusBar.setText('> progress')
+        0 * statusBar._
+
+        when:
+        renderer.startBatch()
+        renderer.endBatch()
+
+        then:
+        0 * statusBar._
+    }
+
     def "failure to process the event contains the context"() {
         when:
         renderer.onOutput(complete('unstarted operation'))
@@ -18,22 +18,29 @@ package org.gradle.logging.internal
 import org.gradle.api.Action
 import org.gradle.api.logging.LogLevel
 import org.gradle.api.logging.StandardOutputListener
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.util.RedirectStdOutAndErr
 import org.junit.Rule
 import org.gradle.internal.nativeintegration.console.ConsoleMetaData
+import spock.util.concurrent.PollingConditions
 
 class OutputEventRendererTest extends OutputSpecification {
     @Rule public final RedirectStdOutAndErr outputs = new RedirectStdOutAndErr()
     private final ConsoleStub console = new ConsoleStub()
     private final ConsoleMetaData metaData = Mock()
     private final Action<OutputEventRenderer> consoleConfigureAction = Mock()
+    private final DefaultExecutorFactory executorFactory = new DefaultExecutorFactory()
     private OutputEventRenderer renderer
 
     def setup() {
-        renderer = new OutputEventRenderer(consoleConfigureAction)
+        renderer = new OutputEventRenderer(consoleConfigureAction, executorFactory)
         renderer.configure(LogLevel.INFO)
     }
 
+    def cleanup() {
+        executorFactory.stop()
+    }
+
     def rendersLogEventsToStdOut() {
         when:
         renderer.attachSystemOutAndErr()
@@ -182,6 +189,121 @@ class OutputEventRendererTest extends OutputSpecification {
         0 * listener._
     }
 
+    def rendersEventLoggedByListenerAfterTheCurrentEvent() {
+        def received = []
+        LogEvent nested = event('nested', LogLevel.INFO)
+        LogEvent event = event('message', LogLevel.INFO)
+        def listener = { OutputEvent e ->
+            received << e
+            if (e == event) {
+                renderer.onOutput(nested)
+            }
+        } as OutputEventListener
+
+        when:
+        renderer.addOutputEventListener(listener)
+        renderer.onOutput(event)
+
+        then:
+        received == [event, nested]
+    }
+
+    def rendersEventsLoggedConcurrentlyInTheOrderEachThreadLoggedThem() {
+        def received = Collections.synchronizedList([])
+        def listener = { OutputEvent e -> received << e.message } as OutputEventListener
+        renderer.addOutputEventListener(listener)
+
+        when:
+        def threads = (1..4).collect { thread ->
+            Thread.start {
+                2000.times { i -> renderer.onOutput(event("${thread}:${i}", LogLevel.INFO)) }
+            }
+        }
+        threads*.join()
+
+        then:
+        new PollingConditions().eventually {
+            assert received.size() == 8000
+        }
+        (1..4).every { thread -> received.findAll { it.startsWith("${thread}:") } == (0..<2000).collect { "${thread}:${it}".toString() } }
+    }
+
+    def rendersEventsLoggedByOtherThreadsWhileRenderingInTheBackground() {
+        def renderedByCaller = []
+        def received = Collections.synchronizedList([])
+        def caller = Thread.currentThread()
+        def listener = { OutputEvent e ->
+            received << e.message
+            if (Thread.currentThread() == caller) {
+                renderedByCaller << e.message
+            }
+            def count = received.size()
+            if (count < 100) {
+                // Another thread keeps logging while this event is rendered
+                Thread.start { renderer.onOutput(event("${count}", LogLevel.INFO)) }.join()
+            }
+        } as OutputEventListener
+        renderer.addOutputEventListener(listener)
+
+        when:
+        renderer.onOutput(event('message', LogLevel.INFO))
+
+        then:
+        renderedByCaller == ['message', '1']
+
+        and:
+        new PollingConditions().eventually {
+            assert received == ['message'] + (1..<100).collect { it.toString() }
+        }
+    }
+
+    def rendersQueuedEventsWhenStopped() {
+        def received = Collections.synchronizedList([])
+        renderer.addOutputEventListener(loggingFromOtherThreads(received))
+
+        when:
+        renderer.onOutput(event('message', LogLevel.INFO))
+        renderer.stop()
+
+        then:
+        received == ['message'] + (1..<100).collect { it.toString() }
+    }
+
+    def rendersQueuedEventsBeforeRemovingAllListeners() {
+        def received = Collections.synchronizedList([])
+        renderer.addOutputEventListener(loggingFromOtherThreads(received))
+
+        when:
+        renderer.onOutput(event('message', LogLevel.INFO))
+        renderer.removeAllOutputEventListeners()
+
+        then:
+        received == ['message'] + (1..<100).collect { it.toString() }
+    }
+
+    def rendersEventsInTheCallingThreadOnceStopped() {
+        def received = []
+        renderer.addOutputEventListener({ OutputEvent e -> received << e.message } as OutputEventListener)
+
+        when:
+        renderer.stop()
+        renderer.onOutput(event('message', LogLevel.INFO))
+
+        then:
+        received == ['message']
+    }
+
+    private OutputEventListener loggingFromOtherThreads(List<String> received) {
+        return { OutputEvent e ->
+            received << e.message
+            def count = received.size()
+            if (count < 100) {
+                // Another thread logs while this event is rendered
+                Thread.start { renderer.onOutput(event("${count}", LogLevel.INFO)) }.join()
+            }
+        } as OutputEventListener
+    }
+
     def rendersProgressEvents() {
         when:
         renderer.attachSystemOutAndErr()
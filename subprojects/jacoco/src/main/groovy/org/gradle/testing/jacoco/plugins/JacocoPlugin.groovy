@@ -15,6 +15,7 @@
  */
 package org.gradle.testing.jacoco.plugins
 
+import org.gradle.api.Action
 import org.gradle.api.Incubating
 import org.gradle.api.Plugin
 import org.gradle.api.Project
@@ -159,21 +160,22 @@ class JacocoPlugin implements Plugin<ProjectInternal> {
         this.project.plugins.withType(JavaPlugin) {
             this.project.tasks.withType(Test) { task ->
                 if (task.name == JavaPlugin.TEST_TASK_NAME) {
-                    JacocoReport reportTask = this.project.tasks.create("jacoco${task.name.capitalize()}Report", JacocoReport)
-                    reportTask.executionData task
-                    reportTask.sourceSets(this.project.sourceSets.main)
-                    reportTask.conventionMapping.with {
-                        reportTask.reports.all { report ->
-                            report.conventionMapping.with {
-                                enabled = { true }
-                                if (report.outputType == Report.OutputType.DIRECTORY) {
-                                    destination = { new File(extension.reportsDir, "${task.name}/${report.name}") }
-                                } else {
-                                    destination = { new File(extension.reportsDir, "${task.name}/${reportTask.name}.${report.name}") }
+                    this.project.tasks.createLater("jacoco${task.name.capitalize()}Report", JacocoReport, { JacocoReport reportTask ->
+                        reportTask.executionData task
+                        reportTask.sourceSets(this.project.sourceSets.main)
+                        reportTask.conventionMapping.with {
+                            reportTask.reports.all { report ->
+                                report.conventionMapping.with {
+                                    enabled = { true }
+                                    if (report.outputType == Report.OutputType.DIRECTORY) {
+                                        destination = { new File(extension.reportsDir, "${task.name}/${report.name}") }
+                                    } else {
+                                        destination = { new File(extension.reportsDir, "${task.name}/${reportTask.name}.${report.name}") }
+                                    }
                                 }
                             }
                         }
-                    }
+                    } as Action)
                 }
             }
         }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile;
+
+import javax.tools.*;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link JavaFileManager} that serves the archives of the compile classpath from a {@link ClasspathArchiveCache}, so that the archives
+ * are not reopened and re-indexed for every compilation. Directories on the classpath, and all other locations, are handled by the standard
+ * file manager. Files on the classpath that are not zip archives are ignored, as the compiler does.
+ *
+ * <p>The archives used by a compilation are kept open until this file manager is closed.</p>
+ */
+public class CachingClasspathFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+    private final ClasspathArchiveCache archiveCache;
+    private final Charset charset;
+    private final Set<ClasspathArchiveCache.ArchiveIndex> usedArchives = new HashSet<ClasspathArchiveCache.ArchiveIndex>();
+
+    /**
+     * @param charset The encoding of source files in archives. Uses the platform encoding when null.
+     */
+    public CachingClasspathFileManager(StandardJavaFileManager fileManager, ClasspathArchiveCache archiveCache, Charset charset) {
+        super(fileManager);
+        this.archiveCache = archiveCache;
+        this.charset = charset != null ? charset : Charset.defaultCharset();
+    }
+
+    @Override
+    public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse) throws IOException {
+        if (location != StandardLocation.CLASS_PATH) {
+            return super.list(location, packageName, kinds, recurse);
+        }
+        Iterable<? extends File> classpath = fileManager.getLocation(location);
+        if (classpath == null) {
+            return super.list(location, packageName, kinds, recurse);
+        }
+
+        // Visit the entries in classpath order, as the compiler uses the first definition of a class it finds
+        List<JavaFileObject> result = new ArrayList<JavaFileObject>();
+        for (File entry : classpath) {
+            if (entry.isFile()) {
+                ClasspathArchiveCache.ArchiveIndex archive = archiveCache.get(entry);
+                if (archive != null) {
+                    listArchive(archive, packageName, kinds, recurse, result);
+                }
+            } else if (entry.isDirectory()) {
+                listDirectory(new File(entry, packageName.replace('.', File.separatorChar)), kinds, recurse, result);
+            }
+        }
+        return result;
+    }
+
+    private void listArchive(ClasspathArchiveCache.ArchiveIndex archive, String packageName, Set<JavaFileObject.Kind> kinds, boolean recurse, List<JavaFileObject> result) {
+        synchronized (usedArchives) {
+            if (usedArchives.add(archive)) {
+                archive.acquire();
+            }
+        }
+        for (String entryName : archive.list(packageName, recurse)) {
+            JavaFileObject.Kind kind = kindOf(entryName);
+            if (kinds.contains(kind)) {
+                result.add(new ArchiveEntryFileObject(archive, entryName, kind));
+            }
+        }
+    }
+
+    private void listDirectory(File directory, Set<JavaFileObject.Kind> kinds, boolean recurse, List<JavaFileObject> result) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                if (recurse) {
+                    listDirectory(file, kinds, true, result);
+                }
+            } else if (kinds.contains(kindOf(file.getName()))) {
+                for (JavaFileObject fileObject : fileManager.getJavaFileObjects(file)) {
+                    result.add(fileObject);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            synchronized (usedArchives) {
+                for (ClasspathArchiveCache.ArchiveIndex archive : usedArchives) {
+                    archive.release();
+                }
+                usedArchives.clear();
+            }
+        }
+    }
+
+    @Override
+    public String inferBinaryName(Location location, JavaFileObject file) {
+        if (file instanceof ArchiveEntryFileObject) {
+            return ((ArchiveEntryFileObject) file).getBinaryName();
+        }
+        return super.inferBinaryName(location, file);
+    }
+
+    @Override
+    public boolean isSameFile(FileObject a, FileObject b) {
+        if (a instanceof ArchiveEntryFileObject || b instanceof ArchiveEntryFileObject) {
+            return a.toUri().equals(b.toUri());
+        }
+        return super.isSameFile(a, b);
+    }
+
+    private static JavaFileObject.Kind kindOf(String fileName) {
+        for (JavaFileObject.Kind kind : JavaFileObject.Kind.values()) {
+            if (kind != JavaFileObject.Kind.OTHER && fileName.endsWith(kind.extension)) {
+                return kind;
+            }
+        }
+        return JavaFileObject.Kind.OTHER;
+    }
+
+    private static String encode(String entryName) {
+        try {
+            return new URI(null, null, entryName, null).getRawPath();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private class ArchiveEntryFileObject extends SimpleJavaFileObject {
+        private final ClasspathArchiveCache.ArchiveIndex archive;
+        private final String entryName;
+        private final URI jarUri;
+
+        ArchiveEntryFileObject(ClasspathArchiveCache.ArchiveIndex archive, String entryName, Kind kind) {
+            // SimpleJavaFileObject requires a URI with a path, which a jar: URI does not have
+            super(URI.create(archive.getFile().toURI() + "!/" + encode(entryName)), kind);
+            this.archive = archive;
+            this.entryName = entryName;
+            this.jarUri = URI.create("jar:" + uri);
+        }
+
+        @Override
+        public URI toUri() {
+            return jarUri;
+        }
+
+        String getBinaryName() {
+            String name = entryName.substring(0, entryName.length() - kind.extension.length());
+            return name.replace('/', '.');
+        }
+
+        @Override
+        public String getName() {
+            return archive.getFile().getPath() + "(" + entryName + ")";
+        }
+
+        @Override
+        public boolean isNameCompatible(String simpleName, Kind kind) {
+            String baseName = simpleName + kind.extension;
+            return kind == getKind() && (entryName.equals(baseName) || entryName.endsWith("/" + baseName));
+        }
+
+        @Override
+        public InputStream openInputStream() throws IOException {
+            return new ByteArrayInputStream(archive.getContent(entryName));
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
+            return new String(archive.getContent(entryName), charset.name());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.io.ByteStreams;
+import org.gradle.api.Nullable;
+import org.gradle.api.UncheckedIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * A process wide cache of indexed classpath archives, shared by all in-process Java compilations.
+ *
+ * <p>Each archive is opened once and its entries are grouped by package. The content of an entry is read from the archive when the compiler
+ * needs it, while the archive is in use by at least one compilation. An archive is re-indexed when its length or modification time changes.
+ * Indexes are softly referenced, so the cache gives memory back under pressure.</p>
+ */
+public class ClasspathArchiveCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClasspathArchiveCache.class);
+    private static final ClasspathArchiveCache INSTANCE = new ClasspathArchiveCache();
+
+    private final ConcurrentMap<File, CachedArchive> archives = new ConcurrentHashMap<File, CachedArchive>();
+
+    public static ClasspathArchiveCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the index of the given archive, or null when the file is not a zip archive. The compiler ignores such files.
+     */
+    @Nullable
+    public ArchiveIndex get(File archive) {
+        File file = archive.getAbsoluteFile();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        CachedArchive cached = archives.get(file);
+        if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+            ArchiveIndex index = cached.index.get();
+            if (index != null) {
+                return index;
+            }
+        }
+        ArchiveIndex index;
+        try {
+            index = new ArchiveIndex(file);
+        } catch (ZipException e) {
+            LOGGER.debug("Ignoring {} on the classpath, as it is not a zip archive.", file);
+            return null;
+        }
+        archives.put(file, new CachedArchive(length, lastModified, index));
+        return index;
+    }
+
+    public void clear() {
+        archives.clear();
+    }
+
+    private static class CachedArchive {
+        private final long length;
+        private final long lastModified;
+        private final SoftReference<ArchiveIndex> index;
+
+        private CachedArchive(long length, long lastModified, ArchiveIndex index) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.index = new SoftReference<ArchiveIndex>(index);
+        }
+    }
+
+    /**
+     * The entries of a single archive, grouped by package name.
+     */
+    public static class ArchiveIndex {
+        private final File file;
+        private final Map<String, List<String>> entriesByPackage = new HashMap<String, List<String>>();
+        private ZipFile zipFile;
+        private int users;
+
+        ArchiveIndex(File file) throws ZipException {
+            this.file = file;
+            try {
+                ZipFile zipFile = new ZipFile(file);
+                try {
+                    Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                    while (entries.hasMoreElements()) {
+                        ZipEntry entry = entries.nextElement();
+                        if (entry.isDirectory()) {
+                            continue;
+                        }
+                        String name = entry.getName();
+                        int separator = name.lastIndexOf('/');
+                        String packageName = separator < 0 ? "" : name.substring(0, separator).replace('/', '.');
+                        List<String> packageEntries = entriesByPackage.get(packageName);
+                        if (packageEntries == null) {
+                            packageEntries = new ArrayList<String>();
+                            entriesByPackage.put(packageName, packageEntries);
+                        }
+                        packageEntries.add(name);
+                    }
+                } finally {
+                    zipFile.close();
+                }
+            } catch (ZipException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Could not index the contents of %s.", file), e);
+            }
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Returns the names of the entries in the given package, optionally including those of its sub-packages.
+         */
+        public List<String> list(String packageName, boolean recurse) {
+            if (!recurse) {
+                List<String> entries = entriesByPackage.get(packageName);
+                return entries == null ? Collections.<String>emptyList() : entries;
+            }
+            List<String> result = new ArrayList<String>();
+            String prefix = packageName + ".";
+            for (Map.Entry<String, List<String>> entry : entriesByPackage.entrySet()) {
+                if (packageName.length() == 0 || entry.getKey().equals(packageName) || entry.getKey().startsWith(prefix)) {
+                    result.addAll(entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Marks this archive as in use, so that it is kept open to read the content of entries until {@link #release()} is called.
+         */
+        public synchronized void acquire() {
+            users++;
+        }
+
+        /**
+         * Closes the archive once it is no longer used by any compilation.
+         */
+        public synchronized void release() {
+            users--;
+            if (users == 0 && zipFile != null) {
+                try {
+                    zipFile.close();
+                } catch (IOException e) {
+                    LOGGER.debug("Could not close " + file + ".", e);
+                }
+                zipFile = null;
+            }
+        }
+
+        /**
+         * Returns the content of the given entry, read from the archive.
+         */
+        public synchronized byte[] getContent(String entryName) {
+            try {
+                boolean temporary = users == 0 && zipFile == null;
+                if (zipFile == null) {
+                    zipFile = new ZipFile(file);
+                }
+                try {
+                    ZipEntry entry = zipFile.getEntry(entryName);
+                    if (entry == null) {
+                        throw new UncheckedIOException(String.format("Could not find entry '%s' in %s.", entryName, file));
+                    }
+                    InputStream inputStream = zipFile.getInputStream(entry);
+                    try {
+                        return ByteStreams.toByteArray(inputStream);
+                    } finally {
+                        inputStream.close();
+                    }
+                } finally {
+                    if (temporary) {
+                        zipFile.close();
+                        zipFile = null;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Could not read entry '%s' of %s.", entryName, file), e);
+            }
+        }
+    }
+}
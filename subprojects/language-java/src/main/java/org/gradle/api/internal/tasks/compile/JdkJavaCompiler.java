@@ -24,10 +24,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.List;
@@ -38,25 +40,35 @@ public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable
     public WorkResult execute(JavaCompileSpec spec) {
         LOGGER.info("Compiling with JDK Java compiler API.");
 
-        JavaCompiler.CompilationTask task = createCompileTask(spec);
-        boolean success = task.call();
-        if (!success) {
-            throw new CompilationFailedException();
+        JavaCompiler compiler = findCompiler();
+        if(compiler==null){
+            throw new RuntimeException("Cannot find System Java Compiler. Ensure that you have installed a JDK (not just a JRE) and configured your JAVA_HOME system variable to point to the according directory.");
+        }
+        CompileOptions compileOptions = spec.getCompileOptions();
+        Charset charset = compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null;
+        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, charset);
+        JavaFileManager fileManager = new CachingClasspathFileManager(standardFileManager, ClasspathArchiveCache.getInstance(), charset);
+        try {
+            JavaCompiler.CompilationTask task = createCompileTask(spec, compiler, standardFileManager, fileManager);
+            boolean success = task.call();
+            if (!success) {
+                throw new CompilationFailedException();
+            }
+        } finally {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close the Java file manager.", e);
+            }
         }
 
         return new SimpleWorkResult(true);
     }
 
-    private JavaCompiler.CompilationTask createCompileTask(JavaCompileSpec spec) {
+    private JavaCompiler.CompilationTask createCompileTask(JavaCompileSpec spec, JavaCompiler compiler, StandardJavaFileManager standardFileManager, JavaFileManager fileManager) {
         List<String> options = new JavaCompilerArgumentsBuilder(spec).build();
-        JavaCompiler compiler = findCompiler();
-        if(compiler==null){
-            throw new RuntimeException("Cannot find System Java Compiler. Ensure that you have installed a JDK (not just a JRE) and configured your JAVA_HOME system variable to point to the according directory.");
-        }
-        CompileOptions compileOptions = spec.getCompileOptions();
-        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null);
-        Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(spec.getSource());
-        return compiler.getTask(null, null, null, options, null, compilationUnits);
+        Iterable<? extends JavaFileObject> compilationUnits = standardFileManager.getJavaFileObjectsFromFiles(spec.getSource());
+        return compiler.getTask(null, fileManager, null, options, null, compilationUnits);
     }
 
     private static JavaCompiler findCompiler() {
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.analyzer;
+
+import org.gradle.api.internal.hash.Hasher;
+import org.gradle.internal.UncheckedException;
+import org.gradle.util.GFileUtils;
+import org.objectweb.asm.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hashes the application binary interface (ABI) of a class file: its header, and the signatures of its non-private fields, methods and
+ * inner classes, including the values of constants. The annotations of the class and of its members are part of the hash, with their values,
+ * as are the default values of annotation type elements. Method bodies, private members and debug information do not contribute to the
+ * hash, so the hash only changes when a change to the class can affect the compilation of classes that use it.
+ *
+ * <p>Package private members are part of the hash, because classes from the same package in a different classpath entry can use them.</p>
+ */
+public class ClassAbiHasher implements Hasher {
+
+    private final Hasher contentHasher;
+
+    /**
+     * @param contentHasher used for files that are not class files, or cannot be parsed as such.
+     */
+    public ClassAbiHasher(Hasher contentHasher) {
+        this.contentHasher = contentHasher;
+    }
+
+    public byte[] hash(File file) {
+        if (!file.getName().endsWith(".class")) {
+            return contentHasher.hash(file);
+        }
+        FileInputStream input = GFileUtils.openInputStream(file);
+        try {
+            return hash(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Problems hashing the ABI of class file: " + file, e);
+        } catch (IllegalArgumentException e) {
+            // Not a class file that ASM understands
+            return contentHasher.hash(file);
+        } finally {
+            GFileUtils.closeInputStream(input);
+        }
+    }
+
+    byte[] hash(InputStream input) throws IOException {
+        ClassReader reader = new ClassReader(input);
+        AbiVisitor visitor = new AbiVisitor();
+        reader.accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return visitor.getHash();
+    }
+
+    private static class AbiVisitor extends ClassVisitor {
+        private final static int API = Opcodes.ASM5;
+        // The access flags which can affect the compilation of other classes
+        private final static int ACCESS_MASK = Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED | Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL
+                | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT | Opcodes.ACC_ANNOTATION | Opcodes.ACC_ENUM | Opcodes.ACC_VARARGS | Opcodes.ACC_SYNCHRONIZED
+                | Opcodes.ACC_VOLATILE | Opcodes.ACC_TRANSIENT | Opcodes.ACC_NATIVE | Opcodes.ACC_STRICT;
+
+        private final List<String> header = new ArrayList<String>();
+        private final List<String> members = new ArrayList<String>();
+        private String className;
+
+        AbiVisitor() {
+            super(API);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            String[] sortedInterfaces = interfaces == null ? new String[0] : interfaces.clone();
+            Arrays.sort(sortedInterfaces);
+            className = name;
+            header.add("class " + (access & ACCESS_MASK) + " " + name + " " + signature + " " + superName + " " + Arrays.toString(sortedInterfaces));
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+            return new AnnotationValueVisitor(header, "annotation " + desc + " " + visible);
+        }
+
+        @Override
+        public void visitInnerClass(String name, String outerName, String innerName, int access) {
+            // The InnerClasses attribute also lists anonymous and local classes, and every nested class this class refers to, such as Map$Entry.
+            // Only the entry for this class itself and the member classes it declares are part of its ABI.
+            boolean declared = name.equals(className) || className.equals(outerName);
+            if (declared && !isPrivate(access)) {
+                members.add("inner " + (access & ACCESS_MASK) + " " + name + " " + outerName + " " + innerName);
+            }
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            if (!isRelevant(access)) {
+                return null;
+            }
+            members.add("field " + (access & ACCESS_MASK) + " " + name + " " + desc + " " + signature + " " + value);
+            final String member = "field " + name + " ";
+            return new FieldVisitor(API) {
+                @Override
+                public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                    return new AnnotationValueVisitor(members, member + "annotation " + desc + " " + visible);
+                }
+            };
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            if (!isRelevant(access)) {
+                return null;
+            }
+            String[] sortedExceptions = exceptions == null ? new String[0] : exceptions.clone();
+            Arrays.sort(sortedExceptions);
+            members.add("method " + (access & ACCESS_MASK) + " " + name + " " + desc + " " + signature + " " + Arrays.toString(sortedExceptions));
+            final String member = "method " + name + desc + " ";
+            return new MethodVisitor(API) {
+                @Override
+                public AnnotationVisitor visitAnnotationDefault() {
+                    return new AnnotationValueVisitor(members, member + "default");
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                    return new AnnotationValueVisitor(members, member + "annotation " + desc + " " + visible);
+                }
+
+                @Override
+                public AnnotationVisitor visitParameterAnnotation(int parameter, String desc, boolean visible) {
+                    return new AnnotationValueVisitor(members, member + "parameter " + parameter + " annotation " + desc + " " + visible);
+                }
+            };
+        }
+
+        private static boolean isRelevant(int access) {
+            return !isPrivate(access) && (access & Opcodes.ACC_SYNTHETIC) == 0;
+        }
+
+        private static boolean isPrivate(int access) {
+            return (access & Opcodes.ACC_PRIVATE) != 0;
+        }
+
+        byte[] getHash() {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            // Members are sorted, so that reordering the declarations in the source does not change the hash
+            Collections.sort(members);
+            update(digest, header);
+            update(digest, members);
+            return digest.digest();
+        }
+
+        private static void update(MessageDigest digest, List<String> values) {
+            for (String value : values) {
+                try {
+                    digest.update(value.getBytes("UTF-8"));
+                } catch (IOException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+                digest.update((byte) '\n');
+            }
+        }
+    }
+
+    /**
+     * Appends the element values of an annotation, or an annotation default value, to a description, which is added to the given list once
+     * the whole annotation has been visited. Nested annotations and arrays are appended to the description of the enclosing annotation.
+     */
+    private static class AnnotationValueVisitor extends AnnotationVisitor {
+        private final List<String> target;
+        private final StringBuilder description;
+        private final char end;
+
+        AnnotationValueVisitor(List<String> target, String prefix) {
+            this(target, new StringBuilder(prefix).append(" {"), '}');
+        }
+
+        private AnnotationValueVisitor(List<String> target, StringBuilder description, char end) {
+            super(Opcodes.ASM5);
+            this.target = target;
+            this.description = description;
+            this.end = end;
+        }
+
+        @Override
+        public void visit(String name, Object value) {
+            appendName(name);
+            if (value.getClass().isArray()) {
+                // An array of primitive values
+                description.append('[');
+                for (int i = 0; i < Array.getLength(value); i++) {
+                    appendValue(Array.get(value, i));
+                }
+                description.append("],");
+            } else {
+                appendValue(value);
+            }
+        }
+
+        @Override
+        public void visitEnum(String name, String desc, String value) {
+            appendName(name);
+            description.append(desc).append('.').append(value).append(',');
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String desc) {
+            appendName(name);
+            description.append('@').append(desc).append('{');
+            return new AnnotationValueVisitor(null, description, '}');
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            appendName(name);
+            description.append('[');
+            return new AnnotationValueVisitor(null, description, ']');
+        }
+
+        @Override
+        public void visitEnd() {
+            description.append(end).append(',');
+            if (target != null) {
+                target.add(description.toString());
+            }
+        }
+
+        private void appendValue(Object value) {
+            // The length keeps string values that contain separators from being ambiguous
+            String text = String.valueOf(value);
+            description.append(value.getClass().getSimpleName()).append(':').append(text.length()).append(':').append(text).append(',');
+        }
+
+                private void appendName(String name) {
+            if (name != null) {
+                description.append(name).append('=');
+            }
+        }
+    }
+}
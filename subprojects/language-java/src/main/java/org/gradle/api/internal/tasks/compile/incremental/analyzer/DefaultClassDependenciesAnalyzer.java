@@ -33,7 +33,8 @@ public class DefaultClassDependenciesAnalyzer implements ClassDependenciesAnalyz
         ClassRelevancyFilter filter = new ClassRelevancyFilter(className);
         ClassReader reader = new ClassReader(input);
         ClassDependenciesVisitor visitor = new ClassDependenciesVisitor();
-        reader.accept(visitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        // Only the class header and the constant pool are relevant, so skip parsing method bodies
+        reader.accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
 
         Set<String> classDependencies = getClassDependencies(filter, reader);
         return new ClassAnalysis(classDependencies, visitor.dependentToAll);
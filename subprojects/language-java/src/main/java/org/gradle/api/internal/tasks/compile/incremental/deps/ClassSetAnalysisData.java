@@ -18,13 +18,8 @@ package org.gradle.api.internal.tasks.compile.incremental.deps;
 
 import org.gradle.messaging.serialize.Decoder;
 import org.gradle.messaging.serialize.Encoder;
-import org.gradle.messaging.serialize.MapSerializer;
-import org.gradle.messaging.serialize.SetSerializer;
 
-import java.util.Map;
-import java.util.Set;
-
-import static org.gradle.messaging.serialize.BaseSerializerFactory.STRING_SERIALIZER;
+import java.util.*;
 
 public class ClassSetAnalysisData {
 
@@ -38,47 +33,85 @@ public class ClassSetAnalysisData {
         return dependents.get(className);
     }
 
+    /**
+     * Writes each class name once, to a table of names, and refers to classes by their index in that table everywhere else. Class names are
+     * shared by many dependents sets, so this keeps the serialized form small and the deserialized form free of duplicate strings.
+     */
     public static class Serializer implements org.gradle.messaging.serialize.Serializer<ClassSetAnalysisData> {
 
-        private final MapSerializer<String, DependentsSet> serializer = new MapSerializer<String, DependentsSet>(
-                STRING_SERIALIZER, new DependentsSetSerializer());
+        private static final int DEPENDENCY_TO_ALL = 0;
+        private static final int DEPENDENTS_WITH_DEPENDENCY_TO_ALL = 1;
+        private static final int DEPENDENTS = 2;
 
         public ClassSetAnalysisData read(Decoder decoder) throws Exception {
-            //we only support one kind of data
-            return new ClassSetAnalysisData(serializer.read(decoder));
-        }
-
-        public void write(Encoder encoder, ClassSetAnalysisData value) throws Exception {
-            //we only support one kind of data
-            serializer.write(encoder, value.dependents);
-        }
-
-        private static class DependentsSetSerializer implements org.gradle.messaging.serialize.Serializer<DependentsSet> {
-
-            private SetSerializer<String> setSerializer = new SetSerializer<String>(STRING_SERIALIZER, false);
+            int nameCount = decoder.readSmallInt();
+            String[] names = new String[nameCount];
+            for (int i = 0; i < nameCount; i++) {
+                names[i] = decoder.readString();
+            }
 
-            public DependentsSet read(Decoder decoder) throws Exception {
+            int count = decoder.readSmallInt();
+            Map<String, DependentsSet> dependents = new HashMap<String, DependentsSet>(Math.max(16, (int) (count / 0.75f) + 1));
+            for (int i = 0; i < count; i++) {
+                String className = names[decoder.readSmallInt()];
                 int control = decoder.readSmallInt();
-                if (control == 0) {
-                    return new DependencyToAll();
+                if (control == DEPENDENCY_TO_ALL) {
+                    dependents.put(className, new DependencyToAll());
+                    continue;
                 }
-                if (control != 1 && control != 2) {
+                if (control != DEPENDENTS_WITH_DEPENDENCY_TO_ALL && control != DEPENDENTS) {
                     throw new IllegalArgumentException("Unable to read the data. Unexpected control value: " + control);
                 }
-                Set<String> classes = setSerializer.read(decoder);
-                return new DefaultDependentsSet(control == 1, classes);
+                int dependentCount = decoder.readSmallInt();
+                List<String> classes = new ArrayList<String>(dependentCount);
+                for (int j = 0; j < dependentCount; j++) {
+                    classes.add(names[decoder.readSmallInt()]);
+                }
+                dependents.put(className, new DefaultDependentsSet(control == DEPENDENTS_WITH_DEPENDENCY_TO_ALL, classes));
             }
+            return new ClassSetAnalysisData(dependents);
+        }
 
-            public void write(Encoder encoder, DependentsSet value) throws Exception {
-                if (value instanceof DependencyToAll) {
-                    encoder.writeSmallInt(0);
-                } else if (value instanceof DefaultDependentsSet) {
-                    encoder.writeSmallInt(value.isDependencyToAll() ? 1 : 2);
-                    setSerializer.write(encoder, value.getDependentClasses());
+        public void write(Encoder encoder, ClassSetAnalysisData value) throws Exception {
+            Map<String, Integer> ids = new LinkedHashMap<String, Integer>();
+            for (Map.Entry<String, DependentsSet> entry : value.dependents.entrySet()) {
+                idOf(entry.getKey(), ids);
+                DependentsSet dependentsSet = entry.getValue();
+                if (!(dependentsSet instanceof DependencyToAll)) {
+                    for (String dependent : dependentsSet.getDependentClasses()) {
+                        idOf(dependent, ids);
+                    }
+                }
+            }
+
+            encoder.writeSmallInt(ids.size());
+            for (String name : ids.keySet()) {
+                encoder.writeString(name);
+            }
+
+            encoder.writeSmallInt(value.dependents.size());
+            for (Map.Entry<String, DependentsSet> entry : value.dependents.entrySet()) {
+                encoder.writeSmallInt(ids.get(entry.getKey()));
+                DependentsSet dependentsSet = entry.getValue();
+                if (dependentsSet instanceof DependencyToAll) {
+                    encoder.writeSmallInt(DEPENDENCY_TO_ALL);
+                } else if (dependentsSet instanceof DefaultDependentsSet) {
+                    encoder.writeSmallInt(dependentsSet.isDependencyToAll() ? DEPENDENTS_WITH_DEPENDENCY_TO_ALL : DEPENDENTS);
+                    Set<String> classes = dependentsSet.getDependentClasses();
+                    encoder.writeSmallInt(classes.size());
+                    for (String dependent : classes) {
+                        encoder.writeSmallInt(ids.get(dependent));
+                    }
                 } else {
-                    throw new IllegalArgumentException("Don't know how to serialize value of type: " + value.getClass() + ", value: " + value);
+                    throw new IllegalArgumentException("Don't know how to serialize value of type: " + dependentsSet.getClass() + ", value: " + dependentsSet);
                 }
             }
         }
+
+        private static void idOf(String className, Map<String, Integer> ids) {
+            if (!ids.containsKey(className)) {
+                ids.put(className, ids.size());
+            }
+        }
     }
 }
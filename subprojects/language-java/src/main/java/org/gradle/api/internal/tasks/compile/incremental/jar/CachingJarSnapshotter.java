@@ -29,9 +29,13 @@ public class CachingJarSnapshotter implements JarSnapshotter {
     private final JarSnapshotCache cache;
     private final FilesSnapshotSet inputFilesSnapshot;
 
-    public CachingJarSnapshotter(Hasher hasher, ClassDependenciesAnalyzer analyzer, JarSnapshotCache cache, FilesSnapshotSet inputFilesSnapshot) {
+    /**
+     * @param hasher hashes the contents of the jars, which is the key of the jar snapshot cache.
+     * @param classHasher hashes the classes in the jar. Two versions of a class with the same hash are considered equivalent by incremental compilation.
+     */
+    public CachingJarSnapshotter(Hasher hasher, Hasher classHasher, ClassDependenciesAnalyzer analyzer, JarSnapshotCache cache, FilesSnapshotSet inputFilesSnapshot) {
         this.inputFilesSnapshot = inputFilesSnapshot;
-        this.snapshotter = new DefaultJarSnapshotter(hasher, analyzer);
+        this.snapshotter = new DefaultJarSnapshotter(classHasher, analyzer);
         this.hasher = hasher;
         this.cache = cache;
     }
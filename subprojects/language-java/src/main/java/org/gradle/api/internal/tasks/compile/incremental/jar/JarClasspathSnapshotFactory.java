@@ -16,28 +16,46 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.jar;
 
+import org.gradle.api.Action;
+import org.gradle.internal.operations.BuildOperationProcessor;
+import org.gradle.internal.operations.OperationQueue;
+
 import java.io.File;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JarClasspathSnapshotFactory {
 
     private final JarSnapshotter jarSnapshotter;
+    private final BuildOperationProcessor buildOperationProcessor;
 
-    public JarClasspathSnapshotFactory(JarSnapshotter jarSnapshotter) {
+    public JarClasspathSnapshotFactory(JarSnapshotter jarSnapshotter, BuildOperationProcessor buildOperationProcessor) {
         this.jarSnapshotter = jarSnapshotter;
+        this.buildOperationProcessor = buildOperationProcessor;
     }
 
     JarClasspathSnapshot createSnapshot(Iterable<JarArchive> jarArchives) {
+        final Map<JarArchive, JarSnapshot> snapshots = new ConcurrentHashMap<JarArchive, JarSnapshot>();
+        OperationQueue<JarArchive> queue = buildOperationProcessor.newQueue(new Action<JarArchive>() {
+            public void execute(JarArchive jar) {
+                snapshots.put(jar, jarSnapshotter.createSnapshot(jar));
+            }
+        });
+        for (JarArchive jar : jarArchives) {
+            queue.add(jar);
+        }
+        queue.waitForCompletion();
+
+        // Collect the results in classpath order, regardless of the order in which the jars were snapshotted
         Map<File, JarSnapshot> jarSnapshots = new HashMap<File, JarSnapshot>();
         Map<File, byte[]> jarHashes = new HashMap<File, byte[]>();
         Set<String> allClasses = new HashSet<String>();
         Set<String> duplicateClasses = new HashSet<String>();
-
         for (JarArchive jar : jarArchives) {
-            JarSnapshot snapshot = jarSnapshotter.createSnapshot(jar);
+            JarSnapshot snapshot = snapshots.get(jar);
             jarSnapshots.put(jar.file, snapshot);
             jarHashes.put(jar.file, snapshot.getHash());
             for (String c : snapshot.getClasses()) {
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.jar;
+
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.operations.BuildOperationProcessor;
+import org.gradle.internal.operations.DefaultBuildOperationProcessor;
+
+/**
+ * Snapshots classpath jars concurrently, using one thread per processor regardless of the number of parallel build threads.
+ */
+public class JarSnapshotProcessor implements Stoppable {
+    private final DefaultBuildOperationProcessor processor = new DefaultBuildOperationProcessor(-1);
+
+    public BuildOperationProcessor getBuildOperationProcessor() {
+        return processor;
+    }
+
+    public void stop() {
+        processor.stop();
+    }
+}
@@ -44,8 +44,15 @@ public class JavaToolChainServiceRegistry implements PluginServiceRegistry {
     }
 
     private static class BuildScopeCompileServices {
+        private static final int MIN_COMPILER_DAEMONS = 4;
+
         CompilerDaemonManager createCompilerDaemonManager(Factory<WorkerProcessBuilder> workerFactory, StartParameter startParameter) {
-            return new CompilerDaemonManager(new CompilerClientsManager(new CompilerDaemonStarter(workerFactory, startParameter)));
+            // One daemon per worker thread, with room for daemons with different fork options, e.g. for Java, Groovy and Scala compilation
+            // A thread count of -1 means one worker thread per processor
+            int parallelThreads = startParameter.getParallelThreadCount();
+            int workerThreads = parallelThreads < 0 ? Runtime.getRuntime().availableProcessors() : parallelThreads;
+            int maxClients = Math.max(MIN_COMPILER_DAEMONS, workerThreads);
+            return new CompilerDaemonManager(new CompilerClientsManager(new CompilerDaemonStarter(workerFactory, startParameter), maxClients));
         }
     }
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.tools.JavaFileObject
+import javax.tools.StandardLocation
+import javax.tools.ToolProvider
+import java.nio.charset.Charset
+
+class CachingClasspathFileManagerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider()
+    def standardFileManager = ToolProvider.systemJavaCompiler.getStandardFileManager(null, null, null)
+    def fileManager = new CachingClasspathFileManager(standardFileManager, new ClasspathArchiveCache(), Charset.forName("ISO-8859-1"))
+
+    def cleanup() {
+        fileManager.close()
+    }
+
+    def "lists archive and directory entries in classpath order"() {
+        def classesDir = temp.createDir("classes")
+        classesDir.file("org/a/FromDir.class").text = "dir"
+        def contents = temp.createDir("contents")
+        contents.file("org/a/FromJar.class").text = "jar"
+        contents.file("org/a/Other.txt").text = "other"
+        def jar = temp.file("lib.jar")
+        contents.zipTo(jar)
+        standardFileManager.setLocation(StandardLocation.CLASS_PATH, [jar, classesDir])
+
+        when:
+        def files = fileManager.list(StandardLocation.CLASS_PATH, "org.a", EnumSet.of(JavaFileObject.Kind.CLASS), false) as List
+
+        then:
+        files.collect { fileManager.inferBinaryName(StandardLocation.CLASS_PATH, it) } == ["org.a.FromJar", "org.a.FromDir"]
+        files[0].openInputStream().text == "jar"
+        files[0].isNameCompatible("FromJar", JavaFileObject.Kind.CLASS)
+        fileManager.isSameFile(files[0], files[0])
+        !fileManager.isSameFile(files[0], files[1])
+    }
+
+    def "ignores files on the classpath that are not zip archives"() {
+        def notAnArchive = temp.file("not-a-jar.txt")
+        notAnArchive.text = "not a zip"
+        def classesDir = temp.createDir("classes")
+        classesDir.file("org/a/FromDir.class").text = "dir"
+        standardFileManager.setLocation(StandardLocation.CLASS_PATH, [notAnArchive, classesDir])
+
+        when:
+        def files = fileManager.list(StandardLocation.CLASS_PATH, "org.a", EnumSet.of(JavaFileObject.Kind.CLASS), false) as List
+
+        then:
+        files.collect { fileManager.inferBinaryName(StandardLocation.CLASS_PATH, it) } == ["org.a.FromDir"]
+    }
+
+    def "decodes source files in archives using the compile encoding"() {
+        def contents = temp.createDir("contents")
+        contents.file("org/a/Source.java").setText("class Source { String s = \"\u00e9\"; }", "ISO-8859-1")
+        def jar = temp.file("sources.jar")
+        contents.zipTo(jar)
+        standardFileManager.setLocation(StandardLocation.CLASS_PATH, [jar])
+
+        when:
+        def files = fileManager.list(StandardLocation.CLASS_PATH, "org.a", EnumSet.of(JavaFileObject.Kind.SOURCE), false) as List
+
+        then:
+        files[0].getCharContent(false).toString() == "class Source { String s = \"\u00e9\"; }"
+    }
+}
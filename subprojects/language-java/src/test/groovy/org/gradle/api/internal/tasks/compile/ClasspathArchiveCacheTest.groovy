@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Subject
+
+class ClasspathArchiveCacheTest extends Specification {
+    @Rule TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider()
+    @Subject cache = new ClasspathArchiveCache()
+
+    def "indexes archive entries by package"() {
+        def jar = jar("lib.jar", "org/a/A.class": "a", "org/a/b/B.class": "b", "Root.class": "root")
+
+        when:
+        def index = cache.get(jar)
+
+        then:
+        index.list("org.a", false) == ["org/a/A.class"]
+        index.list("org.a", true) as Set == ["org/a/A.class", "org/a/b/B.class"] as Set
+        index.list("", false) == ["Root.class"]
+        index.list("org.c", false).empty
+        new String(index.getContent("org/a/b/B.class")) == "b"
+    }
+
+    def "reuses index while archive is unchanged"() {
+        def jar = jar("lib.jar", "org/a/A.class": "a")
+
+        expect:
+        cache.get(jar).is(cache.get(jar))
+    }
+
+    def "reindexes archive when it changes"() {
+        def jar = jar("lib.jar", "org/a/A.class": "a")
+        def original = cache.get(jar)
+
+        when:
+        jar("lib.jar", "org/a/A.class": "a", "org/a/A2.class": "a2")
+        jar.setLastModified(jar.lastModified() - 2000)
+        def index = cache.get(jar)
+
+        then:
+        !index.is(original)
+        index.list("org.a", false) as Set == ["org/a/A.class", "org/a/A2.class"] as Set
+    }
+
+    def "returns null for a file that is not a zip archive"() {
+        def file = temp.file("not-a-jar.txt")
+        file.text = "not a zip"
+
+        expect:
+        cache.get(file) == null
+    }
+
+    def "reads entries from the archive while it is in use"() {
+        def jar = jar("lib.jar", "org/a/A.class": "a", "org/a/B.class": "b")
+        def index = cache.get(jar)
+
+        when:
+        index.acquire()
+        def a = new String(index.getContent("org/a/A.class"))
+        def b = new String(index.getContent("org/a/B.class"))
+        index.release()
+
+        then:
+        a == "a"
+        b == "b"
+        jar.delete()
+    }
+
+    private File jar(Map<String, String> entries, String name) {
+        def contents = temp.file("contents-$name")
+        contents.deleteDir()
+        entries.each { path, text -> contents.file(path).text = text }
+        def jar = temp.file(name)
+        jar.delete()
+        contents.zipTo(jar)
+        return jar
+    }
+}
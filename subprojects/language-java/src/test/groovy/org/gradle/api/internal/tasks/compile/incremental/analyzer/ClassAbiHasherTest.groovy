@@ -0,0 +1,165 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.analyzer
+
+import org.gradle.api.internal.hash.Hasher
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Subject
+
+import javax.tools.ToolProvider
+
+class ClassAbiHasherTest extends Specification {
+    @Rule TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider()
+    def contentHasher = Mock(Hasher)
+    @Subject hasher = new ClassAbiHasher(contentHasher)
+
+    def "hash does not change when implementation details change"() {
+        def original = abiOf """
+            public class Foo {
+                public static final String NAME = "foo";
+                private int count;
+                public int increment() { return ++count; }
+                private void helper() {}
+            }
+        """
+
+        expect:
+        abiOf("""
+            public class Foo {
+                public static final String NAME = "foo";
+                private long count;
+                private String other;
+                public int increment() { count += 2; return (int) count; }
+                private void helper(String s) { System.out.println(s); }
+            }
+        """) == original
+    }
+
+    def "hash does not change when anonymous classes or referenced nested classes change"() {
+        def original = abiOf """
+            public class Foo {
+                public Runnable task() { return null; }
+                public void visit(java.util.Map<String, String> map) { }
+            }
+        """
+
+        expect:
+        abiOf("""
+            public class Foo {
+                public Runnable task() { return new Runnable() { public void run() {} }; }
+                public void visit(java.util.Map<String, String> map) {
+                    for (java.util.Map.Entry<String, String> entry : map.entrySet()) { }
+                }
+            }
+        """) == original
+    }
+
+    def "hash changes when a nested class declaration changes"() {
+        expect:
+        abiOf("public class Foo { public static class Bar {} }") != abiOf("public class Foo { public class Bar {} }")
+        abiOf("public class Foo { public static class Bar {} }") != abiOf("public class Foo { public static class Baz {} }")
+    }
+
+    def "hash changes when #change"() {
+        def original = abiOf """
+            public class Foo {
+                public static final String NAME = "foo";
+                protected int count;
+                public int increment() { return ++count; }
+            }
+        """
+
+        expect:
+        abiOf(source) != original
+
+        where:
+        change                        | source
+        "a constant changes"          | "public class Foo { public static final String NAME = \"bar\"; protected int count; public int increment() { return ++count; } }"
+        "a method signature changes"  | "public class Foo { public static final String NAME = \"foo\"; protected int count; public long increment() { return ++count; } }"
+        "a method is added"           | "public class Foo { public static final String NAME = \"foo\"; protected int count; public int increment() { return ++count; } void reset() {} }"
+        "a field becomes private"     | "public class Foo { public static final String NAME = \"foo\"; private int count; public int increment() { return ++count; } }"
+        "the super class changes"     | "public class Foo extends java.util.ArrayList<String> { public static final String NAME = \"foo\"; protected int count; public int increment() { return ++count; } }"
+    }
+
+    def "hash changes when annotations change: #change"() {
+        def original = abiOf(annotated('@Tag("a") public int count;', '@Tag("a") public void run(@Tag("a") String arg) {}'))
+
+        expect:
+        abiOf(source) != original
+
+        where:
+        change                                   | source
+        "a field annotation value changes"       | annotated('@Tag("b") public int count;', '@Tag("a") public void run(@Tag("a") String arg) {}')
+        "a field annotation is removed"          | annotated('public int count;', '@Tag("a") public void run(@Tag("a") String arg) {}')
+        "a method annotation value changes"      | annotated('@Tag("a") public int count;', '@Tag(value = "a", sizes = 1) public void run(@Tag("a") String arg) {}')
+        "a parameter annotation value changes"   | annotated('@Tag("a") public int count;', '@Tag("a") public void run(@Tag("b") String arg) {}')
+        "a parameter annotation is removed"      | annotated('@Tag("a") public int count;', '@Tag("a") public void run(String arg) {}')
+    }
+
+    def "hash does not change when annotations are unchanged"() {
+        expect:
+        abiOf(annotated('@Tag("a") public int count;', '@Tag("a") public void run() {}')) == abiOf(annotated('@Tag("a") public int count;', '@Tag("a") public void run() {}'))
+    }
+
+    def "hash changes when a class annotation value changes"() {
+        expect:
+        abiOf('@java.lang.annotation.Target(java.lang.annotation.ElementType.TYPE) public @interface Foo {}') != abiOf('@java.lang.annotation.Target(java.lang.annotation.ElementType.METHOD) public @interface Foo {}')
+        abiOf('@java.lang.annotation.Target({}) public @interface Foo {}') != abiOf('@java.lang.annotation.Target(java.lang.annotation.ElementType.METHOD) public @interface Foo {}')
+    }
+
+    def "hash changes when the default value of an annotation type element changes"() {
+        expect:
+        abiOf('public @interface Foo { int value() default 1; }') != abiOf('public @interface Foo { int value() default 2; }')
+        abiOf('public @interface Foo { String[] value() default "a"; }') != abiOf('public @interface Foo { String[] value() default {"a", "b"}; }')
+        abiOf('public @interface Foo { int value() default 1; }') != abiOf('public @interface Foo { int value(); }')
+    }
+
+    def "uses content hash for files that are not class files"() {
+        def file = temp.createFile("foo.txt")
+        def hash = new byte[1]
+
+        when:
+        def result = hasher.hash(file)
+
+        then:
+        1 * contentHasher.hash(file) >> hash
+        result == hash
+    }
+
+    private static String annotated(String field, String method) {
+        return """
+            public class Foo {
+                @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+                public @interface Tag { String value(); int[] sizes() default {}; }
+                ${field}
+                ${method}
+            }
+        """
+    }
+
+    private byte[] abiOf(String source) {
+        def srcDir = temp.createDir("src")
+        def classesDir = temp.createDir("classes")
+        def sourceFile = srcDir.file("Foo.java")
+        sourceFile.text = source
+        def compiler = ToolProvider.systemJavaCompiler
+        assert compiler.run(null, null, null, "-d", classesDir.absolutePath, sourceFile.absolutePath) == 0
+        return hasher.hash(classesDir.file("Foo.class"))
+    }
+}
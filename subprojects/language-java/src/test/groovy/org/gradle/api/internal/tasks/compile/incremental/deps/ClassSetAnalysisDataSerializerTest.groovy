@@ -47,4 +47,20 @@ class ClassSetAnalysisDataSerializerTest extends Specification {
 
         read.dependents["D"] instanceof DependencyToAll
     }
+
+    def "writes each class name once"() {
+        def longName = "org.gradle.some.rather.long.package.name.SomeClass"
+        def data = new ClassSetAnalysisData([(longName): dependents("B", "C"), "B": dependents(longName), "C": dependents(longName, "B")])
+        def os = new ByteArrayOutputStream()
+
+        when:
+        serializer.write(new OutputStreamBackedEncoder(os), data)
+        ClassSetAnalysisData read = serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(os.toByteArray())))
+
+        then:
+        new String(os.toByteArray(), "utf-8").count(longName) == 1
+        read.dependents["B"].dependentClasses == [longName] as Set
+        read.dependents["C"].dependentClasses == [longName, "B"] as Set
+        read.dependents["B"].dependentClasses.first().is(read.dependents.keySet().find { it == longName })
+    }
 }
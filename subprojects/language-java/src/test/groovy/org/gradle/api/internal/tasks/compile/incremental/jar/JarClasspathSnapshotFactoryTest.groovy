@@ -17,13 +17,19 @@
 package org.gradle.api.internal.tasks.compile.incremental.jar
 
 import org.gradle.api.file.FileTree
+import org.gradle.internal.operations.DefaultBuildOperationProcessor
 import spock.lang.Specification
 import spock.lang.Subject
 
 class JarClasspathSnapshotFactoryTest extends Specification {
 
     def snapshotter = Mock(JarSnapshotter)
-    @Subject factory = new JarClasspathSnapshotFactory(snapshotter)
+    def processor = new DefaultBuildOperationProcessor(2)
+    @Subject factory = new JarClasspathSnapshotFactory(snapshotter, processor)
+
+    def cleanup() {
+        processor.stop()
+    }
 
     def "creates classpath snapshot with correct duplicate classes"() {
         def jar1 = Stub(JarArchive); def jar2 = Stub(JarArchive); def jar3 = Stub(JarArchive)
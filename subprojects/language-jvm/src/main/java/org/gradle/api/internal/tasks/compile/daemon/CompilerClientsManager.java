@@ -17,25 +17,96 @@ package org.gradle.api.internal.tasks.compile.daemon;
 
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.util.Clock;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * A bounded pool of compiler daemons. A compile reuses an idle daemon whose fork options are a superset of the requested ones. When there
+ * is no such daemon and the pool is full, the least recently used idle daemon is stopped to make room, or, when all daemons are busy,
+ * the compile waits for one to be released.
+ */
 public class CompilerClientsManager {
 
     private static final Logger LOGGER = Logging.getLogger(CompilerDaemonManager.class);
 
-    private final Object lock = new Object();
+    private final Lock lock = new ReentrantLock();
+    private final Condition clientsChanged = lock.newCondition();
     private final List<CompilerDaemonClient> allClients = new ArrayList<CompilerDaemonClient>();
+    // Ordered from least to most recently used
     private final List<CompilerDaemonClient> idleClients = new ArrayList<CompilerDaemonClient>();
+    private final int maxClients;
+    private int startingClients;
+
+    private int reservations;
+    private int reusedClients;
+    private int startedClients;
+    private int evictedClients;
+    private int discardedClients;
+    private long waitTimeMs;
 
     private CompilerDaemonStarter compilerDaemonStarter;
 
     public CompilerClientsManager(CompilerDaemonStarter compilerDaemonStarter) {
+        this(compilerDaemonStarter, Integer.MAX_VALUE);
+    }
+
+    public CompilerClientsManager(CompilerDaemonStarter compilerDaemonStarter, int maxClients) {
         this.compilerDaemonStarter = compilerDaemonStarter;
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Reserves a client that is compatible with the given fork options, starting a new one if required. Blocks while the pool is full and all
+     * of its clients are busy.
+     */
+    public CompilerDaemonClient reserve(File workingDir, DaemonForkOptions forkOptions) {
+        CompilerDaemonClient evicted = null;
+        lock.lock();
+        try {
+            reservations++;
+            Clock clock = new Clock();
+            try {
+                while (true) {
+                    CompilerDaemonClient client = reserveIdleClient(forkOptions, idleClients);
+                    if (client != null) {
+                        reusedClients++;
+                        return client;
+                    }
+                    if (allClients.size() + startingClients < maxClients) {
+                        break;
+                    }
+                    if (!idleClients.isEmpty()) {
+                        evicted = idleClients.remove(0);
+                        allClients.remove(evicted);
+                        evictedClients++;
+                        break;
+                    }
+                    LOGGER.debug("All {} compiler daemon(s) are busy, waiting for one to become available.", allClients.size());
+                    clientsChanged.await();
+                }
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            } finally {
+                waitTimeMs += clock.getTimeInMs();
+            }
+            startingClients++;
+        } finally {
+            lock.unlock();
+        }
+
+        if (evicted != null) {
+            LOGGER.debug("Stopping idle compiler daemon to make room for a daemon with fork options {}.", forkOptions);
+            evicted.stop();
+        }
+        return reserveNewClient(workingDir, forkOptions);
     }
 
     public CompilerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions) {
@@ -43,40 +114,90 @@ public class CompilerClientsManager {
     }
 
     CompilerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<CompilerDaemonClient> clients) {
-        synchronized (lock) {
-            Iterator<CompilerDaemonClient> it = clients.iterator();
-            while(it.hasNext()) {
-                CompilerDaemonClient candidate = it.next();
-                if(candidate.isCompatibleWith(forkOptions)) {
-                    it.remove();
+        lock.lock();
+        try {
+            // Prefer the most recently used client, as it has the warmest JIT
+            for (int i = clients.size() - 1; i >= 0; i--) {
+                CompilerDaemonClient candidate = clients.get(i);
+                if (candidate.isCompatibleWith(forkOptions)) {
+                    clients.remove(i);
                     return candidate;
                 }
             }
             return null;
+        } finally {
+            lock.unlock();
         }
     }
 
     public CompilerDaemonClient reserveNewClient(File workingDir, DaemonForkOptions forkOptions) {
         //allow the daemon to be started concurrently
-        CompilerDaemonClient client = compilerDaemonStarter.startDaemon(workingDir, forkOptions);
-        synchronized (lock) {
-            allClients.add(client);
+        CompilerDaemonClient client = null;
+        try {
+            client = compilerDaemonStarter.startDaemon(workingDir, forkOptions);
+        } finally {
+            lock.lock();
+            try {
+                if (startingClients > 0) {
+                    startingClients--;
+                }
+                if (client != null) {
+                    allClients.add(client);
+                    startedClients++;
+                }
+                clientsChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
         }
         return client;
     }
 
     public void release(CompilerDaemonClient client) {
-        synchronized (lock) {
+        lock.lock();
+        try {
             idleClients.add(client);
+            clientsChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a client that failed to execute a compilation from the pool and stops it.
+     */
+    public void discard(CompilerDaemonClient client) {
+        lock.lock();
+        try {
+            allClients.remove(client);
+            idleClients.remove(client);
+            discardedClients++;
+            clientsChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.info("Stopping compiler daemon after a failure.");
+        try {
+            client.stop();
+        } catch (Throwable t) {
+            LOGGER.debug("Could not stop compiler daemon.", t);
         }
     }
 
     public void stop() {
-        synchronized (lock) {
+        lock.lock();
+        try {
             LOGGER.debug("Stopping {} compiler daemon(s).", allClients.size());
             CompositeStoppable.stoppable(allClients).stop();
             LOGGER.info("Stopped {} compiler daemon(s).", allClients.size());
+            if (reservations > 0) {
+                LOGGER.info("Compiler daemons executed {} compilation(s): {} reused an idle daemon, {} daemon(s) started, {} evicted, {} discarded after a failure, {} spent waiting for a daemon.",
+                        reservations, reusedClients, startedClients, evictedClients, discardedClients, Clock.prettyTime(waitTimeMs));
+            }
             allClients.clear();
+            idleClients.clear();
+        } finally {
+            lock.unlock();
         }
     }
-}
\ No newline at end of file
+}
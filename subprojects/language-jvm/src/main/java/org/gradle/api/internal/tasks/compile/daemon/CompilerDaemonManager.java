@@ -36,14 +36,19 @@ public class CompilerDaemonManager implements CompilerDaemonFactory, Stoppable {
     public CompilerDaemon getDaemon(final File workingDir, final DaemonForkOptions forkOptions) {
         return new CompilerDaemon() {
             public <T extends CompileSpec> CompileResult execute(org.gradle.language.base.internal.compile.Compiler<T> compiler, T spec) {
-                CompilerDaemonClient client = clientsManager.reserveIdleClient(forkOptions);
-                if (client == null) {
-                    client = clientsManager.reserveNewClient(workingDir, forkOptions);
-                }
+                CompilerDaemonClient client = clientsManager.reserve(workingDir, forkOptions);
+                boolean healthy = false;
                 try {
-                    return client.execute(compiler, spec);
+                    CompileResult result = client.execute(compiler, spec);
+                    healthy = true;
+                    return result;
                 } finally {
-                    clientsManager.release(client);
+                    if (healthy) {
+                        clientsManager.release(client);
+                    } else {
+                        // compile failures are reported through the result, so an exception means the daemon itself is broken
+                        clientsManager.discard(client);
+                    }
                 }
             }
         };
@@ -19,6 +19,9 @@ import org.gradle.api.tasks.Copy;
 import org.gradle.language.base.internal.tasks.SimpleStaleClassCleaner;
 import org.gradle.language.base.internal.tasks.StaleClassCleaner;
 
+import java.io.File;
+import java.util.Collections;
+
 /**
  * Copies resources from their source to their target directory, potentially processing them.
  * Makes sure no stale resources remain in the target directory.
@@ -26,10 +29,14 @@ import org.gradle.language.base.internal.tasks.StaleClassCleaner;
 public class ProcessResources extends Copy {
 
     @Override
-    protected void copy() {
+    protected Iterable<File> beforeCopy(boolean incremental) {
+        if (incremental) {
+            // Only the resources which are not copied again are stale, and they are removed once the changed resources have been copied
+            return getOutputs().getPreviousFiles();
+        }
         StaleClassCleaner cleaner = new SimpleStaleClassCleaner(getOutputs());
         cleaner.setDestinationDir(getDestinationDir());
         cleaner.execute();
-        super.copy();
+        return Collections.emptySet();
     }
-}
\ No newline at end of file
+}
@@ -94,4 +94,76 @@ class CompilerClientsManagerTest extends ConcurrentSpecification {
         then:
         manager.reserveIdleClient(options) == client
     }
+
+    def "reserve reuses compatible idle client"() {
+        def client = Mock(CompilerDaemonClient) { isCompatibleWith(_) >> true }
+        starter.startDaemon(workingDir, options) >> client
+
+        when:
+        def first = manager.reserve(workingDir, options)
+        manager.release(first)
+        def second = manager.reserve(workingDir, options)
+
+        then:
+        first == client
+        second == client
+    }
+
+    def "reserve evicts least recently used idle client when pool is full"() {
+        def pool = new CompilerClientsManager(starter, 2)
+        def client1 = Mock(CompilerDaemonClient) { isCompatibleWith(_) >> false }
+        def client2 = Mock(CompilerDaemonClient) { isCompatibleWith(_) >> false }
+        def client3 = Mock(CompilerDaemonClient)
+        starter.startDaemon(workingDir, options) >>> [client1, client2, client3]
+
+        when:
+        def reserved1 = pool.reserve(workingDir, options)
+        def reserved2 = pool.reserve(workingDir, options)
+        pool.release(reserved1)
+        pool.release(reserved2)
+        def reserved3 = pool.reserve(workingDir, options)
+
+        then:
+        reserved3 == client3
+        1 * client1.stop()
+        0 * client2.stop()
+    }
+
+    def "reserve waits for a busy client when pool is full"() {
+        def pool = new CompilerClientsManager(starter, 1)
+        def client = Mock(CompilerDaemonClient) { isCompatibleWith(_) >> true }
+        starter.startDaemon(workingDir, options) >> client
+        def reserved = pool.reserve(workingDir, options)
+        def operation = waitsForAsyncCallback()
+
+        when:
+        operation.start {
+            operation.callbackLater { pool.release(reserved) }
+            assert pool.reserve(workingDir, options) == client
+        }
+
+        then:
+        0 * client.stop()
+    }
+
+    def "discarded client is stopped and not reused"() {
+        def client = Mock(CompilerDaemonClient) { isCompatibleWith(_) >> true }
+        def replacement = Mock(CompilerDaemonClient)
+        starter.startDaemon(workingDir, options) >>> [client, replacement]
+
+        when:
+        manager.discard(manager.reserve(workingDir, options))
+
+        then:
+        1 * client.stop()
+
+        when:
+        def reserved = manager.reserve(workingDir, options)
+        manager.stop()
+
+        then:
+        reserved == replacement
+        0 * client.stop()
+        1 * replacement.stop()
+    }
 }
@@ -41,52 +41,56 @@ class CompilerDaemonManagerTest extends Specification {
         0 * clientsManager._
     }
 
-    def "new client is created when daemon is executed and no idle clients found"() {
-        when:
-        manager.getDaemon(workingDir, options).execute(compiler, compileSpec)
+    def "client is reserved and released when daemon is executed"() {
+        def result = new CompileResult(true, null)
 
-        then:
-        1 * clientsManager.reserveIdleClient(options) >> null
+        when:
+        def compileResult = manager.getDaemon(workingDir, options).execute(compiler, compileSpec)
 
         then:
-        1 * clientsManager.reserveNewClient(workingDir, options) >> client
+        1 * clientsManager.reserve(workingDir, options) >> client
 
         then:
-        1 * client.execute(compiler, compileSpec)
+        1 * client.execute(compiler, compileSpec) >> result
 
         then:
         1 * clientsManager.release(client)
         0 * _._
+
+        and:
+        compileResult == result
     }
 
-    def "idle client is reused when daemon is executed"() {
+    def "client is released when compilation fails"() {
+        def result = new CompileResult(true, new RuntimeException("Compilation failed"))
+
         when:
         manager.getDaemon(workingDir, options).execute(compiler, compileSpec)
 
         then:
-        1 * clientsManager.reserveIdleClient(options) >> client
+        1 * clientsManager.reserve(workingDir, options) >> client
 
         then:
-        1 * client.execute(compiler, compileSpec)
+        1 * client.execute(compiler, compileSpec) >> result
 
         then:
         1 * clientsManager.release(client)
         0 * _._
     }
 
-    def "client is released even if execution fails"() {
+    def "client is discarded if execution fails"() {
         when:
         manager.getDaemon(workingDir, options).execute(compiler, compileSpec)
 
         then:
-        1 * clientsManager.reserveIdleClient(options) >> client
+        1 * clientsManager.reserve(workingDir, options) >> client
 
         then:
         1 * client.execute(compiler, compileSpec) >> { throw new RuntimeException("Boo!") }
 
         then:
         thrown(RuntimeException)
-        1 * clientsManager.release(client)
+        1 * clientsManager.discard(client)
         0 * _._
     }
 
@@ -17,6 +17,7 @@
 package org.gradle.tooling.internal.provider;
 
 import org.gradle.api.BuildCancelledException;
+import org.gradle.api.Project;
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.initialization.BuildCancellationToken;
@@ -28,7 +29,10 @@ import org.gradle.tooling.provider.model.ToolingModelBuilder;
 import org.gradle.tooling.provider.model.ToolingModelBuilderRegistry;
 import org.gradle.tooling.provider.model.UnknownModelException;
 
-class DefaultBuildController implements InternalBuildController {
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class DefaultBuildController implements InternalBuildControllerVersion2 {
     private final GradleInternal gradle;
 
     public DefaultBuildController(GradleInternal gradle) {
@@ -40,11 +44,7 @@ class DefaultBuildController implements InternalBuildController {
     }
 
     public BuildResult<?> getModel(Object target, ModelIdentifier modelIdentifier) throws BuildExceptionVersion1, InternalUnsupportedModelException {
-        BuildCancellationToken cancellationToken = gradle.getServices().get(BuildCancellationToken.class);
-        if (cancellationToken.isCancellationRequested()) {
-            throw new BuildCancelledException(String.format("Could not build '%s' model. Build cancelled.", modelIdentifier.getName()));
-        }
-        ToolingModelBuilderRegistry modelBuilderRegistry;
+        checkNotCancelled(modelIdentifier);
         ProjectInternal project;
         boolean isImplicitProject;
         if (target == null) {
@@ -57,20 +57,48 @@ class DefaultBuildController implements InternalBuildController {
         } else {
             throw new IllegalArgumentException("Don't know how to build models for " + target);
         }
-        modelBuilderRegistry = project.getServices().get(ToolingModelBuilderRegistry.class);
 
         ToolingModelBuilder builder;
         try {
-            builder = modelBuilderRegistry.getBuilder(modelIdentifier.getName());
+            builder = getBuilder(project, modelIdentifier);
         } catch (UnknownModelException e) {
             throw (InternalUnsupportedModelException) (new InternalUnsupportedModelException()).initCause(e);
         }
-        Object model;
+        return new ProviderBuildResult<Object>(buildModel(builder, modelIdentifier, project, isImplicitProject));
+    }
+
+    public BuildResult<?> getModels(ModelIdentifier modelIdentifier) throws BuildExceptionVersion1 {
+        Map<String, Object> models = new LinkedHashMap<String, Object>();
+        // The projects are sorted by path
+        for (Project project : gradle.getRootProject().getAllprojects()) {
+            checkNotCancelled(modelIdentifier);
+            ToolingModelBuilder builder;
+            try {
+                builder = getBuilder((ProjectInternal) project, modelIdentifier);
+            } catch (UnknownModelException e) {
+                continue;
+            }
+            models.put(project.getPath(), buildModel(builder, modelIdentifier, (ProjectInternal) project, false));
+        }
+        return new ProviderBuildResult<Object>(models);
+    }
+
+    private void checkNotCancelled(ModelIdentifier modelIdentifier) {
+        BuildCancellationToken cancellationToken = gradle.getServices().get(BuildCancellationToken.class);
+        if (cancellationToken.isCancellationRequested()) {
+            throw new BuildCancelledException(String.format("Could not build '%s' model. Build cancelled.", modelIdentifier.getName()));
+        }
+    }
+
+    private ToolingModelBuilder getBuilder(ProjectInternal project, ModelIdentifier modelIdentifier) {
+        ToolingModelBuilderRegistry modelBuilderRegistry = project.getServices().get(ToolingModelBuilderRegistry.class);
+        return modelBuilderRegistry.getBuilder(modelIdentifier.getName());
+    }
+
+    private Object buildModel(ToolingModelBuilder builder, ModelIdentifier modelIdentifier, ProjectInternal project, boolean isImplicitProject) {
         if (builder instanceof ProjectSensitiveToolingModelBuilder) {
-            model = ((ProjectSensitiveToolingModelBuilder) builder).buildAll(modelIdentifier.getName(), project, isImplicitProject);
-        } else {
-            model = builder.buildAll(modelIdentifier.getName(), project);
+            return ((ProjectSensitiveToolingModelBuilder) builder).buildAll(modelIdentifier.getName(), project, isImplicitProject);
         }
-        return new ProviderBuildResult<Object>(model);
+        return builder.buildAll(modelIdentifier.getName(), project);
     }
 }
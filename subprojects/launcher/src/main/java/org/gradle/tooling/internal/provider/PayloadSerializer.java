@@ -23,10 +23,17 @@ import org.gradle.tooling.internal.provider.jdk6.Jdk6ClassLookup;
 
 import java.io.*;
 import java.lang.reflect.Proxy;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Serializes payloads, such as build actions and tooling models, along with the details of the class loaders of their classes.
+ *
+ * <p>Equal strings are written once per payload and are shared by reference after that. Models built for many projects repeat the same
+ * names, paths and descriptions many times over, as separate string instances.</p>
+ */
 @ThreadSafe
 public class PayloadSerializer {
     private static final short SYSTEM_CLASS_LOADER_ID = (short) -1;
@@ -49,7 +56,25 @@ public class PayloadSerializer {
         final SerializeMap map = classLoaderRegistry.newSerializeSession();
         try {
             ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final Map<String, String> strings = new HashMap<String, String>();
             final ObjectOutputStream objectStream = new ObjectOutputStream(content) {
+                {
+                    enableReplaceObject(true);
+                }
+
+                @Override
+                protected Object replaceObject(Object obj) throws IOException {
+                    if (obj instanceof String) {
+                        String existing = strings.get(obj);
+                        if (existing != null) {
+                            // Written as a reference to the earlier string
+                            return existing;
+                        }
+                        strings.put((String) obj, (String) obj);
+                    }
+                    return obj;
+                }
+
                 @Override
                 protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
                     Class<?> targetClass = desc.forClass();
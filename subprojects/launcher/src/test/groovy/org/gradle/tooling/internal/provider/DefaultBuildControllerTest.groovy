@@ -145,4 +145,48 @@ class DefaultBuildControllerTest extends Specification {
         then:
         thrown(BuildCancelledException)
     }
+
+    def "builds model for each project that supports it"() {
+        def rootProject = Stub(ProjectInternal)
+        def unsupportedProject = Stub(ProjectInternal)
+        def childProject = Stub(ProjectInternal)
+        def unsupportedRegistry = Stub(ToolingModelBuilderRegistry)
+        def childRegistry = Stub(ToolingModelBuilderRegistry)
+        def contextModelBuilder = Stub(ProjectSensitiveToolingModelBuilder)
+
+        given:
+        _ * gradle.rootProject >> rootProject
+        _ * rootProject.allprojects >> ([rootProject, unsupportedProject, childProject] as LinkedHashSet)
+        _ * rootProject.path >> ":"
+        _ * rootProject.services >> project.services
+        _ * registry.getBuilder("some.model") >> modelBuilder
+        _ * modelBuilder.buildAll("some.model", rootProject) >> "root"
+        _ * unsupportedProject.path >> ":a"
+        _ * unsupportedProject.services >> Stub(ServiceRegistry) { get(ToolingModelBuilderRegistry) >> unsupportedRegistry }
+        _ * unsupportedRegistry.getBuilder("some.model") >> { throw new UnknownModelException("not found") }
+        _ * childProject.path >> ":b"
+        _ * childProject.services >> Stub(ServiceRegistry) { get(ToolingModelBuilderRegistry) >> childRegistry }
+        _ * childRegistry.getBuilder("some.model") >> contextModelBuilder
+        _ * contextModelBuilder.buildAll("some.model", childProject, false) >> "b"
+
+        when:
+        def result = controller.getModels(modelId)
+
+        then:
+        result.model == [':': 'root', ':b': 'b']
+        result.model.keySet() as List == [':', ':b']
+    }
+
+    def "throws an exception when cancel was requested while building models for all projects"() {
+        given:
+        _ * cancellationToken.cancellationRequested >> true
+        _ * gradle.rootProject >> project
+        _ * project.allprojects >> ([project] as Set)
+
+        when:
+        controller.getModels(modelId)
+
+        then:
+        thrown(BuildCancelledException)
+    }
 }
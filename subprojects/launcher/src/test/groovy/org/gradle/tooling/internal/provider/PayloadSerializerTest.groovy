@@ -40,6 +40,19 @@ class PayloadSerializerTest extends AbstractClassGraphSpec {
         "some value"                      | _
     }
 
+    def "writes equal strings once"() {
+        def source = [new String("value"), new String("value"), new String("other")]
+
+        when:
+        def serialized = originator.serialize(source)
+        def received = receiver.deserialize(serialized)
+
+        then:
+        received == source
+        received[0].is(received[1])
+        !received[0].is(received[2])
+    }
+
     def "implementation classpath travels with object"() {
         def payloadClass = isolated(CustomPayload, PayloadInterface).loadClass(CustomPayload.name)
         def original = payloadClass.newInstance(value: 'value')
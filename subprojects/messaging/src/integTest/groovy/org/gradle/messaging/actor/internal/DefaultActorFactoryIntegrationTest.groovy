@@ -0,0 +1,72 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.actor.internal
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+import spock.lang.Timeout
+import spock.lang.Unroll
+
+import java.util.concurrent.atomic.AtomicInteger
+
+@Timeout(120)
+class DefaultActorFactoryIntegrationTest extends Specification {
+    static final int MESSAGES = 200000
+
+    @Unroll
+    def "non-blocking actors deliver all messages in order when there are #actors actors and threads are shared: #shareThreads"() {
+        def executorFactory = new DefaultExecutorFactory()
+        def factory = new DefaultActorFactory(executorFactory, shareThreads)
+        def receivers = (0..<actors).collect { new Receiver() }
+        def proxies = receivers.collect { factory.createActor(it).getProxy(MessageReceiver) }
+
+        when:
+        for (int i = 0; i < MESSAGES; i++) {
+            proxies[i % actors].receive(i.intdiv(actors))
+        }
+        factory.stop()
+
+        then:
+        receivers.every { it.outOfOrder.get() == 0 }
+        receivers.sum { it.received.get() } == MESSAGES
+
+        cleanup:
+        executorFactory.stop()
+
+        where:
+        actors | shareThreads
+        10     | false
+        10     | true
+        200    | false
+        200    | true
+    }
+
+    static interface MessageReceiver {
+        void receive(int index)
+    }
+
+    static class Receiver implements MessageReceiver {
+        final AtomicInteger received = new AtomicInteger()
+        final AtomicInteger outOfOrder = new AtomicInteger()
+
+        void receive(int index) {
+            if (received.getAndIncrement() != index) {
+                outOfOrder.incrementAndGet()
+            }
+        }
+    }
+}
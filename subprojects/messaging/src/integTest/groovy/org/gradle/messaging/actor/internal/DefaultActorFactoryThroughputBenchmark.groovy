@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.actor.internal
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+import spock.lang.Timeout
+import spock.lang.Unroll
+
+/**
+ * Compares the message throughput of non-blocking actors that share threads with that of actors that use a thread each. Run with
+ * {@code gradle :messaging:benchmark}.
+ */
+@Timeout(300)
+class DefaultActorFactoryThroughputBenchmark extends Specification {
+    static final int MESSAGES = 200000
+    static final int RUNS = 3
+
+    @Unroll
+    def "delivers messages to #actors actors"() {
+        when:
+        def dedicated = bestThroughput(actors, false)
+        def shared = bestThroughput(actors, true)
+        println "$actors actors with a thread each: ${(long) dedicated} messages per second"
+        println "$actors actors sharing threads: ${(long) shared} messages per second"
+
+        then:
+        noExceptionThrown()
+
+        where:
+        actors << [10, 200]
+    }
+
+    private static double bestThroughput(int actors, boolean shareThreads) {
+        // The first run warms up the JVM
+        (0..RUNS).collect { throughput(actors, shareThreads) }.tail().max()
+    }
+
+    private static double throughput(int actors, boolean shareThreads) {
+        def executorFactory = new DefaultExecutorFactory()
+        def factory = new DefaultActorFactory(executorFactory, shareThreads)
+        def receivers = (0..<actors).collect { new DefaultActorFactoryIntegrationTest.Receiver() }
+        def proxies = receivers.collect { factory.createActor(it).getProxy(DefaultActorFactoryIntegrationTest.MessageReceiver) }
+
+        def start = System.nanoTime()
+        for (int i = 0; i < MESSAGES; i++) {
+            proxies[i % actors].receive(i.intdiv(actors))
+        }
+        factory.stop()
+        def elapsed = System.nanoTime() - start
+        executorFactory.stop()
+
+        assert receivers.sum { it.received.get() } == MESSAGES
+        MESSAGES * 1000000000d / elapsed
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.remote
+
+import org.gradle.messaging.remote.internal.MessagingServices
+
+/**
+ * The client process of {@link UnicastMessagingThroughputBenchmark}. Reads the address of the server from the given file, and sends the
+ * given number of messages to it.
+ */
+class UnicastMessagingBenchmarkClient {
+    static void main(String[] args) {
+        def addressFile = new File(args[0])
+        def messages = args[1] as int
+        Address serverAddress = addressFile.withObjectInputStream(UnicastMessagingBenchmarkClient.classLoader) { it.readObject() } as Address
+        def services = new MessagingServices(UnicastMessagingBenchmarkClient.classLoader)
+        try {
+            def connection = services.get(MessagingClient).getConnection(serverAddress)
+            def service = connection.addOutgoing(RemoteService1)
+            connection.connect()
+            messages.times { service.doStuff(String.valueOf(it)) }
+            // Blocks until all messages have been sent
+            connection.stop()
+        } finally {
+            services.stop()
+        }
+    }
+}
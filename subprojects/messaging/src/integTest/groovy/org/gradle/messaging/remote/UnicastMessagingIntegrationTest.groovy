@@ -190,6 +190,34 @@ class UnicastMessagingIntegrationTest extends ConcurrentSpec {
         server?.stop()
     }
 
+    def "client can send many messages to server"() {
+        def count = 50000
+        def received = new CountDownLatch(count)
+        def values = Collections.synchronizedList([])
+        def service = { String value ->
+            values << value
+            received.countDown()
+        } as RemoteService1
+        def server = new Server()
+        def client = new Client(server.address)
+
+        given:
+        server.addIncoming(service)
+        server.connection.connect()
+        client.connection.connect()
+
+        when:
+        count.times { client.outgoingService1.doStuff(String.valueOf(it)) }
+        received.await()
+
+        then:
+        values == (0..<count).collect { String.valueOf(it) }
+
+        cleanup:
+        client?.stop()
+        server?.stop()
+    }
+
     abstract class Participant {
         private RemoteService1 remoteService1
         private RemoteService2 remoteService2
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.remote
+
+import org.gradle.api.Action
+import org.gradle.internal.concurrent.CompositeStoppable
+import org.gradle.internal.jvm.Jvm
+import org.gradle.messaging.remote.internal.MessagingServices
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.util.concurrent.CountDownLatch
+
+/**
+ * Measures how many messages per second a client process can send to a server process. Run with {@code gradle :messaging:benchmark}.
+ */
+@Timeout(300)
+class UnicastMessagingThroughputBenchmark extends Specification {
+    static final int MESSAGES = 200000
+
+    @Rule final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final MessagingServices services = new MessagingServices(getClass().classLoader)
+
+    def cleanup() {
+        services.stop()
+    }
+
+    def "client process sends messages to server process"() {
+        def received = new CountDownLatch(MESSAGES)
+        def values = Collections.synchronizedList(new ArrayList<String>(MESSAGES))
+        long start = 0
+        def service = { String value ->
+            if (values.empty) {
+                start = System.nanoTime()
+            }
+            values << value
+            received.countDown()
+        } as RemoteService1
+        ObjectConnection connection = null
+        def acceptor = services.get(MessagingServer).accept({ ObjectConnection incoming ->
+            connection = incoming
+            incoming.addIncoming(RemoteService1, service)
+            incoming.connect()
+        } as Action)
+        def addressFile = tmpDir.file("server-address.bin")
+        addressFile.withObjectOutputStream { it.writeObject(acceptor.address) }
+
+        when:
+        def command = [Jvm.current().javaExecutable.absolutePath, "-cp", System.getProperty("java.class.path"),
+                UnicastMessagingBenchmarkClient.name, addressFile.absolutePath, String.valueOf(MESSAGES)]
+        def process = command.execute()
+        process.consumeProcessOutput(System.out, System.err)
+        received.await()
+        def elapsed = System.nanoTime() - start
+        println "Received $MESSAGES messages from another process in ${elapsed.intdiv(1000000)}ms: ${(long) (MESSAGES * 1000000000d / elapsed)} messages per second"
+
+        then:
+        process.waitFor() == 0
+        values == (0..<MESSAGES).collect { String.valueOf(it) }
+
+        cleanup:
+        CompositeStoppable.stoppable(connection, acceptor).stop()
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.gradle.messaging.actor.internal;
 
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.concurrent.ExecutorFactory;
@@ -28,18 +29,35 @@ import org.slf4j.LoggerFactory;
 
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A basic {@link ActorFactory} implementation. Currently cannot support creating both a blocking and non-blocking actor for the same target object.
+ *
+ * <p>By default, each non-blocking actor uses its own thread. When threads are shared, the non-blocking actors deliver their messages using
+ * a single executor instead, and only use a thread while they have messages to deliver. The threads of this executor take the actors with
+ * messages to deliver from a shared queue, and a thread is added only when none of them is waiting for work, so that an actor that blocks
+ * while handling a message does not hold up the other actors.</p>
  */
 public class DefaultActorFactory implements ActorFactory, Stoppable {
     private final Map<Object, NonBlockingActor> nonBlockingActors = new IdentityHashMap<Object, NonBlockingActor>();
     private final Map<Object, BlockingActor> blockingActors = new IdentityHashMap<Object, BlockingActor>();
     private final Object lock = new Object();
     private final ExecutorFactory executorFactory;
+    private final boolean shareThreads;
+    private SharedDeliveryExecutor sharedExecutor;
 
     public DefaultActorFactory(ExecutorFactory executorFactory) {
+        this(executorFactory, false);
+    }
+
+    public DefaultActorFactory(ExecutorFactory executorFactory, boolean shareThreads) {
         this.executorFactory = executorFactory;
+        this.shareThreads = shareThreads;
     }
 
     /**
@@ -48,9 +66,10 @@ public class DefaultActorFactory implements ActorFactory, Stoppable {
     public void stop() {
         synchronized (lock) {
             try {
-                CompositeStoppable.stoppable(nonBlockingActors.values()).add(blockingActors.values()).stop();
+                CompositeStoppable.stoppable(nonBlockingActors.values()).add(blockingActors.values()).add(sharedExecutor).stop();
             } finally {
                 nonBlockingActors.clear();
+                sharedExecutor = null;
             }
         }
     }
@@ -65,6 +84,9 @@ public class DefaultActorFactory implements ActorFactory, Stoppable {
             }
             NonBlockingActor actor = nonBlockingActors.get(target);
             if (actor == null) {
+                if (shareThreads && sharedExecutor == null) {
+                    sharedExecutor = new SharedDeliveryExecutor(executorFactory.create("Dispatch actor messages"));
+                }
                 actor = new NonBlockingActor(target);
                 nonBlockingActors.put(target, actor);
             }
@@ -134,12 +156,18 @@ public class DefaultActorFactory implements ActorFactory, Stoppable {
         private final ExceptionTrackingFailureHandler failureHandler;
 
         public NonBlockingActor(Object targetObject) {
-            executor = executorFactory.create(String.format("Dispatch %s", targetObject));
             failureHandler = new ExceptionTrackingFailureHandler(LoggerFactory.getLogger(NonBlockingActor.class));
-            dispatch = new AsyncDispatch<MethodInvocation>(executor,
-                    new FailureHandlingDispatch<MethodInvocation>(
-                            new ReflectionDispatch(targetObject),
-                            failureHandler));
+            Dispatch<MethodInvocation> target = new FailureHandlingDispatch<MethodInvocation>(
+                    new ReflectionDispatch(targetObject),
+                    failureHandler);
+            if (shareThreads) {
+                // The shared executor is stopped by the factory
+                executor = null;
+                dispatch = new MailboxDispatch<MethodInvocation>(sharedExecutor, target);
+            } else {
+                executor = executorFactory.create(String.format("Dispatch %s", targetObject));
+                dispatch = new AsyncDispatch<MethodInvocation>(executor, target);
+            }
         }
 
         public <T> T getProxy(Class<T> type) {
@@ -158,4 +186,113 @@ public class DefaultActorFactory implements ActorFactory, Stoppable {
             dispatch.dispatch(message);
         }
     }
+
+    /**
+     * Runs tasks on the threads of an executor, queueing them for the threads that are already running rather than handing each task to a
+     * thread of its own. Starts another thread only when none of the running threads is waiting for a task.
+     */
+    private static class SharedDeliveryExecutor implements Executor, Stoppable {
+        private static final Runnable STOP = new Runnable() {
+            public void run() {
+            }
+        };
+        private final StoppableExecutor threads;
+        private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+        private final AtomicInteger idleWorkers = new AtomicInteger();
+        private final Runnable worker = new Worker();
+        private int workers;
+        private boolean stopped;
+
+        public SharedDeliveryExecutor(StoppableExecutor threads) {
+            this.threads = threads;
+        }
+
+        public void execute(Runnable task) {
+            queue.add(task);
+            startWorkerIfNoneIdle();
+        }
+
+        private void startWorkerIfNoneIdle() {
+            if (idleWorkers.get() == 0) {
+                synchronized (this) {
+                    // A task that has just been queued may already have been run by another thread, after which the actors may have
+                    // been stopped
+                    if (!stopped) {
+                        workers++;
+                        threads.execute(worker);
+                    }
+                }
+            }
+        }
+
+        private synchronized void workerFinished() {
+            workers--;
+        }
+
+        public void stop() {
+            synchronized (this) {
+                // Called once the actors have been stopped, so the queue only holds the stop markers
+                stopped = true;
+                for (int i = workers; i > 0; i--) {
+                    queue.add(STOP);
+                }
+            }
+            threads.stop();
+        }
+
+        private class Worker implements Runnable {
+            public void run() {
+                boolean finished = false;
+                try {
+                    while (true) {
+                        Runnable task = queue.poll();
+                        if (task == null) {
+                            idleWorkers.incrementAndGet();
+                            try {
+                                task = queue.poll(60, TimeUnit.SECONDS);
+                            } finally {
+                                idleWorkers.decrementAndGet();
+                            }
+                            if (task == null && !canFinish()) {
+                                continue;
+                            }
+                        }
+                        if (task == null || task == STOP) {
+                            finished = true;
+                            return;
+                        }
+                        // Another task may have been queued while this thread was counted as waiting, so make sure a thread is
+                        // available for it in case this task blocks
+                        if (!queue.isEmpty()) {
+                            startWorkerIfNoneIdle();
+                        }
+                        task.run();
+                    }
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                } finally {
+                    workerFinished();
+                    if (!finished && !queue.isEmpty()) {
+                        // A task failed, so replace this thread for the remaining tasks
+                        startWorkerIfNoneIdle();
+                    }
+                }
+            }
+
+            /**
+             * Returns true if no task is queued. A task may have been queued after the poll of this thread timed out but while this thread was
+             * still counted as waiting, in which case no thread was started for it and this thread must run it.
+             */
+            private boolean canFinish() {
+                synchronized (SharedDeliveryExecutor.this) {
+                    return queue.isEmpty();
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "Deliver actor messages";
+            }
+        }
+    }
 }
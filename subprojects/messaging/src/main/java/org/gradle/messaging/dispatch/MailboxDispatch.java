@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.dispatch;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A {@link Dispatch} implementation which delivers messages asynchronously to a single delegate, without holding a thread while there
+ * are no messages to deliver. Calls to {@link #dispatch} add the message to a lock-free queue. The first message added to an empty queue
+ * schedules a task with the executor, which delivers the queued messages in the order they have been received and then returns the
+ * thread to the executor. This allows many instances to share the threads of a single executor.</p>
+ *
+ * <p>The queue is bounded. A call to {@link #dispatch} blocks while the queue is full, except when it is made while delivering a message
+ * of this dispatch, as the message would never be delivered.</p>
+ */
+public class MailboxDispatch<T> implements Dispatch<T>, Stoppable {
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_QUEUE_SIZE = 200;
+    private final Queue<T> queue = new ConcurrentLinkedQueue<T>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object lock = new Object();
+    private final Executor executor;
+    private final Dispatch<? super T> dispatch;
+    private final int maxQueueSize;
+    private final Runnable deliverer = new Deliverer();
+    private volatile boolean stopped;
+    private volatile Thread deliveryThread;
+
+    public MailboxDispatch(Executor executor, Dispatch<? super T> dispatch) {
+        this(executor, dispatch, MAX_QUEUE_SIZE);
+    }
+
+    public MailboxDispatch(Executor executor, Dispatch<? super T> dispatch, int maxQueueSize) {
+        this.executor = executor;
+        this.dispatch = dispatch;
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public void dispatch(T message) {
+        // Count the message before checking the state, so that stop() either waits for it or this method sees the stop
+        int queued = reserve();
+        if (stopped) {
+            delivered(1);
+            throw new IllegalStateException("Cannot dispatch message, as this message dispatch has been stopped. Message: " + message);
+        }
+        queue.add(message);
+        if (queued == 0) {
+            executor.execute(deliverer);
+        }
+    }
+
+    /**
+     * Counts a message to be queued, waiting while the queue is full. Returns the number of messages counted before this one.
+     */
+    private int reserve() {
+        while (true) {
+            int queued = pending.get();
+            if (queued >= maxQueueSize && !stopped && deliveryThread != Thread.currentThread()) {
+                awaitSpace();
+            } else if (pending.compareAndSet(queued, queued + 1)) {
+                return queued;
+            }
+        }
+    }
+
+    private void awaitSpace() {
+        synchronized (lock) {
+            // Check again while holding the lock, as delivered() notifies while holding it
+            while (pending.get() >= maxQueueSize && !stopped) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting new messages, and blocks until all queued messages have been dispatched.
+     */
+    public void stop() {
+        if (deliveryThread == Thread.currentThread()) {
+            throw new IllegalStateException("Cannot stop this dispatch from its delivery thread.");
+        }
+        synchronized (lock) {
+            stopped = true;
+            // Wake up any dispatchers waiting for space, so that they fail
+            lock.notifyAll();
+            while (pending.get() > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+        }
+    }
+
+    private int delivered(int count) {
+        int remaining = pending.addAndGet(-count);
+        if ((remaining + count >= maxQueueSize && remaining < maxQueueSize) || (remaining == 0 && stopped)) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+        return remaining;
+    }
+
+    private class Deliverer implements Runnable {
+        public void run() {
+            int count = 0;
+            deliveryThread = Thread.currentThread();
+            try {
+                T message;
+                while (count < MAX_BATCH_SIZE && (message = queue.poll()) != null) {
+                    count++;
+                    dispatch.dispatch(message);
+                }
+            } finally {
+                deliveryThread = null;
+                // Give up the thread after each batch, and schedule another batch if messages remain. A message may have been
+                // counted but not yet queued, in which case the next batch picks it up
+                if (delivered(count) > 0) {
+                    executor.execute(this);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Deliver messages to " + dispatch;
+        }
+    }
+}
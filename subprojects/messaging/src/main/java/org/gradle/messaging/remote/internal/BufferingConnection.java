@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.messaging.remote.internal;
+
+/**
+ * <p>A {@link RemoteConnection} which can write several messages to its peer before flushing them, so that a batch of messages is sent with
+ * fewer writes.</p>
+ */
+public interface BufferingConnection<T> extends RemoteConnection<T> {
+    /**
+     * Writes the given message to the buffer of this connection. The message is sent to the peer when the buffer is full, or when
+     * {@link #flush()} is called.
+     *
+     * @throws MessageIOException On failure to write the message to the peer.
+     */
+    void dispatchWithoutFlush(T message) throws MessageIOException;
+
+    /**
+     * Sends the buffered messages to the peer.
+     *
+     * @throws MessageIOException On failure to write the messages to the peer.
+     */
+    void flush() throws MessageIOException;
+}
@@ -21,6 +21,7 @@ import org.gradle.internal.concurrent.AsyncStoppable;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.messaging.dispatch.Dispatch;
+import org.gradle.messaging.remote.internal.BufferingConnection;
 import org.gradle.messaging.remote.internal.Connection;
 import org.gradle.messaging.remote.internal.hub.protocol.*;
 import org.gradle.messaging.remote.internal.hub.queue.EndPointQueue;
@@ -279,11 +280,23 @@ public class MessageHub implements AsyncStoppable {
                         } finally {
                             lock.unlock();
                         }
-                        for (Object message : messages) {
-                            InterHubMessage channelMessage = (InterHubMessage) message;
-                            connection.dispatch(channelMessage);
-                            if (message instanceof EndOfStream) {
-                                return;
+                        if (connection instanceof BufferingConnection) {
+                            // Send the messages taken from the queue with as few writes as possible
+                            BufferingConnection<InterHubMessage> bufferingConnection = (BufferingConnection<InterHubMessage>) connection;
+                            for (InterHubMessage message : messages) {
+                                bufferingConnection.dispatchWithoutFlush(message);
+                                if (message instanceof EndOfStream) {
+                                    bufferingConnection.flush();
+                                    return;
+                                }
+                            }
+                            bufferingConnection.flush();
+                        } else {
+                            for (InterHubMessage message : messages) {
+                                connection.dispatch(message);
+                                if (message instanceof EndOfStream) {
+                                    return;
+                                }
                             }
                         }
                         messages.clear();
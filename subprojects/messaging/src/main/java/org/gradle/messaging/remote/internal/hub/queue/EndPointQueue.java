@@ -37,7 +37,10 @@ public class EndPointQueue implements Dispatch<InterHubMessage> {
 
     public void dispatch(InterHubMessage message) {
         queue.add(message);
-        condition.signalAll();
+        if (queue.size() == 1) {
+            // Consumers only wait while the queue is empty
+            condition.signalAll();
+        }
     }
 
     public void take(Collection<InterHubMessage> drainTo) {
@@ -19,9 +19,9 @@ package org.gradle.messaging.remote.internal.inet;
 import com.google.common.base.Objects;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.messaging.remote.internal.BufferingConnection;
 import org.gradle.messaging.remote.internal.MessageIOException;
 import org.gradle.messaging.remote.internal.MessageSerializer;
-import org.gradle.messaging.remote.internal.RemoteConnection;
 import org.gradle.messaging.serialize.ObjectReader;
 import org.gradle.messaging.serialize.ObjectWriter;
 
@@ -36,7 +36,10 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 
-public class SocketConnection<T> implements RemoteConnection<T> {
+public class SocketConnection<T> implements BufferingConnection<T> {
+    // The buffers start small and grow up to this size while larger messages, or batches of messages, are read or written
+    private static final int MIN_BUFFER_SIZE = 4096;
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
     private final SocketChannel socket;
     private final SocketInetAddress localAddress;
     private final SocketInetAddress remoteAddress;
@@ -99,14 +102,26 @@ public class SocketConnection<T> implements RemoteConnection<T> {
     }
 
     public void dispatch(T message) throws MessageIOException {
+        dispatchWithoutFlush(message);
+        flush();
+    }
+
+    public void dispatchWithoutFlush(T message) throws MessageIOException {
         try {
             objectWriter.write(message);
-            outstr.flush();
         } catch (Exception e) {
             throw new MessageIOException(String.format("Could not write message %s to '%s'.", message, remoteAddress), e);
         }
     }
 
+    public void flush() throws MessageIOException {
+        try {
+            outstr.flush();
+        } catch (Exception e) {
+            throw new MessageIOException(String.format("Could not write messages to '%s'.", remoteAddress), e);
+        }
+    }
+
     public void requestStop() {
         CompositeStoppable.stoppable(instr).stop();
     }
@@ -117,7 +132,7 @@ public class SocketConnection<T> implements RemoteConnection<T> {
 
     private static class SocketInputStream extends InputStream {
         private final Selector selector;
-        private final ByteBuffer buffer;
+        private ByteBuffer buffer;
         private final SocketChannel socket;
         private final byte[] readBuffer = new byte[1];
 
@@ -125,7 +140,7 @@ public class SocketConnection<T> implements RemoteConnection<T> {
             this.socket = socket;
             selector = Selector.open();
             socket.register(selector, SelectionKey.OP_READ);
-            buffer = ByteBuffer.allocateDirect(4096);
+            buffer = ByteBuffer.allocateDirect(MIN_BUFFER_SIZE);
             buffer.limit(0);
         }
 
@@ -154,6 +169,10 @@ public class SocketConnection<T> implements RemoteConnection<T> {
                     return -1;
                 }
 
+                if (buffer.limit() == buffer.capacity() && buffer.capacity() < MAX_BUFFER_SIZE) {
+                    // The previous read filled the buffer, so more data is likely to be available
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                }
                 buffer.clear();
                 int nread = socket.read(buffer);
                 buffer.flip();
@@ -177,14 +196,14 @@ public class SocketConnection<T> implements RemoteConnection<T> {
     private static class SocketOutputStream extends OutputStream {
         private final Selector selector;
         private final SocketChannel socket;
-        private final ByteBuffer buffer;
+        private ByteBuffer buffer;
         private final byte[] writeBuffer = new byte[1];
 
         public SocketOutputStream(SocketChannel socket) throws IOException {
             this.socket = socket;
             selector = Selector.open();
             socket.register(selector, SelectionKey.OP_WRITE);
-            buffer = ByteBuffer.allocateDirect(4096);
+            buffer = ByteBuffer.allocateDirect(MIN_BUFFER_SIZE);
         }
 
         @Override
@@ -206,6 +225,9 @@ public class SocketConnection<T> implements RemoteConnection<T> {
                 }
                 if (buffer.remaining() == 0) {
                     flush();
+                    if (buffer.capacity() < MAX_BUFFER_SIZE) {
+                        buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    }
                 }
             }
         }
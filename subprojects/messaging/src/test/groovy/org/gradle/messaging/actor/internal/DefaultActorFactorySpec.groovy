@@ -226,6 +226,57 @@ class DefaultActorFactorySpec extends ConcurrentSpec {
         operation.dispatchAndStop.end > instant.param2
     }
 
+    def nonBlockingActorsWithSharedThreadsDispatchMethodCallsAndStopBlocksUntilAllMethodCallsComplete() {
+        def sharedFactory = new DefaultActorFactory(executorFactory, true)
+        def target2 = Mock(TargetObject)
+        def proxy1 = sharedFactory.createActor(target).getProxy(TargetObject.class)
+        def proxy2 = sharedFactory.createActor(target2).getProxy(TargetObject.class)
+
+        given:
+        target.doStuff('param') >> {
+            thread.block()
+            instant.param1
+        }
+        target2.doStuff('param2') >> {
+            instant.param2
+        }
+
+        when:
+        operation.dispatchAndStop {
+            proxy1.doStuff('param')
+            proxy2.doStuff('param2')
+            sharedFactory.stop()
+        }
+
+        then:
+        operation.dispatchAndStop.end > instant.param1
+        operation.dispatchAndStop.end > instant.param2
+    }
+
+    def nonBlockingActorWithSharedThreadsDoesNotHoldUpOtherActorsWhileItBlocks() {
+        def sharedFactory = new DefaultActorFactory(executorFactory, true)
+        def target2 = Mock(TargetObject)
+        def proxy1 = sharedFactory.createActor(target).getProxy(TargetObject.class)
+        def proxy2 = sharedFactory.createActor(target2).getProxy(TargetObject.class)
+
+        given:
+        target.doStuff('param') >> {
+            thread.blockUntil.param2
+            instant.param1
+        }
+        target2.doStuff('param2') >> {
+            instant.param2
+        }
+
+        when:
+        proxy1.doStuff('param')
+        proxy2.doStuff('param2')
+        sharedFactory.stop()
+
+        then:
+        instant.param1 > instant.param2
+    }
+
     def blockingActorStopBlocksUntilAllMethodCallsComplete() {
         def actor = factory.createBlockingActor(target)
         def proxy = actor.getProxy(TargetObject.class)
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.messaging.dispatch
+package org.gradle.messaging.dispatch
+
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicInteger
+
+class MailboxDispatchTest extends ConcurrentSpec {
+    final received = new CopyOnWriteArrayList<String>()
+    final Dispatch<String> target = { received << it } as Dispatch
+
+    def "delivers messages to target in the order they were dispatched"() {
+        def dispatch = new MailboxDispatch<String>(executor, target)
+
+        when:
+        1000.times { dispatch.dispatch("message $it".toString()) }
+        dispatch.stop()
+
+        then:
+        received == (0..<1000).collect { "message $it".toString() }
+    }
+
+    def "dispatch does not wait for message to be delivered"() {
+        def target = {
+            thread.block()
+            instant.delivered
+        } as Dispatch
+        def dispatch = new MailboxDispatch<String>(executor, target)
+
+        when:
+        operation.dispatch {
+            dispatch.dispatch("message")
+        }
+        dispatch.stop()
+
+        then:
+        operation.dispatch.end < instant.delivered
+    }
+
+    def "stop blocks until queued messages have been delivered"() {
+        def target = { message ->
+            if (message == "message1") {
+                instant.delivering
+                thread.block()
+            }
+            received << message
+        } as Dispatch
+        def dispatch = new MailboxDispatch<String>(executor, target)
+
+        when:
+        dispatch.dispatch("message1")
+        dispatch.dispatch("message2")
+        operation.stop {
+            thread.blockUntil.delivering
+            dispatch.stop()
+        }
+
+        then:
+        received == ["message1", "message2"]
+    }
+
+    def "stop does not block when no messages have been dispatched"() {
+        def dispatch = new MailboxDispatch<String>(executor, target)
+
+        when:
+        dispatch.stop()
+
+        then:
+        received.empty
+    }
+
+    def "cannot dispatch messages after stop"() {
+        def dispatch = new MailboxDispatch<String>(executor, target)
+
+        given:
+        dispatch.stop()
+
+        when:
+        dispatch.dispatch("message")
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == 'Cannot dispatch message, as this message dispatch has been stopped. Message: message'
+        received.empty
+    }
+
+    def "delivers messages dispatched concurrently from one thread at a time"() {
+        def active = new AtomicInteger()
+        def target = { message ->
+            assert active.incrementAndGet() == 1
+            received << message
+            active.decrementAndGet()
+        } as Dispatch
+        def dispatch = new MailboxDispatch<String>(executor, target)
+
+        when:
+        async {
+            4.times { producer ->
+                start {
+                    500.times { dispatch.dispatch("$producer:$it".toString()) }
+                }
+            }
+        }
+        dispatch.stop()
+
+        then:
+        received.size() == 2000
+        4.times { producer ->
+            assert received.findAll { it.startsWith("$producer:") } == (0..<500).collect { "$producer:$it".toString() }
+        }
+    }
+
+    def "dispatch blocks while the queue is full"() {
+        def target = { message ->
+            if (message == "message1") {
+                instant.delivering
+                thread.blockUntil.full
+            }
+            received << message
+        } as Dispatch
+        def dispatch = new MailboxDispatch<String>(executor, target, 2)
+
+        when:
+        async {
+            dispatch.dispatch("message1")
+            thread.blockUntil.delivering
+            dispatch.dispatch("message2")
+            start {
+                dispatch.dispatch("message3")
+                instant.dispatched
+            }
+            thread.block()
+            instant.full
+        }
+        dispatch.stop()
+
+        then:
+        instant.dispatched > instant.full
+        received == ["message1", "message2", "message3"]
+    }
+
+    def "dispatch does not block while the queue is full when called while delivering a message"() {
+        MailboxDispatch<String> dispatch
+        def target = { message ->
+            if (message == "message1") {
+                3.times { dispatch.dispatch("nested$it".toString()) }
+                instant.nestedDispatched
+            }
+            received << message
+        } as Dispatch
+        dispatch = new MailboxDispatch<String>(executor, target, 2)
+
+        when:
+        dispatch.dispatch("message1")
+        thread.blockUntil.nestedDispatched
+        dispatch.stop()
+
+        then:
+        received == ["message1", "nested0", "nested1", "nested2"]
+    }
+
+    def "stop fails a dispatch that is blocked while the queue is full"() {
+        def target = { message ->
+            instant.delivering
+            thread.blockUntil.stopping
+            received << message
+        } as Dispatch
+        def dispatch = new MailboxDispatch<String>(executor, target, 1)
+
+        when:
+        async {
+            dispatch.dispatch("message1")
+            thread.blockUntil.delivering
+            start {
+                try {
+                    dispatch.dispatch("message2")
+                } catch (IllegalStateException e) {
+                    instant.failed
+                }
+            }
+            thread.block()
+            instant.stopping
+            dispatch.stop()
+        }
+
+        then:
+        instant.failed > instant.stopping
+        received == ["message1"]
+    }
+}
@@ -18,6 +18,7 @@ package org.gradle.messaging.remote.internal.hub
 
 import org.gradle.api.Action
 import org.gradle.messaging.dispatch.Dispatch
+import org.gradle.messaging.remote.internal.BufferingConnection
 import org.gradle.messaging.remote.internal.Connection
 import org.gradle.messaging.remote.internal.hub.protocol.ChannelIdentifier
 import org.gradle.messaging.remote.internal.hub.protocol.ChannelMessage
@@ -191,6 +192,23 @@ class MessageHubTest extends ConcurrentSpec {
         connection.stop()
     }
 
+    def "flushes buffering connection once the outgoing messages taken from the queue have been written"() {
+        def connection = new BufferingTestConnection()
+
+        given:
+        hub.getOutgoing("channel", String).dispatch("message1")
+        hub.getOutgoing("channel", String).dispatch("message2")
+
+        when:
+        hub.addConnection(connection)
+        hub.stop()
+
+        then:
+        connection.writes.findAll { it != "flush" } == ["message1", "message2", "end"]
+        connection.writes.last() == "flush"
+        connection.writes.count("flush") <= 2
+    }
+
     def "each outgoing message is dispatched to exactly one connection"() {
         def messages = new CopyOnWriteArrayList()
         Dispatch<InterHubMessage> outgoing = Mock()
@@ -652,6 +670,40 @@ class MessageHubTest extends ConcurrentSpec {
         }
     }
 
+    private static class BufferingTestConnection implements BufferingConnection<InterHubMessage> {
+        private final BlockingQueue<InterHubMessage> incoming = new LinkedBlockingQueue<>()
+        final List<String> writes = new CopyOnWriteArrayList<>()
+
+        void dispatch(InterHubMessage message) {
+            throw new UnsupportedOperationException()
+        }
+
+        void dispatchWithoutFlush(InterHubMessage message) {
+            if (message instanceof EndOfStream) {
+                writes << "end"
+                stop()
+            } else {
+                writes << ((ChannelMessage) message).payload
+            }
+        }
+
+        void flush() {
+            writes << "flush"
+        }
+
+        InterHubMessage receive() {
+            return incoming.take()
+        }
+
+        void requestStop() {
+            throw new UnsupportedOperationException()
+        }
+
+        void stop() {
+            incoming.put(new EndOfStream())
+        }
+    }
+
     private static class TestConnection implements Connection<InterHubMessage> {
         private final BlockingQueue<InterHubMessage> incoming = new LinkedBlockingQueue<>()
         private final BlockingQueue<InterHubMessage> outgoing = new LinkedBlockingQueue<>()
@@ -189,6 +189,7 @@ class ProjectGeneratorTask extends DefaultTask {
                 String packageName = "org.gradle.test.performance${(int) (it / 100) + 1}"
                 Map classArgs = args + [packageName: packageName, productionClassName: "Production${it + 1}"]
                 generate("src/main/java/${packageName.replace('.', '/')}/${classArgs.productionClassName}.java", 'Production.java', classArgs)
+                generate("src/main/resources/${packageName.replace('.', '/')}/${classArgs.productionClassName}.properties", 'Production.properties', classArgs)
             }
             testProject.testSourceFiles.times {
                 String packageName = "org.gradle.test.performance${(int) (it / 100) + 1}"
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance
+
+import org.gradle.performance.fixture.BuildSpecification
+import spock.lang.Unroll
+
+class LazyTaskCreationPerformanceTest extends AbstractCrossBuildPerformanceTest {
+
+    @Unroll
+    def "eager vs lazy task creation #scenario build"() {
+        given:
+        runner.testGroup = "eager vs lazy task creation"
+        runner.testId = "eager vs lazy task creation $scenario build"
+        runner.buildSpecifications = [
+                BuildSpecification.forProject("manyEagerTasks").displayName("eager tasks").tasksToRun(*tasks).useDaemon().build(),
+                BuildSpecification.forProject("manyLazyTasks").displayName("lazy tasks").tasksToRun(*tasks).useDaemon().build()
+        ]
+
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertEveryBuildSucceeds()
+
+        where:
+        scenario           | tasks
+        "empty"            | ["help"]
+        "single task"      | [":project1:task1"]
+        "single task name" | ["task1"]
+    }
+}
@@ -24,6 +24,7 @@ import org.gradle.api.internal.tasks.compile.incremental.cache.DefaultGeneralCom
 import org.gradle.api.internal.tasks.compile.incremental.cache.GeneralCompileCaches;
 import org.gradle.api.internal.tasks.compile.incremental.jar.DefaultJarSnapshotCache;
 import org.gradle.api.internal.tasks.compile.incremental.jar.JarSnapshotCache;
+import org.gradle.api.internal.tasks.compile.incremental.jar.JarSnapshotProcessor;
 import org.gradle.cache.CacheRepository;
 import org.gradle.initialization.JdkToolsInitializer;
 import org.gradle.internal.service.ServiceRegistration;
@@ -62,5 +63,9 @@ public class CompileServices implements PluginServiceRegistry {
         JarSnapshotCache createJarSnapshotCache(CacheRepository cacheRepository) {
             return new DefaultJarSnapshotCache(cacheRepository);
         }
+
+        JarSnapshotProcessor createJarSnapshotProcessor() {
+            return new JarSnapshotProcessor();
+        }
     }
 }
@@ -16,34 +16,52 @@
 
 package org.gradle.api.internal.tasks.testing.worker;
 
+import com.google.common.base.Objects;
+import org.gradle.api.Nullable;
 import org.gradle.api.internal.tasks.testing.*;
 import org.gradle.api.tasks.testing.TestOutputEvent;
 import org.gradle.api.tasks.testing.TestResult;
 import org.gradle.internal.id.CompositeIdGenerator;
 import org.gradle.messaging.remote.internal.Message;
+import org.gradle.messaging.remote.internal.PlaceholderException;
 import org.gradle.messaging.serialize.*;
 import org.gradle.messaging.serialize.kryo.StatefulSerializer;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializes the parameters of the messages sent between the test workers and the build process.
+ *
+ * <p>Each reader and writer is used for a single connection and keeps a table of the class names and stack frames it has seen, so that
+ * each of them is sent in full once per connection and referred to by index afterwards.</p>
+ */
 public class TestEventSerializer implements StatefulSerializer<Object[]> {
-    private final Serializer<Object> paramSerializer;
-
-    public TestEventSerializer() {
+    private static Serializer<Object> createParamSerializer() {
+        Serializer<String> stringSerializer = new InterningStringSerializer();
         DefaultSerializerRegistry<Object> registry = new DefaultSerializerRegistry<Object>();
-        registry.register(DefaultTestClassRunInfo.class, new DefaultTestClassRunInfoSerializer());
+        registry.register(DefaultTestClassRunInfo.class, new DefaultTestClassRunInfoSerializer(stringSerializer));
         registry.register(CompositeIdGenerator.CompositeId.class, new IdSerializer());
         registry.register(DefaultTestSuiteDescriptor.class, new DefaultTestSuiteDescriptorSerializer());
         registry.register(WorkerTestClassProcessor.WorkerTestSuiteDescriptor.class, new WorkerTestSuiteDescriptorSerializer());
-        registry.register(DefaultTestClassDescriptor.class, new DefaultTestClassDescriptorSerializer());
-        registry.register(DefaultTestMethodDescriptor.class, new DefaultTestMethodDescriptorSerializer());
-        registry.register(DefaultTestDescriptor.class, new DefaultTestDescriptorSerializer());
+        registry.register(DefaultTestClassDescriptor.class, new DefaultTestClassDescriptorSerializer(stringSerializer));
+        registry.register(DefaultTestMethodDescriptor.class, new DefaultTestMethodDescriptorSerializer(stringSerializer));
+        registry.register(DefaultTestDescriptor.class, new DefaultTestDescriptorSerializer(stringSerializer));
         registry.register(TestStartEvent.class, new TestStartEventSerializer());
         registry.register(TestCompleteEvent.class, new TestCompleteEventSerializer());
         registry.register(DefaultTestOutputEvent.class, new DefaultTestOutputEventSerializer());
-        registry.register(Throwable.class, new ThrowableSerializer());
-        paramSerializer = registry.build();
+        registry.register(Throwable.class, new ThrowableSerializer(stringSerializer));
+        return registry.build();
     }
 
     public ObjectReader<Object[]> newReader(final Decoder decoder) {
+        final Serializer<Object> paramSerializer = createParamSerializer();
         return new ObjectReader<Object[]>() {
             public Object[] read() throws Exception {
                 int count = decoder.readSmallInt();
@@ -57,6 +75,7 @@ public class TestEventSerializer implements StatefulSerializer<Object[]> {
     }
 
     public ObjectWriter<Object[]> newWriter(final Encoder encoder) {
+        final Serializer<Object> paramSerializer = createParamSerializer();
         return new ObjectWriter<Object[]>() {
             public void write(Object[] value) throws Exception {
                 encoder.writeSmallInt(value.length);
@@ -89,34 +108,230 @@ public class TestEventSerializer implements StatefulSerializer<Object[]> {
         }
     }
 
+    /**
+     * Writes each distinct string in full the first time it is written, and as the index of the string afterwards.
+     */
+    private static class InterningStringSerializer implements Serializer<String> {
+        private final Map<String, Integer> ids = new HashMap<String, Integer>();
+        private final List<String> strings = new ArrayList<String>();
+
+        public String read(Decoder decoder) throws Exception {
+            int id = decoder.readSmallInt();
+            if (id < strings.size()) {
+                return strings.get(id);
+            }
+            if (id > strings.size()) {
+                throw new IllegalArgumentException(String.format("Unexpected string id %d found.", id));
+            }
+            String value = decoder.readString();
+            strings.add(value);
+            return value;
+        }
+
+        public void write(Encoder encoder, String value) throws Exception {
+            Integer id = ids.get(value);
+            if (id != null) {
+                encoder.writeSmallInt(id);
+                return;
+            }
+            id = ids.size();
+            encoder.writeSmallInt(id);
+            encoder.writeString(value);
+            ids.put(value, id);
+        }
+    }
+
+    /**
+     * Writes a failure as its type, message, stack trace and cause, when the failure holds no other state and can be recreated from its
+     * message. Uses Java serialization for other failures.
+     */
     private static class ThrowableSerializer implements Serializer<Throwable> {
+        private final Serializer<String> stringSerializer;
+        private final Serializer<String> fileNameSerializer;
+        private final Serializer<String> messageSerializer = new NullSafeStringSerializer();
+        private final Map<Class<?>, Boolean> statelessTypes = new HashMap<Class<?>, Boolean>();
+
+        private ThrowableSerializer(Serializer<String> stringSerializer) {
+            this.stringSerializer = stringSerializer;
+            this.fileNameSerializer = new NullableSerializer<String>(stringSerializer);
+        }
+
         public Throwable read(Decoder decoder) throws Exception {
-            return (Throwable) Message.receive(decoder.getInputStream(), getClass().getClassLoader());
+            if (!decoder.readBoolean()) {
+                return (Throwable) Message.receive(decoder.getInputStream(), getClass().getClassLoader());
+            }
+            String type = stringSerializer.read(decoder);
+            String message = messageSerializer.read(decoder);
+            String toString = messageSerializer.read(decoder);
+            StackTraceElement[] stackTrace = new StackTraceElement[decoder.readSmallInt()];
+            for (int i = 0; i < stackTrace.length; i++) {
+                String className = stringSerializer.read(decoder);
+                String methodName = stringSerializer.read(decoder);
+                String fileName = fileNameSerializer.read(decoder);
+                int lineNumber = decoder.readInt();
+                stackTrace[i] = new StackTraceElement(className, methodName, fileName, lineNumber);
+            }
+            Throwable cause = decoder.readBoolean() ? read(decoder) : null;
+
+            Throwable throwable = recreate(type, message, cause);
+            if (throwable == null || !Objects.equal(message, throwable.getMessage()) || !Objects.equal(toString, throwable.toString())) {
+                // Could not recreate the failure as it was
+                throwable = new PlaceholderException(type, message, null, toString, null, cause);
+            }
+            throwable.setStackTrace(stackTrace);
+            return throwable;
+        }
+
+        private Throwable recreate(String type, String message, Throwable cause) {
+            Class<?> throwableClass;
+            try {
+                throwableClass = getClass().getClassLoader().loadClass(type);
+            } catch (ClassNotFoundException e) {
+                return null;
+            }
+            Throwable throwable = create(throwableClass, message);
+            if (throwable != null && cause != null) {
+                try {
+                    throwable.initCause(cause);
+                } catch (IllegalStateException e) {
+                    return null;
+                }
+            }
+            return throwable;
+        }
+
+        @Nullable
+        private static Throwable create(Class<?> type, @Nullable String message) {
+            try {
+                Constructor<?> constructor = message == null ? type.getConstructor() : messageConstructor(type);
+                return (Throwable) constructor.newInstance(message == null ? new Object[0] : new Object[]{message});
+            } catch (Exception e) {
+                return null;
+            }
         }
 
         public void write(Encoder encoder, Throwable value) throws Exception {
-            Message.send(value, encoder.getOutputStream());
+            String message = null;
+            String toString = null;
+            Throwable cause = null;
+            boolean structured;
+            try {
+                message = value.getMessage();
+                toString = value.toString();
+                cause = value.getCause();
+                structured = canRecreate(value, message, toString, cause);
+            } catch (Throwable e) {
+                // Let Java serialization deal with the broken failure
+                structured = false;
+            }
+            if (!structured) {
+                encoder.writeBoolean(false);
+                Message.send(value, encoder.getOutputStream());
+                return;
+            }
+
+            encoder.writeBoolean(true);
+            stringSerializer.write(encoder, value.getClass().getName());
+            messageSerializer.write(encoder, message);
+            messageSerializer.write(encoder, toString);
+            StackTraceElement[] stackTrace = value.getStackTrace();
+            encoder.writeSmallInt(stackTrace.length);
+            for (StackTraceElement element : stackTrace) {
+                stringSerializer.write(encoder, element.getClassName());
+                stringSerializer.write(encoder, element.getMethodName());
+                fileNameSerializer.write(encoder, element.getFileName());
+                encoder.writeInt(element.getLineNumber());
+            }
+            encoder.writeBoolean(cause != null);
+            if (cause != null) {
+                write(encoder, cause);
+            }
+        }
+
+        /**
+         * Returns true when the type of the given failure declares no state of its own, the failure has no suppressed failures, and a
+         * failure with the same message, string representation and cause can be created from its message.
+         */
+        private boolean canRecreate(Throwable value, String message, String toString, Throwable cause) throws Exception {
+            Class<? extends Throwable> type = value.getClass();
+            Boolean stateless = statelessTypes.get(type);
+            if (stateless == null) {
+                stateless = Modifier.isPublic(type.getModifiers()) && hasNoInstanceFields(type);
+                statelessTypes.put(type, stateless);
+            }
+            if (!stateless || hasSuppressed(value)) {
+                return false;
+            }
+            Throwable recreated = create(type, message);
+            if (recreated == null || !Objects.equal(message, recreated.getMessage()) || !Objects.equal(toString, recreated.toString())) {
+                return false;
+            }
+            if (cause != null) {
+                try {
+                    recreated.initCause(cause);
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean hasSuppressed(Throwable value) throws Exception {
+            Method getSuppressed;
+            try {
+                // Java 7 and later
+                getSuppressed = Throwable.class.getMethod("getSuppressed");
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+            return ((Object[]) getSuppressed.invoke(value)).length > 0;
+        }
+
+        private static boolean hasNoInstanceFields(Class<?> type) {
+            for (Class<?> current = type; current != Throwable.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private static Constructor<?> messageConstructor(Class<?> type) throws NoSuchMethodException {
+            try {
+                return type.getConstructor(String.class);
+            } catch (NoSuchMethodException e) {
+                // For example, AssertionError(Object)
+                return type.getConstructor(Object.class);
+            }
         }
     }
 
     private static class IdSerializer implements Serializer<CompositeIdGenerator.CompositeId> {
         public CompositeIdGenerator.CompositeId read(Decoder decoder) throws Exception {
-            return new CompositeIdGenerator.CompositeId(decoder.readLong(), decoder.readLong());
+            return new CompositeIdGenerator.CompositeId(decoder.readSmallLong(), decoder.readSmallLong());
         }
 
         public void write(Encoder encoder, CompositeIdGenerator.CompositeId value) throws Exception {
-            encoder.writeLong((Long) value.getScope());
-            encoder.writeLong((Long) value.getId());
+            encoder.writeSmallLong((Long) value.getScope());
+            encoder.writeSmallLong((Long) value.getId());
         }
     }
 
     private static class DefaultTestClassRunInfoSerializer implements Serializer<DefaultTestClassRunInfo> {
+        private final Serializer<String> stringSerializer;
+
+        private DefaultTestClassRunInfoSerializer(Serializer<String> stringSerializer) {
+            this.stringSerializer = stringSerializer;
+        }
+
         public DefaultTestClassRunInfo read(Decoder decoder) throws Exception {
-            return new DefaultTestClassRunInfo(decoder.readString());
+            return new DefaultTestClassRunInfo(stringSerializer.read(decoder));
         }
 
         public void write(Encoder encoder, DefaultTestClassRunInfo value) throws Exception {
-            encoder.writeString(value.getTestClassName());
+            stringSerializer.write(encoder, value.getTestClassName());
         }
     }
 
@@ -197,49 +412,64 @@ public class TestEventSerializer implements StatefulSerializer<Object[]> {
 
     private static class DefaultTestClassDescriptorSerializer implements Serializer<DefaultTestClassDescriptor> {
         final Serializer<CompositeIdGenerator.CompositeId> idSerializer = new IdSerializer();
+        private final Serializer<String> stringSerializer;
+
+        private DefaultTestClassDescriptorSerializer(Serializer<String> stringSerializer) {
+            this.stringSerializer = stringSerializer;
+        }
 
         public DefaultTestClassDescriptor read(Decoder decoder) throws Exception {
             Object id = idSerializer.read(decoder);
-            String name = decoder.readString();
+            String name = stringSerializer.read(decoder);
             return new DefaultTestClassDescriptor(id, name);
         }
 
         public void write(Encoder encoder, DefaultTestClassDescriptor value) throws Exception {
             idSerializer.write(encoder, (CompositeIdGenerator.CompositeId) value.getId());
-            encoder.writeString(value.getName());
+            stringSerializer.write(encoder, value.getName());
         }
     }
 
     private static class DefaultTestDescriptorSerializer implements Serializer<DefaultTestDescriptor> {
         final Serializer<CompositeIdGenerator.CompositeId> idSerializer = new IdSerializer();
+        private final Serializer<String> stringSerializer;
+
+        private DefaultTestDescriptorSerializer(Serializer<String> stringSerializer) {
+            this.stringSerializer = stringSerializer;
+        }
 
         public DefaultTestDescriptor read(Decoder decoder) throws Exception {
             Object id = idSerializer.read(decoder);
-            String className = decoder.readString();
+            String className = stringSerializer.read(decoder);
             String name = decoder.readString();
             return new DefaultTestDescriptor(id, className, name);
         }
 
         public void write(Encoder encoder, DefaultTestDescriptor value) throws Exception {
             idSerializer.write(encoder, (CompositeIdGenerator.CompositeId) value.getId());
-            encoder.writeString(value.getClassName());
+            stringSerializer.write(encoder, value.getClassName());
             encoder.writeString(value.getName());
         }
     }
 
     private static class DefaultTestMethodDescriptorSerializer implements Serializer<DefaultTestMethodDescriptor> {
         final Serializer<CompositeIdGenerator.CompositeId> idSerializer = new IdSerializer();
+        private final Serializer<String> stringSerializer;
+
+        private DefaultTestMethodDescriptorSerializer(Serializer<String> stringSerializer) {
+            this.stringSerializer = stringSerializer;
+        }
 
         public DefaultTestMethodDescriptor read(Decoder decoder) throws Exception {
             Object id = idSerializer.read(decoder);
-            String className = decoder.readString();
+            String className = stringSerializer.read(decoder);
             String name = decoder.readString();
             return new DefaultTestMethodDescriptor(id, className, name);
         }
 
         public void write(Encoder encoder, DefaultTestMethodDescriptor value) throws Exception {
             idSerializer.write(encoder, (CompositeIdGenerator.CompositeId) value.getId());
-            encoder.writeString(value.getClassName());
+            stringSerializer.write(encoder, value.getClassName());
             encoder.writeString(value.getName());
         }
     }
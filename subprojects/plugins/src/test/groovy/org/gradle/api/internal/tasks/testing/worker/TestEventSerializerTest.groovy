@@ -30,6 +30,7 @@ import org.gradle.api.tasks.testing.TestResult
 import org.gradle.internal.id.CompositeIdGenerator
 import org.gradle.messaging.serialize.InputStreamBackedDecoder
 import org.gradle.messaging.serialize.OutputStreamBackedEncoder
+import org.junit.ComparisonFailure
 import spock.lang.Specification
 
 class TestEventSerializerTest extends Specification {
@@ -193,6 +194,64 @@ class TestEventSerializerTest extends Specification {
         result[0].cause.message == "cause"
     }
 
+    def "serializes stack trace of Throwable"() {
+        def failure = new IllegalStateException("broken")
+
+        when:
+        def result = serialize(failure)
+
+        then:
+        result[0].class == IllegalStateException
+        result[0].stackTrace == failure.stackTrace
+    }
+
+    def "serializes Throwable with state"() {
+        def failure = new ComparisonFailure("broken", "expected", "actual")
+
+        when:
+        def result = serialize(failure)
+
+        then:
+        result[0].class == ComparisonFailure
+        result[0].expected == "expected"
+        result[0].actual == "actual"
+        result[0].stackTrace == failure.stackTrace
+    }
+
+    def "serializes Throwable that cannot be recreated from its message"() {
+        def failure = new ProjectNotFoundFailure("p1")
+
+        when:
+        def result = serialize(failure)
+
+        then:
+        result[0].class == ProjectNotFoundFailure
+        result[0].message == "Project 'p1' not found."
+    }
+
+    def "writes each class name once"() {
+        def id = new CompositeIdGenerator.CompositeId(1L, 2L)
+        def className = "org.gradle.SomeTestClassWithALongName"
+        def outstr = new ByteArrayOutputStream()
+        def writer = serializer.newWriter(new OutputStreamBackedEncoder(outstr))
+
+        when:
+        writer.write([new DefaultTestMethodDescriptor(id, className, "test1")] as Object[])
+        def firstSize = outstr.size()
+        writer.write([new DefaultTestMethodDescriptor(id, className, "test2")] as Object[])
+        def secondSize = outstr.size() - firstSize
+        def reader = serializer.newReader(new InputStreamBackedDecoder(new ByteArrayInputStream(outstr.toByteArray())))
+        def first = reader.read()
+        def second = reader.read()
+
+        then:
+        secondSize < firstSize - className.length()
+        first[0].className == className
+        first[0].name == "test1"
+        second[0].className == className
+        second[0].name == "test2"
+    }
+
     def Object[] serialize(Object... source) {
         def outstr = new ByteArrayOutputStream()
         serializer.newWriter(new OutputStreamBackedEncoder(outstr)).write(source)
@@ -200,3 +259,9 @@ class TestEventSerializerTest extends Specification {
         return serializer.newReader(new InputStreamBackedDecoder(new ByteArrayInputStream(outstr.toByteArray()))).read()
     }
 }
+
+class ProjectNotFoundFailure extends RuntimeException {
+    ProjectNotFoundFailure(String projectName) {
+        super("Project '${projectName}' not found.".toString())
+    }
+}
@@ -21,6 +21,8 @@ import org.gradle.api.Nullable;
 import org.gradle.tooling.model.gradle.GradleBuild;
 import org.gradle.tooling.model.Model;
 
+import java.util.Map;
+
 /**
  * Provides a {@link BuildAction} various ways to control a Gradle build and access information about the build.
  *
@@ -111,4 +113,18 @@ public interface BuildController {
      */
     @Nullable
     <T> T findModel(Model target, Class<T> modelType);
+
+    /**
+     * Fetches a snapshot of the model of the given type for each project of the build. The models are all built as part of the same build,
+     * which is configured once.
+     *
+     * <p>See {@link #getModel(Model, Class)} for more details.</p>
+     *
+     * @param modelType The model type.
+     * @param <T> The model type.
+     * @return The models, keyed by project path, in the order of the projects of the build. Projects that do not support the model are not included.
+     * @since 2.4
+     */
+    @Incubating
+    <T> Map<String, T> findModels(Class<T> modelType);
 }
@@ -15,6 +15,7 @@
  */
 package org.gradle.tooling.internal.adapter;
 
+import com.google.common.base.Optional;
 import org.gradle.api.Action;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.reflect.DirectInstantiator;
@@ -26,6 +27,8 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,6 +49,7 @@ public class ProtocolToModelAdapter implements Serializable {
     private static final Pattern IS_METHOD = Pattern.compile("is(\\w+)");
     private final TargetTypeProvider targetTypeProvider;
     private final CollectionMapper collectionMapper = new CollectionMapper();
+    private transient ConcurrentMap<MethodSignature, Optional<Method>> methodCache = new ConcurrentHashMap<MethodSignature, Optional<Method>>();
 
     public ProtocolToModelAdapter() {
         this(IDENTITY_TYPE_PROVIDER);
@@ -118,6 +122,11 @@ public class ProtocolToModelAdapter implements Serializable {
         return handler.delegate;
     }
 
+    private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        methodCache = new ConcurrentHashMap<MethodSignature, Optional<Method>>();
+    }
+
     private static class DefaultSourceObjectMapping implements SourceObjectMapping {
         private final Object protocolObject;
         private final Class<?> targetType;
@@ -323,8 +332,7 @@ public class ProtocolToModelAdapter implements Serializable {
 
     private class ReflectionMethodInvoker implements MethodInvoker {
         public void invoke(MethodInvocation invocation) throws Throwable {
-            // TODO - cache method lookup
-            Method targetMethod = locateMethod(invocation);
+            Method targetMethod = lookupMethod(invocation);
             if (targetMethod == null) {
                 return;
             }
@@ -339,11 +347,21 @@ public class ProtocolToModelAdapter implements Serializable {
             invocation.setResult(returnValue);
         }
 
-        private Method locateMethod(MethodInvocation invocation) {
+        private Method lookupMethod(MethodInvocation invocation) {
             Class<?> sourceClass = invocation.getDelegate().getClass();
+            MethodSignature signature = new MethodSignature(sourceClass, invocation.getName(), invocation.getParameterTypes());
+            Optional<Method> cached = methodCache.get(signature);
+            if (cached == null) {
+                cached = Optional.fromNullable(locateMethod(sourceClass, invocation.getName(), invocation.getParameterTypes()));
+                methodCache.putIfAbsent(signature, cached);
+            }
+            return cached.orNull();
+        }
+
+        private Method locateMethod(Class<?> sourceClass, String name, Class<?>[] parameterTypes) {
             Method match;
             try {
-                match = sourceClass.getMethod(invocation.getName(), invocation.getParameterTypes());
+                match = sourceClass.getMethod(name, parameterTypes);
             } catch (NoSuchMethodException e) {
                 return null;
             }
@@ -353,7 +371,7 @@ public class ProtocolToModelAdapter implements Serializable {
             while (!queue.isEmpty()) {
                 Class<?> c = queue.removeFirst();
                 try {
-                    match = c.getMethod(invocation.getName(), invocation.getParameterTypes());
+                    match = c.getMethod(name, parameterTypes);
                 } catch (NoSuchMethodException e) {
                     // ignore
                 }
@@ -369,6 +387,40 @@ public class ProtocolToModelAdapter implements Serializable {
         }
     }
 
+    /**
+     * The key of a method lookup: the class of the source object, the method name and the parameter types.
+     */
+    private static class MethodSignature {
+        private final Class<?> sourceClass;
+        private final String name;
+        private final Class<?>[] parameterTypes;
+        private final int hashCode;
+
+        private MethodSignature(Class<?> sourceClass, String name, Class<?>[] parameterTypes) {
+            this.sourceClass = sourceClass;
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.hashCode = 31 * (31 * sourceClass.hashCode() + name.hashCode()) + Arrays.hashCode(parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            MethodSignature other = (MethodSignature) obj;
+            return sourceClass.equals(other.sourceClass) && name.equals(other.name) && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     private static class PropertyCachingMethodInvoker implements MethodInvoker {
         private final Map<String, Object> properties = new HashMap<String, Object>();
         private final Set<String> unknown = new HashSet<String>();
@@ -22,12 +22,17 @@ import org.gradle.tooling.internal.adapter.ProtocolToModelAdapter;
 import org.gradle.tooling.internal.consumer.versioning.ModelMapping;
 import org.gradle.tooling.internal.protocol.BuildResult;
 import org.gradle.tooling.internal.protocol.InternalBuildController;
+import org.gradle.tooling.internal.protocol.InternalBuildControllerVersion2;
 import org.gradle.tooling.internal.protocol.InternalUnsupportedModelException;
 import org.gradle.tooling.internal.protocol.ModelIdentifier;
-import org.gradle.tooling.model.gradle.GradleBuild;
 import org.gradle.tooling.model.Model;
+import org.gradle.tooling.model.gradle.BasicGradleProject;
+import org.gradle.tooling.model.gradle.GradleBuild;
 import org.gradle.tooling.model.internal.Exceptions;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 class BuildControllerAdapter implements BuildController {
     private final InternalBuildController buildController;
     private final ProtocolToModelAdapter adapter;
@@ -78,4 +83,29 @@ class BuildControllerAdapter implements BuildController {
 
         return adapter.adapt(modelType, result.getModel());
     }
+
+    public <T> Map<String, T> findModels(Class<T> modelType) {
+        ModelIdentifier modelIdentifier = modelMapping.getModelIdentifierFromModelType(modelType);
+        Map<String, T> models = new LinkedHashMap<String, T>();
+        if (buildController instanceof InternalBuildControllerVersion2) {
+            // Build all of the models with a single request
+            Map<?, ?> result = (Map<?, ?>) ((InternalBuildControllerVersion2) buildController).getModels(modelIdentifier).getModel();
+            for (Map.Entry<?, ?> entry : result.entrySet()) {
+                models.put((String) entry.getKey(), adapter.adapt(modelType, entry.getValue()));
+            }
+            return models;
+        }
+
+        // Older providers build one model per request
+        for (BasicGradleProject project : getBuildModel().getProjects()) {
+            BuildResult<?> result;
+            try {
+                result = buildController.getModel(adapter.unpack(project), modelIdentifier);
+            } catch (InternalUnsupportedModelException e) {
+                continue;
+            }
+            models.put(project.getPath(), adapter.adapt(modelType, result.getModel()));
+        }
+        return models;
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.tooling.internal.protocol;
+
+/**
+ * Mixed into a provider's {@link InternalBuildController}, to allow a model to be requested for all projects of the build at once.
+ *
+ * <p>DO NOT CHANGE THIS INTERFACE - it is part of the cross-version protocol.
+ *
+ * <p>Consumer compatibility: This interface is used by all consumer versions from 2.4-rc-1.</p>
+ * <p>Provider compatibility: This interface is implemented by all provider versions from 2.4-rc-1.</p>
+ *
+ * @since 2.4-rc-1
+ */
+public interface InternalBuildControllerVersion2 extends InternalBuildController {
+    /**
+     * Returns the requested model for each project of the build that supports it.
+     *
+     * <p>Consumer compatibility: This method is used by all consumer versions from 2.4-rc-1.</p>
+     * <p>Provider compatibility: This method is implemented by all provider versions from 2.4-rc-1.</p>
+     *
+     * @param modelIdentifier The identifier of the model to build.
+     * @return A result whose model is a {@code Map<String, Object>} from project path to model, in project path order. Projects that do not
+     * support the model are not included.
+     * @throws BuildExceptionVersion1 On build failure.
+     * @since 2.4-rc-1
+     */
+    BuildResult<?> getModels(ModelIdentifier modelIdentifier) throws BuildExceptionVersion1;
+}
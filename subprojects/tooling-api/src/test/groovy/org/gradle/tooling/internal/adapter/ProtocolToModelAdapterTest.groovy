@@ -416,6 +416,32 @@ class ProtocolToModelAdapterTest extends Specification {
         copiedModel.name == "name"
     }
 
+    def "locates methods separately for each source object type"() {
+        def project = new TestProtocolProjectImpl()
+        def other = new OtherTestProtocolProjectImpl()
+
+        expect:
+        adapter.adapt(TestProject.class, project).name == "name"
+        adapter.adapt(TestProject.class, other).name == "other"
+        adapter.adapt(TestProject.class, new TestProtocolProjectImpl(name: "another")).name == "another"
+    }
+
+    def "fails on each call of a method that the source object does not provide"() {
+        def model = adapter.adapt(TestModel.class, new TestProtocolProjectImpl())
+
+        when:
+        model.project
+
+        then:
+        thrown(UnsupportedMethodException)
+
+        when:
+        model.project
+
+        then:
+        thrown(UnsupportedMethodException)
+    }
+
     def "unpacks source object from view"() {
         def source = new Object()
 
@@ -492,6 +518,12 @@ class TestProtocolProjectImpl implements Serializable {
     String name = "name"
 }
 
+class OtherTestProtocolProjectImpl {
+    String getName() {
+        return "other"
+    }
+}
+
 class ConfigMixin {
     TestModel model
 
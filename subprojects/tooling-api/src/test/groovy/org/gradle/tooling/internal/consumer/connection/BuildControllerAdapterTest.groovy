@@ -20,7 +20,9 @@ import org.gradle.tooling.UnknownModelException
 import org.gradle.tooling.internal.adapter.ProtocolToModelAdapter
 import org.gradle.tooling.internal.consumer.versioning.ModelMapping
 import org.gradle.tooling.internal.protocol.*
+import org.gradle.tooling.model.DomainObjectSet
 import org.gradle.tooling.model.Element
+import org.gradle.tooling.model.gradle.BasicGradleProject
 import org.gradle.tooling.model.gradle.GradleBuild
 import spock.lang.Specification
 
@@ -119,4 +121,64 @@ class BuildControllerAdapterTest extends Specification {
         and:
         1 * internalController.getModel(null, _) >> { throw new InternalUnsupportedModelException() }
     }
+
+    def "fetches models for all projects one project at a time from older providers"() {
+        def buildModel = new Object()
+        def rootModel = new Object()
+        def childModel = new Object()
+        def rootView = Stub(GradleBuild)
+        def childView = Stub(GradleBuild)
+        def rootProject = Stub(BasicGradleProject) { getPath() >> ':' }
+        def childProject = Stub(BasicGradleProject) { getPath() >> ':child' }
+        def otherProject = Stub(BasicGradleProject) { getPath() >> ':other' }
+        def rootTarget = new Object()
+        def childTarget = new Object()
+        def otherTarget = new Object()
+        def build = Stub(GradleBuild) {
+            getProjects() >> Stub(DomainObjectSet) {
+                iterator() >> { [rootProject, childProject, otherProject].iterator() }
+            }
+        }
+
+        when:
+        def result = controller.findModels(GradleBuild)
+
+        then:
+        result == [':': rootView, ':child': childView]
+        result.keySet() as List == [':', ':child']
+
+        and:
+        1 * internalController.getModel(null, _) >> Stub(BuildResult) { getModel() >> buildModel }
+        1 * adapter.adapt(GradleBuild, buildModel) >> build
+        1 * adapter.unpack(rootProject) >> rootTarget
+        1 * adapter.unpack(childProject) >> childTarget
+        1 * adapter.unpack(otherProject) >> otherTarget
+        1 * internalController.getModel(rootTarget, _) >> Stub(BuildResult) { getModel() >> rootModel }
+        1 * internalController.getModel(childTarget, _) >> Stub(BuildResult) { getModel() >> childModel }
+        1 * internalController.getModel(otherTarget, _) >> { throw new InternalUnsupportedModelException() }
+        1 * adapter.adapt(GradleBuild, rootModel) >> rootView
+        1 * adapter.adapt(GradleBuild, childModel) >> childView
+    }
+
+    def "fetches models for all projects with a single request when provider supports it"() {
+        def batchedController = Mock(InternalBuildControllerVersion2)
+        def controller = new BuildControllerAdapter(adapter, batchedController, mapping)
+        def rootModel = new Object()
+        def childModel = new Object()
+        def rootView = Stub(GradleBuild)
+        def childView = Stub(GradleBuild)
+
+        when:
+        def result = controller.findModels(GradleBuild)
+
+        then:
+        result == [':': rootView, ':child': childView]
+        result.keySet() as List == [':', ':child']
+
+        and:
+        1 * batchedController.getModels({ it.name == 'GradleBuild' }) >> Stub(BuildResult) { getModel() >> [':': rootModel, ':child': childModel] }
+        1 * adapter.adapt(GradleBuild, rootModel) >> rootView
+        1 * adapter.adapt(GradleBuild, childModel) >> childView
+        0 * batchedController._
+    }
 }